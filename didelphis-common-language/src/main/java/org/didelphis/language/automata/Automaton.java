@@ -25,6 +25,7 @@ import org.didelphis.language.automata.matching.Match;
 import org.didelphis.language.phonetic.sequences.Sequence;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface {@code Automaton}
@@ -57,6 +58,21 @@ public interface Automaton<S> {
 	@NonNull
 	Match<S> find(@NonNull S input);
 
+	/**
+	 * Provides information about the inputs accepted by this automaton, which
+	 * can be used to reject inputs without attempting to match them.
+	 * <p>
+	 * The default implementation makes no claims about the inputs accepted.
+	 *
+	 * @return information determined when the automaton was compiled
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default AutomatonInfo<S> getInfo() {
+		return AutomatonInfo.unknown();
+	}
+
 	/**
 	 * Splits the given input sequence around matches of this automaton.
 	 * <p>
@@ -81,6 +97,26 @@ public interface Automaton<S> {
 		return split(input, -1);
 	}
 
+	/**
+	 * Splits the given input sequence around matches of this automaton,
+	 * producing the same sequences as {@link #split(Object)}, but lazily:
+	 * each match is only searched for when the next sequence is requested, so
+	 * a consumer which stops early does not pay for the rest of the input.
+	 * <p>
+	 * The default implementation is not lazy, and streams the list returned
+	 * by {@link #split(Object)}.
+	 *
+	 * @param input the sequence to be split; not null
+	 *
+	 * @return an ordered stream of the sequences between matches; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default Stream<S> splitAsStream(@NonNull S input) {
+		return split(input).stream();
+	}
+
 	/**
 	 *
 	 * @param input
@@ -0,0 +1,217 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import org.didelphis.language.automata.parsing.LanguageParser;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class {@code AutomatonInfo}
+ * <p>
+ * Facts about the inputs accepted by an {@link Automaton}, determined
+ * statically when it is compiled. These allow callers to reject inputs without
+ * running the automaton, for example by skipping inputs shorter than the
+ * minimum match length, or which contain none of the required literals.
+ * <p>
+ * All information is conservative: lengths are bounds rather than exact
+ * values, the first-symbol set may contain symbols which never begin a match,
+ * and the required literals may omit some which are in fact required.
+ *
+ * @param <S> the type of data accepted by the automaton
+ *
+ * @since 0.4.0
+ */
+@Value
+public class AutomatonInfo<S> {
+
+	private static final AutomatonInfo<?> UNKNOWN = new AutomatonInfo<>(
+			0, -1, false, false, null, Collections.emptyList(), null
+	);
+
+	/**
+	 * A lower bound on the length of any match
+	 */
+	int minLength;
+
+	/**
+	 * An upper bound on the length of any match, or {@code -1} if the length
+	 * of a match is unbounded
+	 */
+	int maxLength;
+
+	/**
+	 * {@code true} if a match can only begin at the start of the input
+	 */
+	boolean startAnchored;
+
+	/**
+	 * {@code true} if a match can only end at the end of the input
+	 */
+	boolean endAnchored;
+
+	/**
+	 * The single-symbol sequences with which any non-empty match must begin, or
+	 * {@code null} if this cannot be determined
+	 */
+	@Nullable Set<S> firstSymbols;
+
+	/**
+	 * Literal sequences which are contained in every match
+	 */
+	@NonNull List<S> requiredLiterals;
+
+	/**
+	 * The only sequence the automaton accepts, if it accepts exactly one fixed
+	 * sequence; otherwise {@code null}
+	 */
+	@Nullable S literal;
+
+	/**
+	 * @return {@code true} if the length of a match has an upper bound
+	 */
+	public boolean isBounded() {
+		return maxLength >= 0;
+	}
+
+	/**
+	 * Checks whether a match of the provided length is possible
+	 *
+	 * @param length the length of a candidate match
+	 *
+	 * @return {@code false} if no match can have the provided length
+	 */
+	public boolean admitsLength(int length) {
+		return minLength <= length && (maxLength < 0 || length <= maxLength);
+	}
+
+	/**
+	 * Provides information which makes no claims about the inputs accepted
+	 *
+	 * @param <S> the type of data accepted by the automaton
+	 *
+	 * @return an instance with no length bounds, anchoring, or symbols
+	 */
+	@NonNull
+	@SuppressWarnings("unchecked")
+	public static <S> AutomatonInfo<S> unknown() {
+		return (AutomatonInfo<S>) UNKNOWN;
+	}
+
+	/**
+	 * Provides information for an automaton which accepts exactly the given
+	 * literal
+	 *
+	 * @param literal the only sequence accepted
+	 * @param parser a parser used to measure the literal
+	 * @param <S> the type of data accepted by the automaton
+	 *
+	 * @return a new instance describing the literal
+	 */
+	@NonNull
+	public static <S> AutomatonInfo<S> literal(
+			@NonNull S literal,
+			@NonNull LanguageParser<S> parser
+	) {
+		int length = parser.lengthOf(literal);
+		if (length == 0) {
+			return new AutomatonInfo<>(0, 0, false, false,
+					Collections.emptySet(), Collections.emptyList(), literal);
+		}
+		Set<S> first = Collections.singleton(parser.subSequence(literal, 0, 1));
+		List<S> required = Collections.singletonList(literal);
+		return new AutomatonInfo<>(length, length, false, false, first,
+				required, literal);
+	}
+
+	/**
+	 * Provides information for an automaton which accepts any one of the
+	 * given literals
+	 *
+	 * @param literals the sequences accepted
+	 * @param parser a parser used to measure the literals
+	 * @param <S> the type of data accepted by the automaton
+	 *
+	 * @return a new instance describing the literals
+	 */
+	@NonNull
+	public static <S> AutomatonInfo<S> anyOf(
+			@NonNull Collection<S> literals,
+			@NonNull LanguageParser<S> parser
+	) {
+		if (literals.isEmpty()) {
+			return unknown();
+		}
+		int min = Integer.MAX_VALUE;
+		int max = 0;
+		Set<S> first = new LinkedHashSet<>();
+		for (S literal : literals) {
+			int length = parser.lengthOf(literal);
+			min = Math.min(min, length);
+			max = Math.max(max, length);
+			if (length > 0) {
+				first.add(parser.subSequence(literal, 0, 1));
+			}
+		}
+		return new AutomatonInfo<>(min, max, false, false,
+				Collections.unmodifiableSet(first), Collections.emptyList(),
+				null);
+	}
+
+	/**
+	 * Provides information for an automaton which accepts any sequence whose
+	 * length is within the given bounds
+	 *
+	 * @param minLength the minimum length accepted
+	 * @param maxLength the maximum length accepted, or {@code -1} if unbounded
+	 * @param <S> the type of data accepted by the automaton
+	 *
+	 * @return a new instance with the given bounds
+	 */
+	@NonNull
+	public static <S> AutomatonInfo<S> anyOfLength(int minLength, int maxLength) {
+		return new AutomatonInfo<>(minLength, maxLength, false, false, null,
+				Collections.emptyList(), null);
+	}
+
+	/**
+	 * Provides information for a zero-length assertion of position
+	 *
+	 * @param start {@code true} for an assertion that matches only at the start
+	 *      of the input; {@code false} for one that matches only at the end
+	 * @param <S> the type of data accepted by the automaton
+	 *
+	 * @return a new instance describing the assertion
+	 */
+	@NonNull
+	public static <S> AutomatonInfo<S> anchor(boolean start) {
+		return new AutomatonInfo<>(0, 0, start, !start, Collections.emptySet(),
+				Collections.emptyList(), null);
+	}
+}
@@ -26,13 +26,17 @@ import lombok.ToString;
 import org.didelphis.language.automata.expressions.Expression;
 import org.didelphis.language.automata.matching.Match;
 import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.statemachines.Matcher;
 import org.didelphis.language.automata.statemachines.StandardStateMachine;
 import org.didelphis.language.automata.statemachines.StateMachine;
 
 import org.intellij.lang.annotations.Language;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Class {@code Regex}
@@ -67,15 +71,108 @@ public class Regex implements Automaton<String> {
 		return automaton.find(input);
 	}
 
+	/**
+	 * Creates a reusable matcher for this pattern; see {@link Matcher}
+	 *
+	 * @param input the initial input of the matcher
+	 *
+	 * @return a new matcher; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public Matcher<String> matcher(@NonNull String input) {
+		return automaton.matcher(input);
+	}
+
+	/**
+	 * Finds each successive match in the input
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return a list of the matches found, in order; not null
+	 *
+	 * @see StateMachine#findAll(Object)
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public List<Match<String>> findAll(@NonNull String input) {
+		return automaton.findAll(input);
+	}
+
+	/**
+	 * Finds the first match in the input, searching long inputs concurrently
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return the same match as would be returned by {@link #find(String)}
+	 *
+	 * @see StateMachine#findParallel(Object, ForkJoinPool)
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public Match<String> findParallel(@NonNull String input) {
+		return automaton.findParallel(input);
+	}
+
+	/**
+	 * Finds each successive match in the input, searching long inputs
+	 * concurrently
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return the same matches as would be returned by
+	 *      {@link #findAll(String)}
+	 *
+	 * @see StateMachine#findAllParallel(Object, ForkJoinPool)
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public List<Match<String>> findAllParallel(@NonNull String input) {
+		return automaton.findAllParallel(input);
+	}
+
+	@NonNull
+	@Override
+	public AutomatonInfo<String> getInfo() {
+		return automaton.getInfo();
+	}
+
 	@NonNull
 	@Override
 	public List<String> split(@NonNull String input, int limit) {
 		return automaton.split(input, limit);
 	}
 
+	@NonNull
+	@Override
+	public Stream<String> splitAsStream(@NonNull String input) {
+		return automaton.splitAsStream(input);
+	}
+
 	@NonNull
 	@Override
 	public String replace(@NonNull String input, @NonNull String replacement) {
 		return automaton.replace(input, replacement);
 	}
+
+	/**
+	 * Replaces each match in the input with the value computed from it; see
+	 * {@link StateMachine#replace(Object, Function)}
+	 *
+	 * @param input the input in which to replace matches; not null
+	 * @param replacer a function producing the replacement for each match;
+	 *      not null
+	 *
+	 * @return a new string with each match replaced; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public String replace(
+			@NonNull String input,
+			@NonNull Function<? super Match<String>, String> replacer
+	) {
+		return automaton.replace(input, replacer);
+	}
 }
@@ -0,0 +1,432 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.expressions;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import org.didelphis.language.automata.parsing.LanguageParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility Class {@code ExpressionOptimizer}
+ * <p>
+ * Rewrites an {@link Expression} tree into an equivalent tree which produces
+ * fewer states and arcs when compiled into a state machine. The following
+ * transformations are applied, bottom-up:
+ * <ul>
+ *     <li>Empty terminals and empty non-capturing groups are dropped</li>
+ *     <li>Nested non-capturing groups are flattened into their parent, and
+ *     nested alternations into their parent alternation</li>
+ *     <li>Common terminal prefixes are factored out of alternations</li>
+ *     <li>Adjacent unquantified terminals are merged where the parser reports
+ *     that they can be compiled to a single arc (see
+ *     {@link LanguageParser#mergeTerminals(String, String)})</li>
+ * </ul>
+ * Negated sub-expressions are left untouched.
+ * <p>
+ * Where several paths match the same span, the state machine reports the
+ * groups of whichever path reaches the accepting state first, counting each
+ * arc as a step, so capturing groups limit what can be rewritten. An
+ * expression which contains no capturing group is optimized in full.
+ * Otherwise, capturing groups are kept, so that they keep their numbering,
+ * and only the sequences which every path passes through exactly once are
+ * rewritten: the top-level sequence and the unquantified groups within it,
+ * capturing or not. In these, non-capturing groups are flattened and adjacent
+ * terminals merged, which shortens every path by the same number of steps.
+ * Alternations and quantified groups are left as they are, even if they
+ * contain no capture, since rewriting them would shorten some paths but not
+ * others, and so could change which path accepts first.
+ *
+ * @since 0.4.0
+ */
+@UtilityClass
+public class ExpressionOptimizer {
+
+	/**
+	 * Optimizes the provided expression tree for the given parser.
+	 *
+	 * @param expression the expression to be optimized; it is not modified
+	 * @param parser the parser which will be used to compile the expression's
+	 *      terminals into arcs
+	 *
+	 * @return a new, equivalent expression tree whose node ids have been
+	 *      rewritten per {@link Expression#rewriteIds(Expression, String)}
+	 */
+	@NonNull
+	public Expression optimize(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<?> parser
+	) {
+		return Expression.rewriteIds(optimizeNode(expression, parser), "0");
+	}
+
+	@NonNull
+	private Expression optimizeNode(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<?> parser
+	) {
+		if (!containsCapture(expression)) {
+			return merge(visit(expression), parser);
+		}
+		return isSpine(expression)
+				? optimizeSpine(expression, parser)
+				: expression;
+	}
+
+	/**
+	 * Flattens and merges the children of a sequence which every path through
+	 * the machine passes through exactly once. The paths are then all
+	 * shortened by the same number of steps, so the path which accepts first
+	 * does not change.
+	 */
+	@NonNull
+	private Expression optimizeSpine(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<?> parser
+	) {
+		List<Expression> children = new ArrayList<>();
+		flattenSpine(expression.getChildren(), children, parser);
+		return new ParentNode(
+				expression.getId(),
+				mergeTerminals(children, parser),
+				"",
+				false,
+				expression.isCapturing()
+		);
+	}
+
+	private void flattenSpine(
+			@NonNull Iterable<Expression> children,
+			@NonNull List<Expression> list,
+			@NonNull LanguageParser<?> parser
+	) {
+		for (Expression child : children) {
+			if (isPlainGroup(child)) {
+				flattenSpine(child.getChildren(), list, parser);
+			} else if (isSpine(child)) {
+				list.add(optimizeSpine(child, parser));
+			} else if (!isEmpty(child) || !child.getQuantifier().isEmpty()) {
+				list.add(child);
+			}
+		}
+	}
+
+	@NonNull
+	private Expression visit(@NonNull Expression expression) {
+		if (expression.isNegative() || !expression.hasChildren()) {
+			return expression;
+		}
+
+		List<Expression> children = new ArrayList<>();
+		for (Expression child : expression.getChildren()) {
+			children.add(visit(child));
+		}
+
+		return expression.isParallel()
+				? visitParallel(expression, children)
+				: visitSequence(expression, children);
+	}
+
+	@NonNull
+	private Expression visitSequence(
+			@NonNull Expression expression,
+			@NonNull List<Expression> children
+	) {
+		List<Expression> flattened = new ArrayList<>();
+		for (Expression child : children) {
+			if (isPlainGroup(child)) {
+				flattened.addAll(child.getChildren());
+			} else if (!isEmpty(child)) {
+				flattened.add(child);
+			}
+		}
+
+		Expression node = new ParentNode(
+				expression.getId(),
+				flattened,
+				expression.getQuantifier(),
+				false,
+				expression.isCapturing()
+		);
+		return unwrap(node);
+	}
+
+	@NonNull
+	private Expression visitParallel(
+			@NonNull Expression expression,
+			@NonNull List<Expression> children
+	) {
+		List<Expression> branches = new ArrayList<>();
+		for (Expression child : children) {
+			if (isPlainParallel(child)) {
+				branches.addAll(child.getChildren());
+			} else {
+				branches.add(child);
+			}
+		}
+
+		String quantifier = expression.getQuantifier();
+		if (branches.size() == 1) {
+			Expression node = new ParentNode(
+					expression.getId(),
+					branches,
+					quantifier,
+					false,
+					false
+			);
+			return unwrap(node);
+		}
+
+		Expression factored = factorPrefix(branches, quantifier);
+		if (factored != null) {
+			return factored;
+		}
+
+		return new ParallelNode(expression.getId(), branches, quantifier, false);
+	}
+
+	/**
+	 * Extracts the longest run of terminals shared by the start of every
+	 * branch, producing a group consisting of that run followed by an
+	 * alternation of the remainders.
+	 *
+	 * @return the factored expression, or {@code null} if the branches share no
+	 *      prefix or cannot safely be factored
+	 */
+	private Expression factorPrefix(
+			@NonNull List<Expression> branches,
+			@NonNull String quantifier
+	) {
+		List<List<Expression>> sequences = new ArrayList<>();
+		for (Expression branch : branches) {
+			sequences.add(asSequence(branch));
+		}
+
+		int prefix = commonPrefixLength(sequences);
+		if (prefix == 0) {
+			return null;
+		}
+
+		List<Expression> remainders = new ArrayList<>();
+		boolean optional = false;
+		for (List<Expression> sequence : sequences) {
+			List<Expression> remainder = sequence.subList(prefix, sequence.size());
+			if (remainder.isEmpty()) {
+				optional = true;
+			} else {
+				remainders.add(unwrap(new ParentNode(new ArrayList<>(remainder))));
+			}
+		}
+
+		// An empty remainder can only be expressed as an optional alternation,
+		// which is not possible if the alternation is already quantified
+		if (optional && !quantifier.isEmpty() && !remainders.isEmpty()) {
+			return null;
+		}
+
+		List<Expression> children = new ArrayList<>(
+				sequences.get(0).subList(0, prefix));
+		if (remainders.size() == 1) {
+			Expression remainder = remainders.get(0);
+			children.add(optional ? makeOptional(remainder) : remainder);
+		} else if (!remainders.isEmpty()) {
+			Expression remainder = visitParallel(
+					new ParallelNode(remainders),
+					remainders
+			);
+			children.add(optional ? makeOptional(remainder) : remainder);
+		}
+
+		return unwrap(new ParentNode(children, quantifier));
+	}
+
+	private int commonPrefixLength(@NonNull List<List<Expression>> sequences) {
+		int prefix = 0;
+		List<Expression> first = sequences.get(0);
+		while (prefix < first.size()) {
+			Expression expected = first.get(prefix);
+			if (!isPlainTerminal(expected)) {
+				return prefix;
+			}
+			for (List<Expression> sequence : sequences) {
+				if (sequence.size() <= prefix) {
+					return prefix;
+				}
+				Expression actual = sequence.get(prefix);
+				if (!isPlainTerminal(actual) ||
+						!actual.getTerminal().equals(expected.getTerminal())) {
+					return prefix;
+				}
+			}
+			prefix++;
+		}
+		return prefix;
+	}
+
+	/**
+	 * Merges adjacent terminals throughout the tree; this is done only after
+	 * the structural rewrites, as merged terminals would otherwise hide the
+	 * prefixes shared by alternations.
+	 */
+	@NonNull
+	private Expression merge(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<?> parser
+	) {
+		if (expression.isNegative() || !expression.hasChildren()) {
+			return expression;
+		}
+
+		List<Expression> children = new ArrayList<>();
+		for (Expression child : expression.getChildren()) {
+			children.add(merge(child, parser));
+		}
+
+		String quantifier = expression.getQuantifier();
+		if (expression.isParallel()) {
+			return new ParallelNode(expression.getId(), children, quantifier, false);
+		}
+		Expression node = new ParentNode(
+				expression.getId(),
+				mergeTerminals(children, parser),
+				quantifier,
+				false,
+				false
+		);
+		return unwrap(node);
+	}
+
+	@NonNull
+	private List<Expression> mergeTerminals(
+			@NonNull List<Expression> expressions,
+			@NonNull LanguageParser<?> parser
+	) {
+		List<Expression> list = new ArrayList<>();
+		for (Expression expression : expressions) {
+			int last = list.size() - 1;
+			if (last >= 0 && isPlainTerminal(expression) &&
+					isPlainTerminal(list.get(last))) {
+				Expression previous = list.get(last);
+				String merged = parser.mergeTerminals(
+						previous.getTerminal(),
+						expression.getTerminal()
+				);
+				if (merged != null) {
+					list.set(last, previous.withTerminal(merged));
+					continue;
+				}
+			}
+			list.add(expression);
+		}
+		return list;
+	}
+
+	/**
+	 * Replaces a non-capturing, non-negated group containing a single child
+	 * with the child itself, where the group's quantifier can be transferred
+	 * onto the child.
+	 */
+	@NonNull
+	private Expression unwrap(@NonNull Expression expression) {
+		if (expression.isCapturing() || expression.isNegative()) {
+			return expression;
+		}
+		List<Expression> children = expression.getChildren();
+		if (children.size() != 1) {
+			return expression;
+		}
+		Expression child = children.get(0);
+		String quantifier = expression.getQuantifier();
+		if (quantifier.isEmpty()) {
+			return child;
+		}
+		if (child.getQuantifier().isEmpty() && !child.isNegative() &&
+				!child.isCapturing()) {
+			return child.withQuantifier(quantifier);
+		}
+		return expression;
+	}
+
+	@NonNull
+	private Expression makeOptional(@NonNull Expression expression) {
+		if (expression.getQuantifier().isEmpty()) {
+			return expression.withQuantifier("?");
+		}
+		List<Expression> list = new ArrayList<>();
+		list.add(expression);
+		return new ParentNode(list, "?");
+	}
+
+	@NonNull
+	private List<Expression> asSequence(@NonNull Expression expression) {
+		if (isPlainGroup(expression)) {
+			return expression.getChildren();
+		}
+		List<Expression> list = new ArrayList<>();
+		list.add(expression);
+		return list;
+	}
+
+	private boolean containsCapture(@NonNull Expression expression) {
+		if (expression.isCapturing()) {
+			return true;
+		}
+		for (Expression child : expression.getChildren()) {
+			if (containsCapture(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isSpine(@NonNull Expression expression) {
+		return expression.hasChildren() && !expression.isParallel() &&
+				!expression.isNegative() && expression.getQuantifier().isEmpty();
+	}
+
+	private boolean isEmpty(@NonNull Expression expression) {
+		if (expression.isNegative() || expression.isCapturing()) {
+			return false;
+		}
+		return expression.isTerminal()
+				? expression.getTerminal().isEmpty()
+				: !expression.hasChildren();
+	}
+
+	private boolean isPlainTerminal(@NonNull Expression expression) {
+		return expression.isTerminal() && !expression.isNegative() &&
+				expression.getQuantifier().isEmpty() &&
+				!expression.getTerminal().isEmpty();
+	}
+
+	private boolean isPlainGroup(@NonNull Expression expression) {
+		return !expression.isTerminal() && !expression.isParallel() &&
+				!expression.isCapturing() && !expression.isNegative() &&
+				expression.getQuantifier().isEmpty();
+	}
+
+	private boolean isPlainParallel(@NonNull Expression expression) {
+		return expression.isParallel() && !expression.isNegative() &&
+				expression.getQuantifier().isEmpty();
+	}
+}
@@ -0,0 +1,227 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.matching;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.language.automata.parsing.SequenceBuilder;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Class {@code Replacement}
+ * <p>
+ * A replacement template, such as {@code "$1x$2"}, compiled into a list of
+ * literal chunks and group references so that it does not need to be parsed
+ * again for each match. Templates are compiled by
+ * {@link LanguageParser#compileReplacement(Object)}, and applied to a match to
+ * produce the replacement for it; where a referenced group did not
+ * participate in the match, nothing is inserted for it.
+ *
+ * @param <S> the type of sequence being replaced
+ *
+ * @since 0.4.0
+ */
+@ToString(exclude = "parser")
+@EqualsAndHashCode(exclude = "parser")
+public final class Replacement<S> implements Function<Match<S>, S> {
+
+	private final LanguageParser<S> parser;
+
+	// For each part, either a literal chunk, or null if it is a group reference
+	private final List<S> literals;
+	private final int[] groups;
+
+	// The uncompiled template, if the parser does not compile its templates
+	@Nullable
+	private final S template;
+
+	private Replacement(
+			@NonNull LanguageParser<S> parser,
+			@NonNull List<S> literals,
+			@NonNull int[] groups,
+			@Nullable S template
+	) {
+		this.parser = parser;
+		this.literals = literals;
+		this.groups = groups;
+		this.template = template;
+	}
+
+	@NonNull
+	public static <S> Builder<S> builder(@NonNull LanguageParser<S> parser) {
+		return new Builder<>(parser);
+	}
+
+	/**
+	 * Creates a replacement which is applied by passing the template to
+	 * {@link LanguageParser#replaceGroups(Object, Match)} for each match, for
+	 * use by parsers which do not compile their templates
+	 *
+	 * @param parser the parser which will apply the template; not null
+	 * @param template a sequence including group markers; not null
+	 *
+	 * @return a new replacement; not null
+	 */
+	@NonNull
+	public static <S> Replacement<S> deferred(
+			@NonNull LanguageParser<S> parser,
+			@NonNull S template
+	) {
+		return new Replacement<>(
+				parser,
+				Collections.emptyList(),
+				new int[0],
+				template
+		);
+	}
+
+	/**
+	 * Produces the replacement for the provided match
+	 *
+	 * @param match the match whose groups are referenced by the template
+	 *
+	 * @return a new sequence; not null
+	 *
+	 * @throws IndexOutOfBoundsException if the template refers to a group
+	 *      which does not exist in the match
+	 */
+	@NonNull
+	@Override
+	public S apply(@NonNull Match<S> match) {
+		if (template != null) {
+			return parser.replaceGroups(template, match);
+		}
+		SequenceBuilder<S> builder = parser.newBuilder();
+		for (int i = 0; i < groups.length; i++) {
+			S literal = literals.get(i);
+			S part = literal == null ? match.group(groups[i]) : literal;
+			if (part != null) {
+				builder.append(part);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Appends the replacement for the provided match to a builder, taking the
+	 * content of each group directly from the input rather than creating a new
+	 * sequence for it
+	 *
+	 * @param builder the builder to which the replacement is appended
+	 * @param input the input in which the match was found
+	 * @param match the match whose groups are referenced by the template
+	 *
+	 * @throws IndexOutOfBoundsException if the template refers to a group
+	 *      which does not exist in the match
+	 */
+	public void appendTo(
+			@NonNull SequenceBuilder<S> builder,
+			@NonNull S input,
+			@NonNull Match<S> match
+	) {
+		if (template != null) {
+			builder.append(parser.replaceGroups(template, match));
+			return;
+		}
+		for (int i = 0; i < groups.length; i++) {
+			S literal = literals.get(i);
+			if (literal != null) {
+				builder.append(literal);
+			} else {
+				int start = match.start(groups[i]);
+				int end = match.end(groups[i]);
+				if (start >= 0 && end > start) {
+					builder.append(input, start, end);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true iff the template contains no group references, in which
+	 *      case every match is replaced by the same sequence
+	 */
+	public boolean isLiteral() {
+		if (template != null) {
+			return false;
+		}
+		for (S literal : literals) {
+			if (literal == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Class {@code Builder}
+	 * <p>
+	 * Assembles a {@link Replacement} from its parts, in order.
+	 *
+	 * @param <S> the type of sequence being replaced
+	 */
+	public static final class Builder<S> {
+
+		private final LanguageParser<S> parser;
+		private final List<S> literals;
+		private final List<Integer> groups;
+
+		private Builder(@NonNull LanguageParser<S> parser) {
+			this.parser = parser;
+			literals = new ArrayList<>();
+			groups = new ArrayList<>();
+		}
+
+		@NonNull
+		public Builder<S> literal(@NonNull S literal) {
+			if (parser.lengthOf(literal) > 0) {
+				literals.add(literal);
+				groups.add(-1);
+			}
+			return this;
+		}
+
+		@NonNull
+		public Builder<S> group(int group) {
+			literals.add(null);
+			groups.add(group);
+			return this;
+		}
+
+		@NonNull
+		public Replacement<S> build() {
+			int[] array = new int[groups.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = groups.get(i);
+			}
+			List<S> list = Collections.unmodifiableList(new ArrayList<>(literals));
+			return new Replacement<>(parser, list, array, null);
+		}
+	}
+}
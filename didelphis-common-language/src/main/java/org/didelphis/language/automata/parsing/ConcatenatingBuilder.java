@@ -0,0 +1,64 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+/**
+ * Class {@code ConcatenatingBuilder}
+ * <p>
+ * The default {@link SequenceBuilder}, which joins pieces using the parser's
+ * {@link LanguageParser#subSequence(Object, int, int)} and
+ * {@link LanguageParser#concatenate(Object, Object)}; it is only as efficient
+ * as those methods are.
+ *
+ * @param <S> the type of sequence being built
+ *
+ * @since 0.4.0
+ */
+final class ConcatenatingBuilder<S> implements SequenceBuilder<S> {
+
+	private final LanguageParser<S> parser;
+	private S sequence;
+
+	ConcatenatingBuilder(@NonNull LanguageParser<S> parser) {
+		this.parser = parser;
+		sequence = parser.transform("");
+	}
+
+	@NonNull
+	@Override
+	public SequenceBuilder<S> append(@NonNull S sequence) {
+		this.sequence = parser.concatenate(this.sequence, sequence);
+		return this;
+	}
+
+	@NonNull
+	@Override
+	public SequenceBuilder<S> append(@NonNull S sequence, int start, int end) {
+		return append(parser.subSequence(sequence, start, end));
+	}
+
+	@NonNull
+	@Override
+	public S build() {
+		return sequence;
+	}
+}
@@ -21,14 +21,18 @@ package org.didelphis.language.automata.parsing;
 
 import lombok.NonNull;
 
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.expressions.Expression;
 import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
 import org.didelphis.language.parsing.ParseDirection;
 import org.didelphis.language.parsing.ParseException;
 import org.didelphis.structures.graph.Arc;
 import org.didelphis.structures.maps.interfaces.MultiMap;
 import org.didelphis.utilities.Templates;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -64,6 +68,50 @@ public interface LanguageParser<S> {
 
 	@NonNull Arc<S> getArc(String arc);
 
+	/**
+	 * Compiles an alternation of terminal expressions into arcs which, taken
+	 * together, accept exactly what the arcs of the individual terminals
+	 * accept. Implementations may combine several terminals into one arc, such
+	 * as a trie of literals, provided that wherever more than one of the
+	 * combined terminals can match, all of them end at the same index, since an
+	 * arc can only report a single end index.
+	 * <p>
+	 * The default implementation returns one arc per terminal.
+	 *
+	 * @param terminals the alternatives; not null
+	 *
+	 * @return a list of arcs accepting the same inputs as the alternation
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<Arc<S>> getAlternationArcs(@NonNull List<String> terminals) {
+		List<Arc<S>> arcs = new ArrayList<>();
+		for (String terminal : terminals) {
+			arcs.add(getArc(terminal));
+		}
+		return arcs;
+	}
+
+	/**
+	 * Describes the inputs accepted by the arc produced by
+	 * {@link #getArc(String)} for the given terminal, for use in the static
+	 * analysis of state machines. The description must be conservative; see
+	 * {@link AutomatonInfo}.
+	 * <p>
+	 * The default implementation makes no claims about the terminal.
+	 *
+	 * @param terminal a terminal expression; not null
+	 *
+	 * @return information about the inputs accepted by the terminal
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default AutomatonInfo<S> analyzeTerminal(@NonNull String terminal) {
+		return AutomatonInfo.unknown();
+	}
+
 	/**
 	 * Parse an expression string to a list of sub-expressions
 	 *
@@ -137,6 +185,22 @@ public interface LanguageParser<S> {
 	 */
 	@NonNull S concatenate(@NonNull S sequence1, @NonNull S sequence2);
 
+	/**
+	 * Creates a builder which joins many sequences more efficiently than
+	 * repeated calls to {@link #concatenate(Object, Object)}. The default
+	 * implementation is backed by {@link #concatenate(Object, Object)} and
+	 * {@link #subSequence(Object, int, int)}, and implementations should
+	 * override it where those methods copy their arguments.
+	 *
+	 * @return a new, empty builder; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default SequenceBuilder<S> newBuilder() {
+		return new ConcatenatingBuilder<>(this);
+	}
+
 	/**
 	 * Replaces group markers like {@code $1} with the corresponding group from
 	 * the match
@@ -149,6 +213,48 @@ public interface LanguageParser<S> {
 	 */
 	@NonNull S replaceGroups(@NonNull S input, @NonNull Match<S> match);
 
+	/**
+	 * Parses a replacement template containing group markers like {@code $1}
+	 * into a {@link Replacement} which can be applied to any number of
+	 * matches.
+	 * <p>
+	 * The default implementation does not parse the template, but defers to
+	 * {@link #replaceGroups(Object, Match)} for each match; implementations
+	 * should override it so that the template is parsed only once.
+	 *
+	 * @param template a sequence including group markers; not null
+	 *
+	 * @return the compiled template; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default Replacement<S> compileReplacement(@NonNull S template) {
+		return Replacement.deferred(this, template);
+	}
+
+	/**
+	 * Combines two adjacent terminal expressions into a single terminal, such
+	 * that the arc produced by {@link #getArc(String)} for the combined terminal
+	 * accepts exactly what the arcs of the two terminals accept in sequence.
+	 * <p>
+	 * Used by {@link org.didelphis.language.automata.expressions.ExpressionOptimizer}
+	 * to reduce the number of states and arcs in a state machine. The default
+	 * implementation does not combine any terminals.
+	 *
+	 * @param left the first terminal; not null
+	 * @param right the terminal immediately following {@code left}; not null
+	 *
+	 * @return the combined terminal, or {@code null} if the terminals cannot be
+	 *      combined into a single arc
+	 *
+	 * @since 0.4.0
+	 */
+	@Nullable
+	default String mergeTerminals(@NonNull String left, @NonNull String right) {
+		return null;
+	}
+
 	/**
 	 * Parse an expression string into the matching expression object
 	 *
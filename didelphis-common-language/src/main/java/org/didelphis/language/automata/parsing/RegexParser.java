@@ -23,10 +23,12 @@ import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.expressions.Expression;
 import org.didelphis.language.automata.expressions.ParallelNode;
 import org.didelphis.language.automata.expressions.ParentNode;
 import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
 import org.didelphis.language.parsing.ParseDirection;
 import org.didelphis.language.parsing.ParseException;
 import org.didelphis.structures.graph.Arc;
@@ -36,6 +38,7 @@ import org.didelphis.utilities.Splitter;
 import org.didelphis.utilities.Templates;
 
 import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -206,6 +209,46 @@ public final class RegexParser implements LanguageParser<String> {
 		return new LiteralArc(arc, insensitive);
 	}
 
+	@NonNull
+	@Override
+	public List<Arc<String>> getAlternationArcs(@NonNull List<String> terminals) {
+		// Literals of the same length can never match with different ends, so
+		// each length class can be tested by a single trie
+		List<Arc<String>> arcs = new ArrayList<>();
+		Map<Integer, List<String>> literals = new LinkedHashMap<>();
+		for (String terminal : terminals) {
+			if (isLiteral(terminal)) {
+				String literal = ESCAPES.getOrDefault(terminal, terminal);
+				if (insensitive) {
+					literal = literal.toLowerCase();
+				}
+				literals.computeIfAbsent(literal.length(), k -> new ArrayList<>())
+						.add(literal);
+			} else {
+				arcs.add(getArc(terminal));
+			}
+		}
+		for (List<String> list : literals.values()) {
+			arcs.add(new TrieArc(list, insensitive));
+		}
+		return arcs;
+	}
+
+	@NonNull
+	@Override
+	public AutomatonInfo<String> analyzeTerminal(@NonNull String terminal) {
+		if (terminal.equals("^")) return AutomatonInfo.anchor(true);
+		if (terminal.equals("$")) return AutomatonInfo.anchor(false);
+		if (terminal.equals(".") || terminal.startsWith("[")) {
+			return AutomatonInfo.anyOfLength(1, 1);
+		}
+		String literal = ESCAPES.getOrDefault(terminal, terminal);
+		// Case-insensitive literals match more than one sequence
+		return insensitive
+				? AutomatonInfo.anyOfLength(literal.length(), literal.length())
+				: AutomatonInfo.literal(literal, this);
+	}
+
 	@NonNull
 	@Override
 	public Expression parseExpression(
@@ -269,43 +312,47 @@ public final class RegexParser implements LanguageParser<String> {
 		return sequence1 + sequence2;
 	}
 
+	@NonNull
+	@Override
+	public SequenceBuilder<String> newBuilder() {
+		return new StringSequenceBuilder();
+	}
+
 	@NonNull
 	@Override
 	public String replaceGroups(
-			@NonNull String input,
-			@NonNull Match<String> match
+			@NonNull String input, @NonNull Match<String> match
 	) {
-		StringBuilder sb = new StringBuilder();
+		return compileReplacement(input).apply(match);
+	}
+
+	@NonNull
+	@Override
+	public Replacement<String> compileReplacement(@NonNull String template) {
+		Replacement.Builder<String> builder = Replacement.builder(this);
 		StringBuilder number = new StringBuilder();
 
 		boolean inGroup = false;
 
 		int cursor = 0;
 		int i = 0;
-		while (i < input.length()) {
-			char c = input.charAt(i);
+		while (i < template.length()) {
+			char c = template.charAt(i);
 			// ASCII digits 0-9
 			if (0x30 <= c && c < 0x3A && inGroup) {
 				number.append(c);
 				i++;
 				cursor = i;
 			} else {
-				// parse and append group data
+				// parse and add group reference
 				if (number.length() > 0) {
-					int groupNumber = Integer.parseInt(number.toString());
-					String group = match.group(groupNumber);
-					if (group != null) {
-						sb.append(group);
-					}
-					// clear buffer
-					number = new StringBuilder();
+					builder.group(Integer.parseInt(number.toString()));
+					number.setLength(0);
 				}
 
 				if (c == '$') {
 					inGroup = true;
-					if (cursor != i) {
-						sb.append(input, cursor, i);
-					}
+					builder.literal(template.substring(cursor, i));
 					i++;
 					cursor = i;
 				} else {
@@ -315,17 +362,29 @@ public final class RegexParser implements LanguageParser<String> {
 			}
 		}
 
-		sb.append(input.substring(cursor));
+		builder.literal(template.substring(cursor));
 
-		// parse and append group data
+		// parse and add group reference
 		if (number.length() > 0) {
-			int groupNumber = Integer.parseInt(number.toString());
-			String group = match.group(groupNumber);
-			if (group != null) {
-				sb.append(group);
-			}
+			builder.group(Integer.parseInt(number.toString()));
 		}
-		return sb.toString();
+		return builder.build();
+	}
+
+	@Nullable
+	@Override
+	public String mergeTerminals(@NonNull String left, @NonNull String right) {
+		if (!isLiteral(left) || !isLiteral(right)) {
+			return null;
+		}
+		String merged = ESCAPES.getOrDefault(left, left) +
+				ESCAPES.getOrDefault(right, right);
+		// The merged literal must not be re-interpreted by #getArc as an escape
+		// or as a character class
+		if (ESCAPES.containsKey(merged) || merged.startsWith("[")) {
+			return null;
+		}
+		return merged;
 	}
 
 	private Expression parse(@NonNull List<String> split) {
@@ -650,6 +709,14 @@ public final class RegexParser implements LanguageParser<String> {
 		}
 	}
 
+	private static boolean isLiteral(@NonNull String terminal) {
+		return !terminal.isEmpty() &&
+				!terminal.equals("^") &&
+				!terminal.equals("$") &&
+				!terminal.equals(".") &&
+				!terminal.startsWith("[");
+	}
+
 	private static boolean isHexChar(char c) {
 		return isDigit(c) || isUpper(c) || isLower(c);
 	}
@@ -673,7 +740,7 @@ public final class RegexParser implements LanguageParser<String> {
 		return t <= c && c <= u;
 	}
 
-	private static final class LiteralArc implements Arc<String> {
+	private static final class LiteralArc implements StringLiteralArc {
 
 		private final String  literal;
 		private final boolean insensitive;
@@ -695,6 +762,12 @@ public final class RegexParser implements LanguageParser<String> {
 			return -1;
 		}
 
+		@Nullable
+		@Override
+		public String getLiteral() {
+			return insensitive ? null : literal;
+		}
+
 		@Override
 		public String toString() {
 			return literal;
@@ -0,0 +1,278 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.features.FeatureArray;
+import org.didelphis.language.phonetic.features.FeatureType;
+import org.didelphis.language.phonetic.model.FeatureModel;
+import org.didelphis.language.phonetic.segments.Segment;
+import org.didelphis.language.phonetic.sequences.Sequence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Class {@code SegmentIndex}
+ * <p>
+ * Indexes the members of a set of literal sequences by their first segment,
+ * so that only the members which can start at a given segment of an input
+ * need to be tested. The candidates are always returned in their original
+ * order, so the first member to match is the same as if every member were
+ * tested in turn.
+ * <p>
+ * Following {@link Segment#matches(Segment)}, segments of a model without
+ * features, and segments which are not defined in their model, can only match
+ * segments with the same symbol, and so are indexed by symbol. Segments
+ * defined in the model are indexed by their values for a few features: a
+ * member whose first segment has a value for a feature can only match input
+ * segments which have the same value, or none. Input segments which cannot be
+ * classified either way are tested against every member.
+ *
+ * @param <T> the feature type of the sequences
+ *
+ * @since 0.4.0
+ */
+final class SegmentIndex<T> {
+
+	// The most features used to key segments, and the most keys allowed
+	private static final int MAX_FEATURES = 8;
+	private static final long MAX_KEYS = 1L << 16;
+
+	private final FeatureModel<T> model;
+	private final boolean symbolic;
+	private final FeatureType<T> featureType;
+
+	// The indices of every member
+	private final int[] all;
+	// Members which can match any segment, such as empty sequences
+	private final int[] empty;
+
+	// Candidates for segments which are matched by symbol
+	private final Map<String, int[]> symbols;
+
+	// Candidates for defined segments; the key of a segment is formed from the
+	// ordinals of its values for each of the key features
+	private final int[] features;
+	private final List<Map<Object, Integer>> ordinals;
+	private final long[] keys;
+	private final int[][] buckets;
+	private final int[] unkeyed;
+
+	SegmentIndex(
+			@NonNull FeatureModel<T> model,
+			@NonNull List<? extends Sequence<T>> members
+	) {
+		this.model = model;
+		symbolic = model.getSpecification().size() == 0;
+		featureType = model.getFeatureType();
+
+		int size = members.size();
+		all = new int[size];
+		List<Integer> emptyList = new ArrayList<>();
+		Map<String, List<Integer>> symbolLists = new HashMap<>();
+		List<Integer> defined = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			all[i] = i;
+			Sequence<T> member = members.get(i);
+			if (member.isEmpty()) {
+				emptyList.add(i);
+				continue;
+			}
+			Segment<T> segment = member.get(0);
+			if (segment.getFeatureModel() != model) {
+				// Cannot be classified; every member is a candidate
+				emptyList.add(i);
+			} else if (symbolic || !segment.isDefinedInModel()) {
+				symbolLists.computeIfAbsent(segment.getSymbol(),
+						k -> new ArrayList<>()).add(i);
+			} else {
+				defined.add(i);
+			}
+		}
+
+		empty = toArray(emptyList);
+		symbols = new HashMap<>();
+		for (Map.Entry<String, List<Integer>> entry : symbolLists.entrySet()) {
+			symbols.put(entry.getKey(), merge(entry.getValue(), emptyList));
+		}
+
+		features = chooseFeatures(members, defined);
+		ordinals = new ArrayList<>();
+		for (int feature : features) {
+			Map<Object, Integer> map = new HashMap<>();
+			for (int i : defined) {
+				T value = members.get(i).get(0).getFeatures().get(feature);
+				if (featureType.isDefined(value) && !map.containsKey(value)) {
+					map.put(value, map.size());
+				}
+			}
+			ordinals.add(map);
+		}
+
+		Map<Long, List<Integer>> keyed = new TreeMap<>();
+		List<Integer> unkeyedList = new ArrayList<>(emptyList);
+		for (int i : defined) {
+			long key = key(members.get(i).get(0).getFeatures());
+			if (key < 0) {
+				unkeyedList.add(i);
+			} else {
+				keyed.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+			}
+		}
+		unkeyed = merge(unkeyedList, emptyList);
+		keys = new long[keyed.size()];
+		buckets = new int[keyed.size()][];
+		int k = 0;
+		for (Map.Entry<Long, List<Integer>> entry : keyed.entrySet()) {
+			keys[k] = entry.getKey();
+			buckets[k] = merge(entry.getValue(), unkeyedList);
+			k++;
+		}
+	}
+
+	/**
+	 * Returns the members which may match the input at the provided index
+	 *
+	 * @param sequence the input
+	 * @param index the index in the input at which the members must start
+	 *
+	 * @return the indices of the candidate members, in ascending order; the
+	 *      array must not be modified
+	 */
+	@NonNull
+	int[] candidates(@NonNull Sequence<T> sequence, int index) {
+		if (index < 0 || index >= sequence.size()) {
+			return index == sequence.size() ? empty : all;
+		}
+		Segment<T> segment = sequence.get(index);
+		if (segment.getFeatureModel() != model) {
+			return all;
+		}
+		if (symbolic || !segment.isDefinedInModel()) {
+			int[] candidates = symbols.get(segment.getSymbol());
+			return candidates == null ? empty : candidates;
+		}
+		FeatureArray<T> array = segment.getFeatures();
+		if (!SegmentPredicate.isDense(array)) {
+			return all;
+		}
+		long key = 0;
+		for (int f = 0; f < features.length; f++) {
+			T value = array.get(features[f]);
+			if (!featureType.isDefined(value)) {
+				return all;
+			}
+			Integer ordinal = ordinals.get(f).get(value);
+			if (ordinal == null) {
+				return unkeyed;
+			}
+			key = key * (ordinals.get(f).size()) + ordinal;
+		}
+		int k = Arrays.binarySearch(keys, key);
+		return k < 0 ? unkeyed : buckets[k];
+	}
+
+	/**
+	 * @return the key of a member's first segment, or -1 if it does not have
+	 *      a value for every key feature
+	 */
+	private long key(@NonNull FeatureArray<T> array) {
+		long key = 0;
+		for (int f = 0; f < features.length; f++) {
+			T value = array.get(features[f]);
+			if (!featureType.isDefined(value)) {
+				return -1;
+			}
+			key = key * (ordinals.get(f).size()) + ordinals.get(f).get(value);
+		}
+		return key;
+	}
+
+	/**
+	 * Chooses the features which best divide the members: those for which the
+	 * most members have a value, and among those, the ones with the most
+	 * distinct values
+	 */
+	@NonNull
+	private int[] chooseFeatures(
+			@NonNull List<? extends Sequence<T>> members,
+			@NonNull List<Integer> defined
+	) {
+		if (defined.size() < 2) {
+			return new int[0];
+		}
+		int size = model.getSpecification().size();
+		List<int[]> scores = new ArrayList<>();
+		for (int feature = 0; feature < size; feature++) {
+			int count = 0;
+			TreeSet<String> values = new TreeSet<>();
+			for (int i : defined) {
+				T value = members.get(i).get(0).getFeatures().get(feature);
+				if (featureType.isDefined(value)) {
+					count++;
+					values.add(String.valueOf(value));
+				}
+			}
+			if (values.size() > 1) {
+				scores.add(new int[]{feature, count, values.size()});
+			}
+		}
+		scores.sort((a, b) -> a[1] != b[1]
+				? Integer.compare(b[1], a[1])
+				: Integer.compare(b[2], a[2]));
+
+		List<Integer> chosen = new ArrayList<>();
+		long product = 1;
+		for (int[] score : scores) {
+			if (chosen.size() == MAX_FEATURES || product * score[2] > MAX_KEYS) {
+				break;
+			}
+			chosen.add(score[0]);
+			product *= score[2];
+		}
+		return toArray(chosen);
+	}
+
+	@NonNull
+	private static int[] merge(
+			@NonNull List<Integer> list1,
+			@NonNull List<Integer> list2
+	) {
+		TreeSet<Integer> set = new TreeSet<>(list1);
+		set.addAll(list2);
+		return toArray(new ArrayList<>(set));
+	}
+
+	@NonNull
+	private static int[] toArray(@NonNull List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+}
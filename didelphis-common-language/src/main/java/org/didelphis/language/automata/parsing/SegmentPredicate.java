@@ -0,0 +1,165 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.features.BinaryFeature;
+import org.didelphis.language.phonetic.features.BinaryFeatureArray;
+import org.didelphis.language.phonetic.features.DoubleFeatureArray;
+import org.didelphis.language.phonetic.features.FeatureArray;
+import org.didelphis.language.phonetic.features.FeatureType;
+import org.didelphis.language.phonetic.features.IntegerFeatureArray;
+import org.didelphis.language.phonetic.features.StandardFeatureArray;
+import org.didelphis.language.phonetic.model.FeatureModel;
+import org.didelphis.language.phonetic.segments.Segment;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Class {@code SegmentPredicate}
+ * <p>
+ * Tests whether segments of an input match a single segment of a pattern, as
+ * {@link Segment#matches(Segment)} does, but with the pattern's specified
+ * features extracted in advance. Two segments with features match where every
+ * feature defined in both has the same value, so only the features defined in
+ * the pattern need to be read from each input segment; for a feature bundle
+ * such as {@code [+cons -voice]} this is a couple of reads rather than a pass
+ * over the whole feature array. For models of {@link BinaryFeature}, the
+ * pattern is also compiled into bitsets, so that input segments backed by a
+ * {@link BinaryFeatureArray} are tested a word of features at a time.
+ * <p>
+ * Segments which are not from the pattern's model, or which are not backed by
+ * a {@link StandardFeatureArray} or one of the arrays specialized to a
+ * feature type, such as {@link IntegerFeatureArray}, are compared with
+ * {@link Segment#matches(Segment)}.
+ *
+ * @param <T> the feature type of the segments
+ *
+ * @since 0.4.0
+ */
+final class SegmentPredicate<T> implements Predicate<Segment<T>> {
+
+	private final Segment<T> pattern;
+	private final FeatureModel<T> model;
+	private final boolean compiled;
+
+	// The indices of the features defined in the pattern, and their values
+	private final int[] indices;
+	private final Object[] values;
+
+	// For binary models, the features defined in the pattern and their values
+	// as bitsets in the layout of BinaryFeatureArray; otherwise null
+	private final long[] definedMask;
+	private final long[] valueMask;
+
+	private final FeatureType<T> featureType;
+	// Whether null is the only value the feature type considers undefined
+	private final boolean nullOnly;
+
+	SegmentPredicate(@NonNull Segment<T> pattern) {
+		this.pattern = pattern;
+		model = pattern.getFeatureModel();
+
+		featureType = model.getFeatureType();
+		Collection<T> undefined = featureType.listUndefined();
+		nullOnly = undefined.isEmpty()
+				|| undefined.size() == 1 && undefined.contains(null);
+
+		FeatureArray<T> features = pattern.getFeatures();
+		compiled = pattern.isDefinedInModel()
+				&& model.getSpecification().size() > 0;
+		int size = compiled ? features.size() : 0;
+		int count = 0;
+		int[] specified = new int[size];
+		for (int i = 0; i < size; i++) {
+			if (featureType.isDefined(features.get(i))) {
+				specified[count++] = i;
+			}
+		}
+		indices = new int[count];
+		values = new Object[count];
+		for (int k = 0; k < count; k++) {
+			indices[k] = specified[k];
+			values[k] = features.get(specified[k]);
+		}
+
+		if (compiled && featureType == BinaryFeature.INSTANCE) {
+			int words = (size + 63) >>> 6;
+			definedMask = new long[words];
+			valueMask = new long[words];
+			for (int k = 0; k < count; k++) {
+				int index = indices[k];
+				definedMask[index >>> 6] |= 1L << index;
+				if (Boolean.TRUE.equals(values[k])) {
+					valueMask[index >>> 6] |= 1L << index;
+				}
+			}
+		} else {
+			definedMask = null;
+			valueMask = null;
+		}
+	}
+
+	@Override
+	public boolean test(@NonNull Segment<T> segment) {
+		if (!compiled || segment.getFeatureModel() != model
+				|| !segment.isDefinedInModel()) {
+			return segment.matches(pattern);
+		}
+		FeatureArray<T> features = segment.getFeatures();
+		if (definedMask != null && features instanceof BinaryFeatureArray) {
+			BinaryFeatureArray binary = (BinaryFeatureArray) features;
+			return binary.matches(definedMask, valueMask);
+		}
+		if (!isDense(features)) {
+			return segment.matches(pattern);
+		}
+		for (int k = 0; k < indices.length; k++) {
+			T value = features.get(indices[k]);
+			if (isDefined(value) && !value.equals(values[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return pattern.toString();
+	}
+
+	/**
+	 * @return true if the array stores a value for each of its features, so
+	 *      that reading a feature directly agrees with
+	 *      {@link FeatureArray#matches(FeatureArray)}
+	 */
+	static boolean isDense(@NonNull FeatureArray<?> array) {
+		return array instanceof StandardFeatureArray
+				|| array instanceof BinaryFeatureArray
+				|| array instanceof IntegerFeatureArray
+				|| array instanceof DoubleFeatureArray;
+	}
+
+	private boolean isDefined(T value) {
+		return value != null && (nullOnly || featureType.isDefined(value));
+	}
+}
@@ -0,0 +1,68 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+/**
+ * Interface {@code SequenceBuilder}
+ * <p>
+ * Accumulates sequences, or ranges of them, into a single new sequence, in
+ * time linear in the length of the result. Builders are obtained from
+ * {@link LanguageParser#newBuilder()} and are used in place of repeated calls
+ * to {@link LanguageParser#concatenate(Object, Object)} where many pieces are
+ * joined, as when replacing matches. A builder is not thread-safe, and should
+ * not be used after {@link #build()} has been called.
+ *
+ * @param <S> the type of sequence being built
+ *
+ * @since 0.4.0
+ */
+public interface SequenceBuilder<S> {
+
+	/**
+	 * Appends the whole of the provided sequence
+	 *
+	 * @param sequence the sequence to append; not null
+	 *
+	 * @return this builder
+	 */
+	@NonNull SequenceBuilder<S> append(@NonNull S sequence);
+
+	/**
+	 * Appends part of the provided sequence, without first copying it into a
+	 * subsequence
+	 *
+	 * @param sequence the sequence from which to append; not null
+	 * @param start the index of the first element to append, inclusive
+	 * @param end the index of the last element to append, exclusive
+	 *
+	 * @return this builder
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the bounds
+	 *      of the sequence
+	 */
+	@NonNull SequenceBuilder<S> append(@NonNull S sequence, int start, int end);
+
+	/**
+	 * @return a new sequence containing everything appended so far; not null
+	 */
+	@NonNull S build();
+}
@@ -24,7 +24,9 @@ import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
 import org.didelphis.language.parsing.FormatterMode;
 import org.didelphis.language.phonetic.SequenceFactory;
 import org.didelphis.language.phonetic.model.FeatureModel;
@@ -37,6 +39,8 @@ import org.didelphis.structures.graph.Arc;
 import org.didelphis.structures.maps.GeneralMultiMap;
 import org.didelphis.structures.maps.interfaces.MultiMap;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,7 +49,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Class {@code SequenceParser}
@@ -59,8 +62,6 @@ import java.util.regex.Pattern;
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 
-	private static final Pattern DIGIT = Pattern.compile("\\d+");
-
 	Arc<Sequence<T>> dotArc       = new DotArc<>();
 	Arc<Sequence<T>> epsilonArc   = new EpsilonArc<>();
 	Arc<Sequence<T>> wordStartArc = new WordStartArc<>();
@@ -116,11 +117,61 @@ public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 		if (arc.equals("]#")) return wordEndArc;
 		if (arc.equals(".")) return dotArc;
 		if (specials.containsKey(arc)) {
-			return new SetArc<>(specials.get(arc));
+			return new SetArc<>(specials.get(arc), getModel());
 		}
 		return new LiteralArc<>(factory.toSequence(arc));
 	}
 
+	@NonNull
+	@Override
+	public List<Arc<Sequence<T>>> getAlternationArcs(
+			@NonNull List<String> terminals
+	) {
+		// Literals of the same length can never match with different ends, so
+		// each length class can be tested by a single arc
+		List<Arc<Sequence<T>>> arcs = new ArrayList<>();
+		Map<Integer, List<Sequence<T>>> literals = new LinkedHashMap<>();
+		for (String terminal : terminals) {
+			if (isLiteral(terminal)) {
+				Sequence<T> sequence = factory.toSequence(terminal);
+				literals.computeIfAbsent(sequence.size(), k -> new ArrayList<>())
+						.add(sequence);
+			} else {
+				arcs.add(getArc(terminal));
+			}
+		}
+		for (List<Sequence<T>> list : literals.values()) {
+			arcs.add(list.size() == 1
+					? new LiteralArc<>(list.get(0))
+					: new SetArc<>(list, getModel()));
+		}
+		return arcs;
+	}
+
+	@NonNull
+	@Override
+	public AutomatonInfo<Sequence<T>> analyzeTerminal(@NonNull String terminal) {
+		if (terminal.equals("#[")) return AutomatonInfo.anchor(true);
+		if (terminal.equals("]#")) return AutomatonInfo.anchor(false);
+		if (specials.containsKey(terminal)) {
+			int min = Integer.MAX_VALUE;
+			int max = 0;
+			for (Sequence<T> sequence : specials.get(terminal)) {
+				min = Math.min(min, sequence.size());
+				max = Math.max(max, sequence.size());
+			}
+			return specials.get(terminal).isEmpty()
+					? AutomatonInfo.unknown()
+					: AutomatonInfo.anyOfLength(min, max);
+		}
+		// Segments are compared by their features rather than by equality, so
+		// only the length of a literal is known
+		int length = terminal.equals(".") || terminal.startsWith("[")
+				? 1
+				: factory.toSequence(terminal).size();
+		return AutomatonInfo.anyOfLength(length, length);
+	}
+
 	@NonNull
 	@Override
 	public Arc<Sequence<T>> epsilon() {
@@ -170,44 +221,48 @@ public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 		return sequence1;
 	}
 
+	@NonNull
+	@Override
+	public SequenceBuilder<Sequence<T>> newBuilder() {
+		return new SegmentBuilder<>(getModel());
+	}
+
 	@NonNull
 	@Override
 	public Sequence<T> replaceGroups(
-			@NonNull Sequence<T> input,
-			@NonNull Match<Sequence<T>> match
+			@NonNull Sequence<T> input, @NonNull Match<Sequence<T>> match
 	) {
+		return compileReplacement(input).apply(match);
+	}
 
-		FeatureModel<T> featureModel = factory.getFeatureMapping().getFeatureModel();
-		Sequence<T> sequence = new BasicSequence<>(featureModel);
+	@NonNull
+	@Override
+	public Replacement<Sequence<T>> compileReplacement(
+			@NonNull Sequence<T> template
+	) {
+		Replacement.Builder<Sequence<T>> builder = Replacement.builder(this);
 		StringBuilder number = new StringBuilder();
 
 		int i = 0;
 		int cursor = 0;
 		boolean inGroup = false;
-		while (i < input.size()) {
-			Segment<T> segment = input.get(i);
-			String symbol = segment.getSymbol();
-			// ASCII digits 0-9
-			if (DIGIT.matcher(symbol).matches() && inGroup) {
-				number.append(segment);
+		while (i < template.size()) {
+			String symbol = template.get(i).getSymbol();
+			if (isDigits(symbol) && inGroup) {
+				number.append(symbol);
 				i++;
 				cursor = i;
 			} else {
-				// parse and append group data
+				// parse and add group reference
 				if (number.length() > 0) {
-					int groupNumber = Integer.parseInt(number.toString());
-					Sequence<T> group = match.group(groupNumber);
-					if (group != null) {
-						sequence.add(group);
-					}
-					// clear buffer
-					number = new StringBuilder();
+					builder.group(Integer.parseInt(number.toString()));
+					number.setLength(0);
 				}
 
-				if (segment.getSymbol().startsWith("$")) {
+				if (symbol.startsWith("$")) {
 					inGroup = true;
 					if (cursor != i) {
-						sequence.add(input.subsequence(cursor, i));
+						builder.literal(template.subsequence(cursor, i));
 					}
 					i++;
 					cursor = i;
@@ -218,18 +273,59 @@ public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 			}
 		}
 
-		sequence.add(input.subsequence(cursor));
+		builder.literal(template.subsequence(cursor));
 
-		// parse and append group data
+		// parse and add group reference
 		if (number.length() > 0) {
-			int groupNumber = Integer.parseInt(number.toString());
-			Sequence<T> group = match.group(groupNumber);
-			if (group != null) {
-				sequence.add(group);
+			builder.group(Integer.parseInt(number.toString()));
+		}
+
+		return builder.build();
+	}
+
+	// ASCII digits 0-9
+	private static boolean isDigits(@NonNull String symbol) {
+		if (symbol.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < symbol.length(); i++) {
+			char c = symbol.charAt(i);
+			if (c < 0x30 || 0x3A <= c) {
+				return false;
 			}
 		}
+		return true;
+	}
+
+	@Nullable
+	@Override
+	public String mergeTerminals(@NonNull String left, @NonNull String right) {
+		if (!isLiteral(left) || !isLiteral(right)) {
+			return null;
+		}
+		String merged = left + right;
+		if (!isLiteral(merged)) {
+			return null;
+		}
+		// Only merge if the combined terminal is segmented the same way as the
+		// two terminals are individually
+		Sequence<T> sequence = factory.toSequence(left);
+		sequence.add(factory.toSequence(right));
+		return sequence.equals(factory.toSequence(merged)) ? merged : null;
+	}
 
-		return sequence;
+	@NonNull
+	private FeatureModel<T> getModel() {
+		return factory.getFeatureMapping().getFeatureModel();
+	}
+
+	private boolean isLiteral(@NonNull String terminal) {
+		return !terminal.isEmpty() &&
+				!terminal.equals("#[") &&
+				!terminal.equals("]#") &&
+				!terminal.equals(".") &&
+				!terminal.startsWith("[") &&
+				!specials.containsKey(terminal);
 	}
 
 	@NonNull
@@ -241,17 +337,63 @@ public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 		return new ImmutableSequence<>(new UndefinedSegment<>(symbol, model));
 	}
 
+	/**
+	 * Collects segments into a single list, checking the model of each
+	 * appended sequence once rather than copying it into intermediate
+	 * sequences
+	 */
+	private static final class SegmentBuilder<T>
+			implements SequenceBuilder<Sequence<T>> {
+
+		private final FeatureModel<T> model;
+		private final List<Segment<T>> segments;
+
+		private SegmentBuilder(FeatureModel<T> model) {
+			this.model = model;
+			segments = new ArrayList<>();
+		}
+
+		@NonNull
+		@Override
+		public SequenceBuilder<Sequence<T>> append(@NonNull Sequence<T> sequence) {
+			return append(sequence, 0, sequence.size());
+		}
+
+		@NonNull
+		@Override
+		public SequenceBuilder<Sequence<T>> append(
+				@NonNull Sequence<T> sequence,
+				int start,
+				int end
+		) {
+			if (sequence.getFeatureModel() != model && !model.getSpecification()
+					.equals(sequence.getSpecification())) {
+				throw new IllegalArgumentException("Attempting to add "
+						+ sequence.getClass() + " with an incompatible model!\n"
+						+ '\t' + sequence + '\t' + sequence.getSpecification());
+			}
+			segments.addAll(sequence.subList(start, end));
+			return this;
+		}
+
+		@NonNull
+		@Override
+		public Sequence<T> build() {
+			return new BasicSequence<>(segments, model);
+		}
+	}
+
 	private static final class LiteralArc<T> implements Arc<Sequence<T>> {
 
-		private final Sequence<T> literal;
+		private final SequencePattern<T> literal;
 
 		private LiteralArc(Sequence<T> literal) {
-			this.literal = literal;
+			this.literal = new SequencePattern<>(literal);
 		}
 
 		@Override
 		public int match(Sequence<T> sequence, int index) {
-			if (sequence.subsequence(index).startsWith(literal)) {
+			if (literal.matchesAt(sequence, index)) {
 				return index + literal.size();
 			}
 			return -1;
@@ -265,16 +407,23 @@ public class SequenceParser<T> extends AbstractDidelphisParser<Sequence<T>> {
 
 	private static final class SetArc<T> implements Arc<Sequence<T>> {
 
-		private final List<Sequence<T>> strings;
+		private final List<SequencePattern<T>> strings;
+		private final SegmentIndex<T> index;
 
-		private SetArc(Collection<Sequence<T>> strings) {
-			this.strings = new ArrayList<>(strings);
+		private SetArc(Collection<Sequence<T>> strings, FeatureModel<T> model) {
+			List<Sequence<T>> list = new ArrayList<>(strings);
+			this.strings = new ArrayList<>();
+			for (Sequence<T> string : list) {
+				this.strings.add(new SequencePattern<>(string));
+			}
+			index = new SegmentIndex<>(model, list);
 		}
 
 		@Override
 		public int match(Sequence<T> sequence, int index) {
-			for (Sequence<T> string : strings) {
-				if (sequence.subsequence(index).startsWith(string)) {
+			for (int i : this.index.candidates(sequence, index)) {
+				SequencePattern<T> string = strings.get(i);
+				if (string.matchesAt(sequence, index)) {
 					return index + string.size();
 				}
 			}
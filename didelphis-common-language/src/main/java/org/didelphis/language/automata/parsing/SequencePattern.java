@@ -0,0 +1,81 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.segments.Segment;
+import org.didelphis.language.phonetic.sequences.Sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@code SequencePattern}
+ * <p>
+ * A literal sequence compiled into one {@link SegmentPredicate} per segment,
+ * matching the same inputs as {@link Sequence#regionMatches(int, Sequence)}
+ * does for the literal.
+ *
+ * @param <T> the feature type of the sequences
+ *
+ * @since 0.4.0
+ */
+final class SequencePattern<T> {
+
+	private final Sequence<T> literal;
+	private final List<SegmentPredicate<T>> predicates;
+
+	SequencePattern(@NonNull Sequence<T> literal) {
+		this.literal = literal;
+		predicates = new ArrayList<>(literal.size());
+		for (Segment<T> segment : literal) {
+			predicates.add(new SegmentPredicate<>(segment));
+		}
+	}
+
+	/**
+	 * @param sequence the input to be tested
+	 * @param index the index in the input at which the literal must start
+	 *
+	 * @return true iff the literal matches the input at the provided index
+	 */
+	boolean matchesAt(@NonNull Sequence<T> sequence, int index) {
+		int size = predicates.size();
+		if (index < 0 || index + size > sequence.size()) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!predicates.get(i).test(sequence.get(index + i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	int size() {
+		return predicates.size();
+	}
+
+	@Override
+	public String toString() {
+		return literal.toString();
+	}
+}
@@ -0,0 +1,42 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import org.didelphis.structures.graph.Arc;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface {@code StringLiteralArc}
+ * <p>
+ * An {@link Arc} which may accept exactly one string literal, compared
+ * character-by-character at the current index. Compiled matchers use this to
+ * replace calls to such an arc with an inlined comparison.
+ *
+ * @since 0.4.0
+ */
+public interface StringLiteralArc extends Arc<String> {
+
+	/**
+	 * @return the literal accepted by this arc, or {@code null} if the arc does
+	 *      not compare its input exactly, for example if it ignores case
+	 */
+	@Nullable String getLiteral();
+}
@@ -22,12 +22,16 @@ package org.didelphis.language.automata.parsing;
 import lombok.NonNull;
 import lombok.ToString;
 
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
 import org.didelphis.structures.graph.Arc;
 import org.didelphis.structures.maps.GeneralMultiMap;
 import org.didelphis.structures.maps.interfaces.MultiMap;
 import org.didelphis.utilities.Splitter;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -93,6 +97,41 @@ public class StringParser extends AbstractDidelphisParser<String> {
 		return new LiteralArc(arc);
 	}
 
+	@NonNull
+	@Override
+	public List<Arc<String>> getAlternationArcs(@NonNull List<String> terminals) {
+		// Literals of the same length can never match with different ends, so
+		// each length class can be tested by a single trie
+		List<Arc<String>> arcs = new ArrayList<>();
+		Map<Integer, List<String>> literals = new LinkedHashMap<>();
+		for (String terminal : terminals) {
+			if (isLiteral(terminal)) {
+				literals.computeIfAbsent(terminal.length(), k -> new ArrayList<>())
+						.add(terminal);
+			} else {
+				arcs.add(getArc(terminal));
+			}
+		}
+		for (List<String> list : literals.values()) {
+			arcs.add(list.size() == 1
+					? new LiteralArc(list.get(0))
+					: new TrieArc(list, false));
+		}
+		return arcs;
+	}
+
+	@NonNull
+	@Override
+	public AutomatonInfo<String> analyzeTerminal(@NonNull String terminal) {
+		if (terminal.equals("#[")) return AutomatonInfo.anchor(true);
+		if (terminal.equals("]#")) return AutomatonInfo.anchor(false);
+		if (terminal.equals(".")) return AutomatonInfo.anyOfLength(1, 1);
+		if (specials.containsKey(terminal)) {
+			return AutomatonInfo.anyOf(specials.get(terminal), this);
+		}
+		return AutomatonInfo.literal(terminal, this);
+	}
+
 	@NonNull
 	@Override
 	public Arc<String> epsilon() {
@@ -136,42 +175,47 @@ public class StringParser extends AbstractDidelphisParser<String> {
 		return sequence1 + sequence2;
 	}
 
+	@NonNull
+	@Override
+	public SequenceBuilder<String> newBuilder() {
+		return new StringSequenceBuilder();
+	}
+
 	@NonNull
 	@Override
 	public String replaceGroups(
 			@NonNull String input, @NonNull Match<String> match
 	) {
-		StringBuilder sb = new StringBuilder();
+		return compileReplacement(input).apply(match);
+	}
+
+	@NonNull
+	@Override
+	public Replacement<String> compileReplacement(@NonNull String template) {
+		Replacement.Builder<String> builder = Replacement.builder(this);
 		StringBuilder number = new StringBuilder();
 
 		boolean inGroup = false;
 
 		int cursor = 0;
 		int i = 0;
-		while (i < input.length()) {
-			char c = input.charAt(i);
+		while (i < template.length()) {
+			char c = template.charAt(i);
 			// ASCII digits 0-9
 			if (0x30 <= c && c < 0x3A && inGroup) {
 				number.append(c);
 				i++;
 				cursor = i;
 			} else {
-				// parse and append group data
+				// parse and add group reference
 				if (number.length() > 0) {
-					int groupNumber = Integer.parseInt(number.toString());
-					String group = match.group(groupNumber);
-					if (group != null) {
-						sb.append(group);
-					}
-					// clear buffer
-					number = new StringBuilder();
+					builder.group(Integer.parseInt(number.toString()));
+					number.setLength(0);
 				}
 
 				if (c == '$') {
 					inGroup = true;
-					if (cursor != i) {
-						sb.append(input, cursor, i);
-					}
+					builder.literal(template.substring(cursor, i));
 					i++;
 					cursor = i;
 				} else {
@@ -181,20 +225,34 @@ public class StringParser extends AbstractDidelphisParser<String> {
 			}
 		}
 
-		sb.append(input.substring(cursor));
+		builder.literal(template.substring(cursor));
 
-		// parse and append group data
+		// parse and add group reference
 		if (number.length() > 0) {
-			int groupNumber = Integer.parseInt(number.toString());
-			String group = match.group(groupNumber);
-			if (group != null) {
-				sb.append(group);
-			}
+			builder.group(Integer.parseInt(number.toString()));
+		}
+		return builder.build();
+	}
+
+	@Nullable
+	@Override
+	public String mergeTerminals(@NonNull String left, @NonNull String right) {
+		if (!isLiteral(left) || !isLiteral(right)) {
+			return null;
 		}
-		return sb.toString();
+		String merged = left + right;
+		return isLiteral(merged) ? merged : null;
+	}
+
+	private boolean isLiteral(@NonNull String terminal) {
+		return !terminal.isEmpty() &&
+				!terminal.equals("#[") &&
+				!terminal.equals("]#") &&
+				!terminal.equals(".") &&
+				!specials.containsKey(terminal);
 	}
 
-	private static final class LiteralArc implements Arc<String> {
+	private static final class LiteralArc implements StringLiteralArc {
 
 		private final String literal;
 
@@ -210,6 +268,11 @@ public class StringParser extends AbstractDidelphisParser<String> {
 			return -1;
 		}
 
+		@Override
+		public String getLiteral() {
+			return literal;
+		}
+
 		@Override
 		public String toString() {
 			return literal;
@@ -0,0 +1,59 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+/**
+ * Class {@code StringSequenceBuilder}
+ * <p>
+ * A {@link SequenceBuilder} for string parsers, backed by a
+ * {@link StringBuilder}.
+ *
+ * @since 0.4.0
+ */
+final class StringSequenceBuilder implements SequenceBuilder<String> {
+
+	private final StringBuilder builder = new StringBuilder();
+
+	@NonNull
+	@Override
+	public SequenceBuilder<String> append(@NonNull String sequence) {
+		builder.append(sequence);
+		return this;
+	}
+
+	@NonNull
+	@Override
+	public SequenceBuilder<String> append(
+			@NonNull String sequence,
+			int start,
+			int end
+	) {
+		builder.append(sequence, start, end);
+		return this;
+	}
+
+	@NonNull
+	@Override
+	public String build() {
+		return builder.toString();
+	}
+}
@@ -0,0 +1,74 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import lombok.NonNull;
+
+import org.didelphis.language.parsing.CharTrie;
+import org.didelphis.structures.graph.Arc;
+
+import java.util.Collection;
+
+/**
+ * Class {@code TrieArc}
+ * <p>
+ * An {@link Arc} accepting any one of a set of string literals, using a
+ * {@link CharTrie} so that all of the literals are tested in a single walk over
+ * the input. Where more than one literal matches, the end index of the longest
+ * is returned.
+ * <p>
+ * Because an arc can only report a single end index, this is only equivalent
+ * to an alternation of the literals if no literal is a proper prefix of
+ * another, for example when all the literals have the same length.
+ *
+ * @since 0.4.0
+ */
+final class TrieArc implements Arc<String> {
+
+	private final CharTrie<String> trie;
+	private final boolean insensitive;
+	private final String string;
+
+	TrieArc(@NonNull Collection<String> literals, boolean insensitive) {
+		this.insensitive = insensitive;
+		string = literals.toString();
+
+		CharTrie.Builder<String> builder = CharTrie.builder();
+		for (String literal : literals) {
+			String key = insensitive ? literal.toLowerCase() : literal;
+			builder.put(key, key);
+		}
+		trie = builder.build();
+	}
+
+	@Override
+	public int match(String sequence, int index) {
+		if (insensitive) {
+			sequence = sequence.toLowerCase();
+		}
+		String literal = trie.find(sequence, index);
+		return literal == null ? -1 : index + literal.length();
+	}
+
+	@Override
+	public String toString() {
+		return string;
+	}
+}
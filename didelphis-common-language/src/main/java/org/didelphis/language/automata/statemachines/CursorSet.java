@@ -0,0 +1,48 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+/**
+ * Class {@code CursorSet}
+ * <p>
+ * A reusable set of (state, index) pairs, used by a {@link Matcher} to avoid
+ * visiting the same state at the same index more than once; it is the
+ * key-only case of {@link PairTable}.
+ *
+ * @since 0.4.0
+ */
+final class CursorSet extends PairTable<Void> {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	CursorSet() {
+		super(INITIAL_CAPACITY, false);
+	}
+
+	/**
+	 * @param state a non-negative state number
+	 * @param index a non-negative index in the input
+	 *
+	 * @return true iff the pair was not already present
+	 */
+	boolean add(int state, int index) {
+		return put(state, index, null);
+	}
+}
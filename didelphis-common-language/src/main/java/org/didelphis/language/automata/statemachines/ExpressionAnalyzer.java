@@ -0,0 +1,286 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import org.didelphis.language.automata.AutomatonInfo;
+import org.didelphis.language.automata.expressions.Expression;
+import org.didelphis.language.automata.parsing.LanguageParser;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utility Class {@code ExpressionAnalyzer}
+ * <p>
+ * Computes an {@link AutomatonInfo} for an expression tree by combining the
+ * information provided for each terminal by
+ * {@link LanguageParser#analyzeTerminal(String)}.
+ *
+ * @since 0.4.0
+ */
+@UtilityClass
+class ExpressionAnalyzer {
+
+	@NonNull
+	<S> AutomatonInfo<S> analyze(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<S> parser
+	) {
+		Summary<S> summary = visit(expression, parser, false);
+
+		Set<S> required = new LinkedHashSet<>();
+		for (S literal : summary.required) {
+			if (parser.lengthOf(literal) > 0) {
+				required.add(literal);
+			}
+		}
+
+		Set<S> first = summary.first;
+		return new AutomatonInfo<>(
+				summary.min,
+				summary.max,
+				summary.start,
+				summary.end,
+				first == null ? null : Collections.unmodifiableSet(first),
+				Collections.unmodifiableList(new ArrayList<>(required)),
+				summary.literal
+		);
+	}
+
+	/**
+	 * @param negated {@code true} if the expression is part of a negation;
+	 *      these are matched by a machine in which every terminal is replaced
+	 *      by dots, so only the length of each terminal is used
+	 */
+	@NonNull
+	private <S> Summary<S> visit(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<S> parser,
+			boolean negated
+	) {
+		Summary<S> summary;
+		if (expression.isNegative() && !negated) {
+			Summary<S> inner = visit(expression.withNegative(false)
+					.withQuantifier(""), parser, true);
+			summary = Summary.of(AutomatonInfo.anyOfLength(inner.min, inner.max));
+		} else if (expression.isTerminal()) {
+			summary = expression.getTerminal().isEmpty()
+					? Summary.empty(parser)
+					: Summary.of(analyzeTerminal(expression, parser, negated));
+		} else if (expression.isParallel()) {
+			List<Summary<S>> branches = new ArrayList<>();
+			for (Expression child : expression.getChildren()) {
+				branches.add(visit(child, parser, negated));
+			}
+			summary = alternate(branches);
+		} else {
+			summary = Summary.empty(parser);
+			for (Expression child : expression.getChildren()) {
+				Summary<S> next = visit(child, parser, negated);
+				summary = concat(summary, next, parser);
+			}
+		}
+		return quantify(summary, expression.getQuantifier());
+	}
+
+	@NonNull
+	private <S> AutomatonInfo<S> analyzeTerminal(
+			@NonNull Expression expression,
+			@NonNull LanguageParser<S> parser,
+			boolean negated
+	) {
+		String terminal = expression.getTerminal();
+		if (!negated) {
+			return parser.analyzeTerminal(terminal);
+		}
+		Collection<S> specials = parser.getSpecialsMap().get(terminal);
+		if (specials == null || specials.isEmpty()) {
+			return AutomatonInfo.anyOfLength(1, 1);
+		}
+		AutomatonInfo<S> info = AutomatonInfo.anyOf(specials, parser);
+		return AutomatonInfo.anyOfLength(info.getMinLength(), info.getMaxLength());
+	}
+
+	@NonNull
+	private <S> Summary<S> concat(
+			@NonNull Summary<S> a,
+			@NonNull Summary<S> b,
+			@NonNull LanguageParser<S> parser
+	) {
+		Summary<S> summary = new Summary<>();
+		summary.min = a.min + b.min;
+		summary.max = a.max < 0 || b.max < 0 ? -1 : a.max + b.max;
+		summary.start = a.start || b.start;
+		summary.end = a.end || b.end;
+		summary.first = a.min > 0 ? a.first : union(a.first, b.first);
+
+		// Join the literal at the end of a to the literal at the start of b
+		// where the two are directly adjacent in every match
+		summary.required.addAll(a.required);
+		if (a.tail && b.head) {
+			int last = summary.required.size() - 1;
+			S joined = join(summary.required.get(last), b.required.get(0), parser);
+			summary.required.set(last, joined);
+			summary.required.addAll(b.required.subList(1, b.required.size()));
+		} else {
+			summary.required.addAll(b.required);
+		}
+
+		if (a.literal != null && b.literal != null) {
+			summary.literal = join(a.literal, b.literal, parser);
+		}
+		// Zero-length expressions, such as anchors, do not separate literals
+		summary.head = a.max == 0 ? b.head : a.head;
+		summary.tail = b.max == 0 ? a.tail : b.tail;
+		return summary;
+	}
+
+	@NonNull
+	private <S> Summary<S> alternate(@NonNull List<Summary<S>> branches) {
+		Summary<S> summary = new Summary<>();
+		summary.min = Integer.MAX_VALUE;
+		summary.start = true;
+		summary.end = true;
+		summary.first = new LinkedHashSet<>();
+		for (Summary<S> branch : branches) {
+			summary.min = Math.min(summary.min, branch.min);
+			summary.max = summary.max < 0 || branch.max < 0
+					? -1
+					: Math.max(summary.max, branch.max);
+			summary.start &= branch.start;
+			summary.end &= branch.end;
+			summary.first = union(summary.first, branch.first);
+		}
+		return summary;
+	}
+
+	@NonNull
+	private <S> Summary<S> quantify(
+			@NonNull Summary<S> summary,
+			@NonNull String quantifier
+	) {
+		if (quantifier.isEmpty()) {
+			return summary;
+		}
+
+		Summary<S> quantified = new Summary<>();
+		quantified.first = summary.first;
+		if (quantifier.equals("?")) {
+			quantified.max = summary.max;
+			return quantified;
+		}
+
+		quantified.max = summary.max == 0 ? 0 : -1;
+		if (quantifier.equals("*")) {
+			return quantified;
+		}
+
+		// One or more repetitions: whatever is required by one repetition is
+		// still required, but the head and tail literals are no longer part of
+		// a single contiguous literal
+		quantified.min = summary.min;
+		quantified.start = summary.start;
+		quantified.end = summary.end;
+		quantified.required.addAll(summary.required);
+		quantified.head = summary.head;
+		quantified.tail = summary.tail;
+		if (summary.head && summary.tail && summary.required.size() == 1) {
+			quantified.required.add(summary.required.get(0));
+		}
+		return quantified;
+	}
+
+	@Nullable
+	private <S> Set<S> union(@Nullable Set<S> a, @Nullable Set<S> b) {
+		if (a == null || b == null) {
+			return null;
+		}
+		Set<S> set = new LinkedHashSet<>(a);
+		set.addAll(b);
+		return set;
+	}
+
+	@NonNull
+	private <S> S join(
+			@NonNull S a,
+			@NonNull S b,
+			@NonNull LanguageParser<S> parser
+	) {
+		// Some parsers modify the first argument of concatenate
+		S sequence = parser.concatenate(parser.transform(""), a);
+		return parser.concatenate(sequence, b);
+	}
+
+	/**
+	 * Mutable counterpart of {@link AutomatonInfo} used while combining
+	 * sub-expressions; {@code head} and {@code tail} record whether the first
+	 * and last required literals are found at the very start and end of every
+	 * match, so that they can be joined with adjacent literals
+	 */
+	private static final class Summary<S> {
+
+		int min;
+		int max;
+		boolean start;
+		boolean end;
+		Set<S> first;
+		List<S> required = new ArrayList<>();
+		boolean head;
+		boolean tail;
+		S literal;
+
+		/**
+		 * @return a summary of an expression which matches only the empty
+		 *      sequence, the identity for concatenation
+		 */
+		@NonNull
+		private static <S> Summary<S> empty(@NonNull LanguageParser<S> parser) {
+			Summary<S> summary = new Summary<>();
+			summary.first = Collections.emptySet();
+			summary.literal = parser.transform("");
+			return summary;
+		}
+
+		@NonNull
+		private static <S> Summary<S> of(@NonNull AutomatonInfo<S> info) {
+			Summary<S> summary = new Summary<>();
+			summary.min = info.getMinLength();
+			summary.max = info.getMaxLength();
+			summary.start = info.isStartAnchored();
+			summary.end = info.isEndAnchored();
+			summary.first = info.getFirstSymbols();
+			summary.required.addAll(info.getRequiredLiterals());
+			summary.literal = info.getLiteral();
+			boolean literal = summary.literal != null && !summary.required.isEmpty();
+			summary.head = literal;
+			summary.tail = literal;
+			return summary;
+		}
+	}
+}
@@ -0,0 +1,487 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+
+import org.didelphis.language.automata.matching.BasicMatch;
+import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.structures.graph.Arc;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Class {@code Matcher}
+ * <p>
+ * A reusable, stateful matching engine for a single {@link StateMachine},
+ * similar to {@link java.util.regex.Matcher}. A matcher holds the buffers used
+ * during the search and the result of the most recent match, which can be
+ * read through the methods of {@link Match}. Once the buffers have grown to
+ * fit the machine and input, successive calls to {@link #find()},
+ * {@link #find(int)} and {@link #lookingAt(int)} on a
+ * {@link StandardStateMachine} do not allocate; the exceptions are calls to
+ * negated sub-machines, and {@link #group(int)} and {@link #toMatch()}, which
+ * create new objects on request.
+ * <p>
+ * Matchers are obtained from {@link StateMachine#matcher(Object)} and are not
+ * thread-safe; each thread should obtain its own, and then reuse it for new
+ * inputs by calling {@link #reset(Object)}.
+ *
+ * @param <S> the type of input matched by the machine
+ *
+ * @since 0.4.0
+ */
+public final class Matcher<S> implements Match<S> {
+
+	private final StateMachine<S> machine;
+	private final LanguageParser<S> parser;
+	private final Program<S> program;
+
+	private S input;
+	private int length;
+
+	// The index from which the next call to find() will search
+	private int next;
+
+	// The result of the last match; the tags hold the start and end of each
+	// group, interleaved
+	private int matchStart;
+	private int matchEnd;
+	private final int[] groupTags;
+
+	// Used when the machine cannot be run by this matcher directly
+	private Match<S> delegate;
+
+	// Frontiers and tags of the search, or null once released
+	private SearchBuffers buffers;
+
+	// Results of sub-machines for the current input
+	private final PairTable<Match<S>> subMatches;
+
+	Matcher(
+			@NonNull StateMachine<S> machine,
+			@Nullable Program<S> program,
+			@NonNull S input
+	) {
+		this(machine, program, input,
+				program == null ? null : new SearchBuffers());
+	}
+
+	Matcher(
+			@NonNull StateMachine<S> machine,
+			@Nullable Program<S> program,
+			@NonNull S input,
+			@Nullable SearchBuffers buffers
+	) {
+		this.machine = machine;
+		this.program = program;
+		this.buffers = buffers;
+		parser = machine.getParser();
+
+		groupTags = new int[program == null ? 0 : program.groupCount() * 2];
+		subMatches = program != null && program.machineCount() > 0
+				? new PairTable<Match<S>>(SearchBuffers.INITIAL_SIZE, true)
+				: null;
+
+		reset(input);
+	}
+
+	/**
+	 * Resets this matcher to search a new input from its beginning, and
+	 * discards the result of the previous match.
+	 *
+	 * @param input the new input; not null
+	 *
+	 * @return this matcher
+	 */
+	@NonNull
+	public Matcher<S> reset(@NonNull S input) {
+		this.input = input;
+		length = parser.lengthOf(input);
+		next = 0;
+		clear();
+		if (subMatches != null) {
+			subMatches.clear();
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the buffers of this matcher to the current thread, for reuse by
+	 * the next search it runs, and drops the references this matcher holds to
+	 * its input and to the results of sub-machines; the matcher cannot be used
+	 * again afterwards.
+	 */
+	void release() {
+		input = null;
+		delegate = null;
+		if (subMatches != null) {
+			subMatches.clear();
+		}
+		if (buffers != null) {
+			buffers.release();
+			buffers = null;
+		}
+	}
+
+	/**
+	 * Attempts to match the machine starting exactly at the provided index, as
+	 * with {@link StateMachine#match(Object, int)}. If successful, a subsequent
+	 * call to {@link #find()} will search from the end of the match.
+	 *
+	 * @param start the index at which the match must start
+	 *
+	 * @return true iff the machine matched at the index
+	 */
+	public boolean lookingAt(int start) {
+		boolean matched;
+		if (program == null) {
+			delegate = machine.match(input, start);
+			matched = delegate.matches();
+		} else {
+			matched = run(start);
+		}
+		if (matched) {
+			int end = end();
+			next = end > start ? end : start + 1;
+		}
+		return matched;
+	}
+
+	/**
+	 * Searches for the next match, starting from the end of the previous
+	 * match, or from the start of the input following a reset. Calling this
+	 * repeatedly produces the same matches as
+	 * {@link StateMachine#findAll(Object)}.
+	 *
+	 * @return true iff a match was found
+	 */
+	public boolean find() {
+		for (int i = next; i < length; i++) {
+			if (lookingAt(i)) {
+				return true;
+			}
+		}
+		next = length;
+		clear();
+		return false;
+	}
+
+	/**
+	 * Resets the search position and searches for the first match starting at
+	 * or after the provided index.
+	 *
+	 * @param start the index from which to search
+	 *
+	 * @return true iff a match was found
+	 */
+	public boolean find(int start) {
+		next = start;
+		return find();
+	}
+
+	/**
+	 * @return an immutable copy of the result of the most recent match, equal
+	 *      to the value which would be returned by the machine's own
+	 *      {@code match} method; not null
+	 */
+	@NonNull
+	public Match<S> toMatch() {
+		if (program == null) {
+			return delegate;
+		}
+		if (program.isEmpty() && matchEnd >= 0) {
+			return new BasicMatch<>(input, 0, 0);
+		}
+		int groupCount = program.groupCount();
+		if (matchEnd < 0) {
+			return BasicMatch.empty(groupCount);
+		}
+		S sequence = parser.subSequence(input, matchStart, matchEnd);
+		BasicMatch<S> match = new BasicMatch<>(sequence, matchStart, matchEnd);
+		match.addGroup(matchStart, matchEnd, sequence);
+		for (int i = 1; i < groupCount; i++) {
+			int start = start(i);
+			if (start < 0) {
+				match.addGroup(-1, -1, null);
+			} else {
+				int end = end(i);
+				match.addGroup(start, end, parser.subSequence(input, start, end));
+			}
+		}
+		return match;
+	}
+
+	@Override
+	public int start() {
+		return program == null ? delegate.start() : matchStart;
+	}
+
+	@Override
+	public int start(int group) {
+		if (program == null) {
+			return delegate.start(group);
+		}
+		checkGroup(group);
+		if (group == 0) {
+			return matchStart;
+		}
+		return isCaptured(group) ? groupTags[group * 2] : -1;
+	}
+
+	@Override
+	public int end() {
+		return program == null ? delegate.end() : matchEnd;
+	}
+
+	@Override
+	public int end(int group) {
+		if (program == null) {
+			return delegate.end(group);
+		}
+		checkGroup(group);
+		if (group == 0) {
+			return matchEnd;
+		}
+		return isCaptured(group) ? groupTags[group * 2 + 1] : -1;
+	}
+
+	@Nullable
+	@Override
+	public S group(int group) {
+		if (program == null) {
+			return delegate.group(group);
+		}
+		int start = start(group);
+		return start < 0 ? null : parser.subSequence(input, start, end(group));
+	}
+
+	@Override
+	public int groupCount() {
+		return program == null ? delegate.groupCount() : program.groupCount();
+	}
+
+	@Override
+	public String toString() {
+		return "Matcher{" + machine + ", start=" + start() + ", end=" + end() +
+				'}';
+	}
+
+	private void clear() {
+		matchStart = -1;
+		matchEnd = -1;
+		if (program == null) {
+			delegate = BasicMatch.empty(0);
+		}
+	}
+
+	private void checkGroup(int group) {
+		if (group < 0 || group >= program.groupCount()) {
+			throw new IndexOutOfBoundsException("No group " + group);
+		}
+	}
+
+	// Groups which are unset, or which matched nothing, are not reported
+	private boolean isCaptured(int group) {
+		int start = groupTags[group * 2];
+		int end = groupTags[group * 2 + 1];
+		return matchEnd >= 0 && start >= 0 && end >= 0 && start != end;
+	}
+
+	/**
+	 * Runs the machine from the provided index; cursors are processed in the
+	 * same order as they are created and, where several paths accept, the
+	 * longest match found first is kept.
+	 */
+	private boolean run(int start) {
+		if (program.isEmpty()) {
+			matchStart = 0;
+			matchEnd = 0;
+			return true;
+		}
+		if (program.isCaptureFree()) {
+			return runWithoutGroups(start);
+		}
+
+		SearchBuffers b = buffers;
+		int width = program.groupCount() * 2;
+
+		b.start(start, width);
+		int size = 1;
+
+		int bestEnd = -1;
+		while (size > 0) {
+			for (int c = 0; c < size; c++) {
+				int state = b.states[c];
+				int index = b.indices[c];
+				int position = index;
+				int row = b.rows[c];
+
+				if (program.getMachineId(state) >= 0 && index >= 0) {
+					Match<S> match = matchSubMachine(state, index);
+					if (match.end() < 0) {
+						continue;
+					}
+					position = match.end();
+					// copy valid groups from the match to the cursor
+					row = copyGroups(match, row, width);
+				}
+
+				if (program.isAccepting(state) && position > bestEnd) {
+					bestEnd = position;
+					System.arraycopy(b.pool, row * width, groupTags, 0, width);
+				}
+
+				Arc<S>[] arcs = program.getArcs(state);
+				if (arcs == null || position > length) {
+					continue;
+				}
+
+				int startGroup = program.getStartGroup(state);
+				if (startGroup >= 0 && b.pool[row * width + startGroup * 2] == -1) {
+					row = b.copyRow(row, width);
+					b.pool[row * width + startGroup * 2] = index;
+				}
+
+				int[][] targets = program.getTargets(state);
+				for (int a = 0; a < arcs.length; a++) {
+					int newIndex = arcs[a].match(input, position);
+					if (newIndex < 0) {
+						continue;
+					}
+					for (int target : targets[a]) {
+						int childRow = row;
+						int endGroup = program.getEndGroup(target);
+						if (endGroup >= 0 &&
+								b.pool[row * width + endGroup * 2 + 1] == -1) {
+							childRow = b.copyRow(row, width);
+							b.pool[childRow * width + endGroup * 2 + 1] = newIndex;
+						}
+						b.push(target, newIndex, childRow);
+					}
+				}
+			}
+			size = b.swap(width);
+		}
+
+		matchStart = bestEnd >= 0 ? start : -1;
+		matchEnd = bestEnd;
+		return bestEnd >= 0;
+	}
+
+	/**
+	 * Writes the groups captured by a sub-machine into a cursor's tags,
+	 * copying its row first only if any tag actually changes
+	 *
+	 * @return the row now holding the cursor's tags
+	 */
+	private int copyGroups(@NonNull Match<S> match, int row, int width) {
+		SearchBuffers b = buffers;
+		boolean copied = false;
+		for (int i = 1; i < match.groupCount(); i++) {
+			int start = match.start(i);
+			int end = match.end(i);
+			if (start < 0 || end < 0) {
+				continue;
+			}
+			int base = row * width + i * 2;
+			if (b.pool[base] != start || b.pool[base + 1] != end) {
+				if (!copied) {
+					row = b.copyRow(row, width);
+					base = row * width + i * 2;
+					copied = true;
+				}
+				b.pool[base] = start;
+				b.pool[base + 1] = end;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Runs a machine which has no capture groups. Because the outcome of a
+	 * cursor then depends only on its state and index, each pair is only
+	 * visited once, and cursors carry no tags.
+	 */
+	private boolean runWithoutGroups(int start) {
+		SearchBuffers b = buffers;
+		b.start(start, 0);
+		int size = 1;
+
+		int bestEnd = -1;
+		while (size > 0) {
+			for (int c = 0; c < size; c++) {
+				int state = b.states[c];
+				int position = b.indices[c];
+
+				if (program.getMachineId(state) >= 0 && position >= 0) {
+					position = matchSubMachine(state, position).end();
+					if (position < 0) {
+						continue;
+					}
+				}
+
+				if (program.isAccepting(state) && position > bestEnd) {
+					bestEnd = position;
+				}
+
+				Arc<S>[] arcs = program.getArcs(state);
+				if (arcs == null || position > length) {
+					continue;
+				}
+
+				int[][] targets = program.getTargets(state);
+				for (int a = 0; a < arcs.length; a++) {
+					int newIndex = arcs[a].match(input, position);
+					if (newIndex < 0) {
+						continue;
+					}
+					for (int target : targets[a]) {
+						if (b.visited.add(target, newIndex)) {
+							b.push(target, newIndex, 0);
+						}
+					}
+				}
+			}
+			size = b.swap(0);
+		}
+
+		matchStart = bestEnd >= 0 ? start : -1;
+		matchEnd = bestEnd;
+		return bestEnd >= 0;
+	}
+
+	/**
+	 * Runs the sub-machine of a state, reusing its result if the same machine
+	 * has already been run at the same index of the current input.
+	 */
+	@NonNull
+	private Match<S> matchSubMachine(int state, int index) {
+		int id = program.getMachineId(state);
+		Match<S> match = subMatches.get(id, index);
+		if (match == null) {
+			StateMachine<S> subMachine = program.getMachine(state);
+			match = subMachine.match(input, index);
+			subMatches.put(id, index, match);
+		}
+		return match;
+	}
+}
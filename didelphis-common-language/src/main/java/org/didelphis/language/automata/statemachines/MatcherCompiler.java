@@ -0,0 +1,310 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import org.didelphis.structures.graph.Arc;
+import org.didelphis.utilities.Logger;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility Class {@code MatcherCompiler}
+ * <p>
+ * An opt-in backend which compiles a {@link StandardStateMachine} into a
+ * class generated specifically for it (see {@link MatcherGenerator}), so that
+ * the JIT can optimize the matching code of each pattern individually. The
+ * compiled machine returns the same matches, including capture groups, as the
+ * machine it was compiled from, and delegates everything other than matching
+ * to it.
+ * <p>
+ * The class is compiled in memory using the system Java compiler and defined
+ * in this package, which it shares package-private types with. Where the
+ * runtime supports it (Java 15 and later), it is defined as a hidden class
+ * using {@code MethodHandles.Lookup#defineHiddenClass} so that it can be
+ * unloaded once the compiled machine is no longer referenced; on Java 9 to 14,
+ * it is defined using {@code MethodHandles.Lookup#defineClass}, and is never
+ * unloaded. Java 8 provides neither, so machines are not compiled there.
+ * <p>
+ * Compilation is relatively expensive and should be reserved for patterns
+ * which are used heavily. If no compiler is available, as on a JRE, or the
+ * machine cannot be compiled, the original machine is returned unchanged and
+ * the reason is logged as a warning.
+ *
+ * @since 0.4.0
+ */
+@UtilityClass
+public class MatcherCompiler {
+
+	private final Logger LOG = Logger.create(MatcherCompiler.class);
+
+	private final String CLASS_PREFIX = "CompiledMatcher$";
+	private final AtomicInteger COUNTER = new AtomicInteger();
+
+	/**
+	 * Compiles the provided machine into a specialized class, if possible.
+	 *
+	 * @param machine the machine to compile; not null
+	 * @param <S> the type of input matched by the machine
+	 *
+	 * @return a machine equivalent to the one provided, which is returned
+	 *      itself if it cannot be compiled
+	 */
+	@NonNull
+	public <S> StateMachine<S> compile(@NonNull StateMachine<S> machine) {
+		if (!(machine instanceof StandardStateMachine)) {
+			return machine;
+		}
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			LOG.warn("No system Java compiler is available to compile {}; " +
+					"it will be interpreted", machine);
+			return machine;
+		}
+
+		String simpleName = CLASS_PREFIX + COUNTER.incrementAndGet();
+		String className = packageName() + '.' + simpleName;
+
+		MatcherGenerator<S> generator = new MatcherGenerator<>(
+				(StandardStateMachine<S>) machine, simpleName);
+		try {
+			String source = generator.generate();
+			String classPath = classPath();
+			DiagnosticCollector<JavaFileObject> diagnostics =
+					new DiagnosticCollector<>();
+			byte[] bytes = compileSource(
+					compiler, className, source, classPath, diagnostics);
+			if (bytes == null) {
+				LOG.warn("Unable to compile generated matcher for {} with " +
+								"class path {}; it will be interpreted: {}",
+						machine, classPath, diagnostics.getDiagnostics());
+				return machine;
+			}
+
+			Class<?> type = define(bytes);
+			if (type == null) {
+				LOG.warn("Unable to define generated matcher for {}, which " +
+								"requires Java 9 or later; it will be interpreted",
+						machine);
+				return machine;
+			}
+			Constructor<?> constructor = type.getConstructor(
+					StateMachine.class,
+					Arc[].class,
+					StateMachine[].class,
+					String[].class
+			);
+			@SuppressWarnings("unchecked")
+			StateMachine<S> compiled = (StateMachine<S>) constructor.newInstance(
+					machine,
+					generator.getArcs(),
+					generator.getMachines(),
+					generator.getLiterals()
+			);
+			return compiled;
+		} catch (ReflectiveOperationException | IOException |
+				RuntimeException e) {
+			LOG.warn("Unable to load generated matcher for {}; it will be " +
+					"interpreted: {}", machine, e);
+			return machine;
+		}
+	}
+
+	/**
+	 * @return the bytes of the compiled class, or null if the source could
+	 *      not be compiled, in which case the reason is held by the provided
+	 *      diagnostics
+	 */
+	@Nullable
+	private byte[] compileSource(
+			@NonNull JavaCompiler compiler,
+			@NonNull String className,
+			@NonNull String source,
+			@NonNull String classPath,
+			@NonNull DiagnosticCollector<JavaFileObject> diagnostics
+	) throws IOException {
+		JavaFileObject file = new SourceFile(className, source);
+		Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+
+		List<String> options = new ArrayList<>();
+		options.add("-classpath");
+		options.add(classPath);
+		options.add("-proc:none");
+		options.add("-g:none");
+		options.add("-nowarn");
+
+		try (StandardJavaFileManager standard =
+				compiler.getStandardFileManager(diagnostics, null, null)) {
+			JavaFileManager manager =
+					new ForwardingJavaFileManager<JavaFileManager>(standard) {
+				@Override
+				public JavaFileObject getJavaFileForOutput(
+						Location location,
+						String name,
+						Kind kind,
+						FileObject sibling
+				) {
+					ByteArrayOutputStream stream = new ByteArrayOutputStream();
+					outputs.put(name, stream);
+					return new ClassFile(name, stream);
+				}
+			};
+			Boolean success = compiler.getTask(
+					new StringWriter(),
+					manager,
+					diagnostics,
+					options,
+					null,
+					Collections.singletonList(file)
+			).call();
+			if (!Boolean.TRUE.equals(success)) {
+				return null;
+			}
+		}
+		// Only the top-level class is defined; the generator writes no others
+		ByteArrayOutputStream output = outputs.get(className);
+		return output == null ? null : output.toByteArray();
+	}
+
+	/**
+	 * Defines the compiled class in this package, so that it can use the
+	 * package-private types the generated code refers to.
+	 *
+	 * @return the defined class, or null if the runtime cannot define a class
+	 *      in this package
+	 */
+	@Nullable
+	private Class<?> define(byte[] bytes) throws ReflectiveOperationException {
+		Lookup lookup = MethodHandles.lookup();
+		try {
+			Class<?> options = Class.forName(
+					"java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			Method method = Lookup.class.getMethod(
+					"defineHiddenClass",
+					byte[].class,
+					boolean.class,
+					Array.newInstance(options, 0).getClass()
+			);
+			Object empty = Array.newInstance(options, 0);
+			Lookup hidden = (Lookup) method.invoke(lookup, bytes, true, empty);
+			return hidden.lookupClass();
+		} catch (ClassNotFoundException | NoSuchMethodException e) {
+			// Java 9 to 14
+		}
+		try {
+			Method method = Lookup.class.getMethod("defineClass", byte[].class);
+			return (Class<?>) method.invoke(lookup, (Object) bytes);
+		} catch (NoSuchMethodException e) {
+			// Java 8
+			return null;
+		}
+	}
+
+	/**
+	 * The generated class refers to types from the language and structures
+	 * modules, which are not necessarily on the application class path
+	 */
+	@NonNull
+	private String classPath() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(System.getProperty("java.class.path", ""));
+		for (Class<?> type : new Class<?>[]{StateMachine.class, Arc.class}) {
+			CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+			if (codeSource != null && codeSource.getLocation() != null) {
+				try {
+					String path = new File(codeSource.getLocation().toURI()).getPath();
+					sb.append(File.pathSeparatorChar).append(path);
+				} catch (Exception e) {
+					LOG.debug("Unable to resolve location of {}: {}", type, e);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	@NonNull
+	private String packageName() {
+		return MatcherCompiler.class.getPackage().getName();
+	}
+
+	private static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		private SourceFile(String className, String source) {
+			super(URI.create("string:///" + className.replace('.', '/') +
+					Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+
+	private static final class ClassFile extends SimpleJavaFileObject {
+
+		private final OutputStream stream;
+
+		private ClassFile(String className, OutputStream stream) {
+			super(URI.create("bytes:///" + className.replace('.', '/') +
+					Kind.CLASS.extension), Kind.CLASS);
+			this.stream = stream;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return stream;
+		}
+	}
+}
@@ -0,0 +1,478 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+
+import org.didelphis.language.automata.parsing.StringLiteralArc;
+import org.didelphis.structures.graph.Arc;
+import org.didelphis.structures.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Class {@code MatcherGenerator}
+ * <p>
+ * Writes the source of a class which performs the same search as
+ * {@link StandardStateMachine#match(Object, int)} for one particular machine.
+ * Each state becomes a method, dispatched from a {@code switch} on the state
+ * number, in which the arcs leaving the state are evaluated in the same order
+ * as the interpreter evaluates them. Epsilon arcs and exact string literals are
+ * inlined; all other arcs, and negated sub-machines, are called through arrays
+ * passed to the generated class's constructor. Each state has its own method,
+ * and very large machines are dispatched in blocks, to keep every method
+ * within the JVM's limit on method size.
+ * <p>
+ * Like {@link Matcher}, the generated class searches using the
+ * {@link SearchBuffers} of the current thread, so a match allocates nothing
+ * but its result: tags are kept in the shared pool of rows, and a machine
+ * without groups visits each state only once at each index. Because these
+ * types are package-private, the generated class must be defined in this
+ * package.
+ *
+ * @param <S> the type of input matched by the machine
+ *
+ * @since 0.4.0
+ */
+final class MatcherGenerator<S> {
+
+	// Literals longer than this are compared with String#startsWith
+	private static final int MAX_INLINE_LITERAL = 8;
+
+	// The number of states dispatched by a single switch, which is limited
+	// by the maximum size of a method
+	private static final int DISPATCH_BITS = 10;
+
+	// The parameters of each state's method, and the arguments passing them on
+	private static final String PARAMETERS = "SearchBuffers b, Object input, " +
+			"String string, int length, int index, int row";
+	private static final String ARGUMENTS = "b, input, string, length, index, row";
+
+	private final StandardStateMachine<S> machine;
+	private final String simpleName;
+
+	private final Map<String, Integer> states;
+	private final Map<Arc<S>, Integer> arcs;
+	private final Map<StateMachine<S>, Integer> machines;
+	private final List<String> literals;
+
+	private final List<Integer> dispatched;
+
+	// The number of tags of each cursor, or zero if the machine has no groups
+	private final int width;
+
+	private boolean usesString;
+
+	MatcherGenerator(
+			@NonNull StandardStateMachine<S> machine,
+			@NonNull String simpleName
+	) {
+		this.machine = machine;
+		this.simpleName = simpleName;
+
+		states = new LinkedHashMap<>();
+		arcs = new IdentityHashMap<>();
+		machines = new IdentityHashMap<>();
+		literals = new ArrayList<>();
+		dispatched = new ArrayList<>();
+
+		int groups = machine.getGroups().size();
+		width = groups > 1 ? groups * 2 : 0;
+	}
+
+	@NonNull
+	String generate() {
+		Graph<S> graph = machine.getGraph();
+
+		// Number the reachable states, with the start state as zero
+		List<String> queue = new ArrayList<>();
+		queue.add(machine.getStartStateId());
+		states.put(machine.getStartStateId(), 0);
+		for (int i = 0; i < queue.size(); i++) {
+			Map<Arc<S>, Collection<String>> map = graph.get(queue.get(i));
+			if (map == null) {
+				continue;
+			}
+			for (Collection<String> targets : map.values()) {
+				for (String target : targets) {
+					if (!states.containsKey(target)) {
+						states.put(target, states.size());
+						queue.add(target);
+					}
+				}
+			}
+		}
+
+		StringBuilder methods = new StringBuilder();
+		for (String state : queue) {
+			writeState(methods, state);
+		}
+
+		return writeClass(methods, graph.isEmpty());
+	}
+
+	@NonNull
+	Arc<?>[] getArcs() {
+		Arc<?>[] array = new Arc<?>[arcs.size()];
+		for (Entry<Arc<S>, Integer> entry : arcs.entrySet()) {
+			array[entry.getValue()] = entry.getKey();
+		}
+		return array;
+	}
+
+	@NonNull
+	StateMachine<?>[] getMachines() {
+		StateMachine<?>[] array = new StateMachine<?>[machines.size()];
+		for (Entry<StateMachine<S>, Integer> entry : machines.entrySet()) {
+			array[entry.getValue()] = entry.getKey();
+		}
+		return array;
+	}
+
+	@NonNull
+	String[] getLiterals() {
+		return literals.toArray(new String[0]);
+	}
+
+	private void writeState(@NonNull StringBuilder out, @NonNull String state) {
+		Graph<S> graph = machine.getGraph();
+		StateMachine<S> subMachine = machine.getMachinesMap().get(state);
+		boolean accepting = machine.getAcceptingStates().contains(state);
+		boolean hasArcs = graph.containsFirstKey(state);
+		if (subMachine == null && !accepting && !hasArcs) {
+			return;
+		}
+
+		int id = states.get(state);
+		dispatched.add(id);
+
+		out.append("\tprivate void state").append(id).append('(')
+				.append(PARAMETERS).append(") {\n")
+				.append("\t\tint position = index;\n");
+		if (subMachine != null) {
+			writeSubMachine(out, subMachine);
+		}
+		if (accepting) {
+			out.append("\t\tif (position > b.bestEnd) {\n");
+			if (width == 0) {
+				out.append("\t\t\tb.bestEnd = position;\n");
+			} else {
+				out.append("\t\t\tb.accept(position, row, ").append(width)
+						.append(");\n");
+			}
+			out.append("\t\t}\n");
+		}
+		if (hasArcs) {
+			writeArcs(out, state, graph.get(state));
+		}
+		out.append("\t}\n\n");
+	}
+
+	private void writeSubMachine(
+			@NonNull StringBuilder out,
+			@NonNull StateMachine<S> subMachine
+	) {
+		int id = machines.computeIfAbsent(subMachine, k -> machines.size());
+		out.append("\t\tif (index >= 0) {\n")
+				.append("\t\t\tMatch m = machines[").append(id)
+				.append("].match(input, index);\n")
+				.append("\t\t\tif (m.end() < 0) {\n")
+				.append("\t\t\t\treturn;\n")
+				.append("\t\t\t}\n")
+				.append("\t\t\tposition = m.end();\n");
+		if (width > 0) {
+			out.append("\t\t\trow = copyGroups(b, m, row);\n");
+		}
+		out.append("\t\t}\n");
+	}
+
+	private void writeArcs(
+			@NonNull StringBuilder out,
+			@NonNull String state,
+			@NonNull Map<Arc<S>, Collection<String>> map
+	) {
+		out.append("\t\tif (position > length) {\n")
+				.append("\t\t\treturn;\n")
+				.append("\t\t}\n");
+
+		Integer startGroup = machine.getStartNodes().get(state);
+		if (startGroup != null && width > 0) {
+			String tag = "row * " + width + " + " + startGroup * 2;
+			out.append("\t\tif (b.pool[").append(tag).append("] == -1) {\n")
+					.append("\t\t\trow = b.copyRow(row, ").append(width)
+					.append(");\n")
+					.append("\t\t\tb.pool[").append(tag)
+					.append("] = index;\n")
+					.append("\t\t}\n");
+		}
+
+		out.append("\t\tint next;\n");
+		for (Entry<Arc<S>, Collection<String>> entry : map.entrySet()) {
+			out.append("\t\tnext = ").append(arcExpression(entry.getKey()))
+					.append(";\n")
+					.append("\t\tif (next >= 0) {\n");
+			for (String target : entry.getValue()) {
+				writePush(out, target);
+			}
+			out.append("\t\t}\n");
+		}
+	}
+
+	private void writePush(@NonNull StringBuilder out, @NonNull String target) {
+		int id = states.get(target);
+		Integer endGroup = machine.getEndNodes().get(target);
+		if (width == 0) {
+			out.append("\t\t\tif (b.visited.add(").append(id)
+					.append(", next)) {\n")
+					.append("\t\t\t\tb.push(").append(id)
+					.append(", next, 0);\n")
+					.append("\t\t\t}\n");
+		} else if (endGroup == null) {
+			out.append("\t\t\tb.push(").append(id).append(", next, row);\n");
+		} else {
+			String tag = " * " + width + " + " + (endGroup * 2 + 1);
+			out.append("\t\t\tif (b.pool[row").append(tag)
+					.append("] == -1) {\n")
+					.append("\t\t\t\tint child = b.copyRow(row, ").append(width)
+					.append(");\n")
+					.append("\t\t\t\tb.pool[child").append(tag)
+					.append("] = next;\n")
+					.append("\t\t\t\tb.push(").append(id)
+					.append(", next, child);\n")
+					.append("\t\t\t} else {\n")
+					.append("\t\t\t\tb.push(").append(id)
+					.append(", next, row);\n")
+					.append("\t\t\t}\n");
+		}
+	}
+
+	@NonNull
+	private String arcExpression(@NonNull Arc<S> arc) {
+		if (arc == machine.getParser().epsilon()) {
+			return "position";
+		}
+		if (arc instanceof StringLiteralArc) {
+			String literal = ((StringLiteralArc) arc).getLiteral();
+			if (literal != null) {
+				usesString = true;
+				return literalExpression(literal);
+			}
+		}
+		int id = arcs.computeIfAbsent(arc, k -> arcs.size());
+		return "arcs[" + id + "].match(input, position)";
+	}
+
+	@NonNull
+	private String literalExpression(@NonNull String literal) {
+		int length = literal.length();
+		if (length > MAX_INLINE_LITERAL) {
+			int id = literals.size();
+			literals.add(literal);
+			return "string.startsWith(literals[" + id + "], position) ? " +
+					"position + " + length + " : -1";
+		}
+		// The same bounds as String#startsWith, followed by each character
+		StringBuilder sb = new StringBuilder();
+		sb.append("position >= 0 && position <= string.length() - ")
+				.append(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(" && string.charAt(position + ").append(i)
+					.append(") == ").append((int) literal.charAt(i));
+		}
+		sb.append(" ? position + ").append(length).append(" : -1");
+		return sb.toString();
+	}
+
+	private static void writeDispatch(
+			@NonNull StringBuilder out,
+			@NonNull String selector,
+			@NonNull String indent,
+			@NonNull Iterable<Integer> ids
+	) {
+		out.append(indent).append("switch (").append(selector).append(") {\n");
+		for (int id : ids) {
+			out.append(indent).append("\tcase ").append(id).append(":\n")
+					.append(indent).append("\t\tstate").append(id)
+					.append('(').append(ARGUMENTS).append(");\n")
+					.append(indent).append("\t\tbreak;\n");
+		}
+		out.append(indent).append("\tdefault:\n")
+				.append(indent).append("\t\tbreak;\n")
+				.append(indent).append("}\n");
+	}
+
+	@NonNull
+	private String writeClass(@NonNull CharSequence methods, boolean empty) {
+		int groups = machine.getGroups().size();
+		StringBuilder out = new StringBuilder();
+		out.append("package ").append(getClass().getPackage().getName())
+				.append(";\n\n")
+				.append("import org.didelphis.language.automata.AutomatonInfo;\n")
+				.append("import org.didelphis.language.automata.matching.BasicMatch;\n")
+				.append("import org.didelphis.language.automata.matching.Match;\n")
+				.append("import org.didelphis.language.automata.parsing.LanguageParser;\n")
+				.append("import org.didelphis.structures.graph.Arc;\n\n")
+				.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+				.append("public final class ").append(simpleName)
+				.append(" implements StateMachine {\n\n")
+				.append("\tprivate final StateMachine source;\n")
+				.append("\tprivate final LanguageParser parser;\n")
+				.append("\tprivate final Arc[] arcs;\n")
+				.append("\tprivate final StateMachine[] machines;\n")
+				.append("\tprivate final String[] literals;\n\n")
+				.append("\tpublic ").append(simpleName)
+				.append("(StateMachine source, Arc[] arcs, StateMachine[] machines, String[] literals) {\n")
+				.append("\t\tthis.source = source;\n")
+				.append("\t\tthis.parser = source.getParser();\n")
+				.append("\t\tthis.arcs = arcs;\n")
+				.append("\t\tthis.machines = machines;\n")
+				.append("\t\tthis.literals = literals;\n")
+				.append("\t}\n\n")
+				.append("\tpublic LanguageParser getParser() {\n")
+				.append("\t\treturn parser;\n")
+				.append("\t}\n\n")
+				.append("\tpublic String getId() {\n")
+				.append("\t\treturn source.getId();\n")
+				.append("\t}\n\n")
+				.append("\tpublic AutomatonInfo getInfo() {\n")
+				.append("\t\treturn source.getInfo();\n")
+				.append("\t}\n\n")
+				.append("\tpublic String toString() {\n")
+				.append("\t\treturn source.toString();\n")
+				.append("\t}\n\n");
+
+		out.append("\tpublic Match match(Object input, int start) {\n");
+		if (empty) {
+			out.append("\t\treturn new BasicMatch(input, 0, 0);\n")
+					.append("\t}\n");
+			return out.append("}\n").toString();
+		}
+		out.append("\t\tSearchBuffers b = SearchBuffers.take();\n")
+				.append("\t\ttry {\n")
+				.append("\t\t\treturn run(b, input, start);\n")
+				.append("\t\t} finally {\n")
+				.append("\t\t\tb.release();\n")
+				.append("\t\t}\n")
+				.append("\t}\n\n");
+
+		out.append("\tprivate Match run(SearchBuffers b, Object input, int start) {\n")
+				.append("\t\tint length = parser.lengthOf(input);\n")
+				.append("\t\tString string = ")
+				.append(usesString ? "(String) input" : "null").append(";\n")
+				.append("\t\tb.start(start, ").append(width).append(");\n")
+				.append("\t\tint size = 1;\n")
+				.append("\t\twhile (size > 0) {\n")
+				.append("\t\t\tfor (int c = 0; c < size; c++) {\n")
+				.append("\t\t\t\tint index = b.indices[c];\n")
+				.append("\t\t\t\tint row = b.rows[c];\n");
+		int chunks = (states.size() >> DISPATCH_BITS) + 1;
+		if (chunks == 1) {
+			writeDispatch(out, "b.states[c]", "\t\t\t\t", dispatched);
+		} else {
+			out.append("\t\t\t\tswitch (b.states[c] >> ").append(DISPATCH_BITS)
+					.append(") {\n");
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				out.append("\t\t\t\t\tcase ").append(chunk).append(":\n")
+						.append("\t\t\t\t\t\tdispatch").append(chunk)
+						.append("(b.states[c], ").append(ARGUMENTS).append(");\n")
+						.append("\t\t\t\t\t\tbreak;\n");
+			}
+			out.append("\t\t\t\t\tdefault:\n")
+					.append("\t\t\t\t\t\tbreak;\n")
+					.append("\t\t\t\t}\n");
+		}
+		out.append("\t\t\t}\n")
+				.append("\t\t\tsize = b.swap(").append(width).append(");\n")
+				.append("\t\t}\n")
+				.append("\t\tint end = b.bestEnd;\n")
+				.append("\t\tif (end < 0) {\n")
+				.append("\t\t\treturn BasicMatch.empty(").append(groups)
+				.append(");\n")
+				.append("\t\t}\n")
+				.append("\t\tObject seq = parser.subSequence(input, start, end);\n")
+				.append("\t\tBasicMatch match = new BasicMatch(seq, start, end);\n")
+				.append("\t\tmatch.addGroup(start, end, seq);\n")
+				.append("\t\tfor (int i = 1; i < ").append(groups)
+				.append("; i++) {\n")
+				.append("\t\t\tint s = b.bestTags[i * 2];\n")
+				.append("\t\t\tint e = b.bestTags[i * 2 + 1];\n")
+				.append("\t\t\tif (s < 0 || e < 0 || s == e) {\n")
+				.append("\t\t\t\tmatch.addGroup(-1, -1, null);\n")
+				.append("\t\t\t} else {\n")
+				.append("\t\t\t\tmatch.addGroup(s, e, parser.subSequence(input, s, e));\n")
+				.append("\t\t\t}\n")
+				.append("\t\t}\n")
+				.append("\t\treturn match;\n")
+				.append("\t}\n\n");
+
+		if (chunks > 1) {
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				List<Integer> ids = new ArrayList<>();
+				for (int id : dispatched) {
+					if (id >> DISPATCH_BITS == chunk) {
+						ids.add(id);
+					}
+				}
+				out.append("\tprivate void dispatch").append(chunk)
+						.append("(int state, ").append(PARAMETERS).append(") {\n");
+				writeDispatch(out, "state", "\t\t", ids);
+				out.append("\t}\n\n");
+			}
+		}
+
+		out.append(methods);
+
+		if (width > 0 && !machines.isEmpty()) {
+			// The same as Matcher#copyGroups, copying the row only if a tag
+			// actually changes
+			out.append("\tprivate static int copyGroups(SearchBuffers b, Match m, int row) {\n")
+					.append("\t\tboolean copied = false;\n")
+					.append("\t\tfor (int i = 1; i < m.groupCount(); i++) {\n")
+					.append("\t\t\tint s = m.start(i);\n")
+					.append("\t\t\tint e = m.end(i);\n")
+					.append("\t\t\tif (s < 0 || e < 0) {\n")
+					.append("\t\t\t\tcontinue;\n")
+					.append("\t\t\t}\n")
+					.append("\t\t\tint base = row * ").append(width)
+					.append(" + i * 2;\n")
+					.append("\t\t\tif (b.pool[base] != s || b.pool[base + 1] != e) {\n")
+					.append("\t\t\t\tif (!copied) {\n")
+					.append("\t\t\t\t\trow = b.copyRow(row, ").append(width)
+					.append(");\n")
+					.append("\t\t\t\t\tbase = row * ").append(width)
+					.append(" + i * 2;\n")
+					.append("\t\t\t\t\tcopied = true;\n")
+					.append("\t\t\t\t}\n")
+					.append("\t\t\t\tb.pool[base] = s;\n")
+					.append("\t\t\t\tb.pool[base + 1] = e;\n")
+					.append("\t\t\t}\n")
+					.append("\t\t}\n")
+					.append("\t\treturn row;\n")
+					.append("\t}\n\n");
+		}
+		return out.append("}\n").toString();
+	}
+}
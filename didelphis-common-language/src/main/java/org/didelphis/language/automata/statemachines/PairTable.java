@@ -0,0 +1,144 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+package org.didelphis.language.automata.statemachines;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Class {@code PairTable}
+ * <p>
+ * A reusable table keyed by pairs of non-negative integers, such as a state
+ * or sub-machine number and an index in the input. The table is open-addressed
+ * and records the slots it uses, so clearing it costs time proportional to the
+ * number of entries rather than its capacity. A table created without values
+ * stores only keys, and serves as a set of pairs.
+ *
+ * @param <V> the type of value stored for each pair
+ *
+ * @since 0.4.0
+ */
+class PairTable<V> {
+
+	private static final long EMPTY = -1L;
+
+	private final boolean hasValues;
+
+	private long[] keys;
+	private V[] values;
+	private int[] used;
+	private int size;
+
+	PairTable(int capacity, boolean hasValues) {
+		this.hasValues = hasValues;
+		allocate(capacity);
+	}
+
+	/**
+	 * @return the value stored for the pair, or null
+	 */
+	@Nullable
+	V get(int first, int second) {
+		long key = key(first, second);
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				return hasValues ? values[slot] : null;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Stores a value for the pair, replacing any value already present
+	 *
+	 * @return true iff the pair was not already present
+	 */
+	boolean put(int first, int second, @Nullable V value) {
+		if (size * 2 >= keys.length) {
+			grow();
+		}
+		return insert(key(first, second), value);
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			keys[used[i]] = EMPTY;
+			if (hasValues) {
+				values[used[i]] = null;
+			}
+		}
+		size = 0;
+	}
+
+	private boolean insert(long key, V value) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				if (hasValues) {
+					values[slot] = value;
+				}
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		if (hasValues) {
+			values[slot] = value;
+		}
+		used[size++] = slot;
+		return true;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		V[] oldValues = values;
+		int[] oldUsed = used;
+		int oldSize = size;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldSize; i++) {
+			int slot = oldUsed[i];
+			insert(oldKeys[slot], hasValues ? oldValues[slot] : null);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		if (hasValues) {
+			values = (V[]) new Object[capacity];
+		}
+		used = new int[capacity / 2];
+		size = 0;
+	}
+
+	private static long key(int first, int second) {
+		return ((long) first << 32) | (second & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,259 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import org.didelphis.language.automata.AutomatonInfo;
+import org.didelphis.language.automata.matching.BasicMatch;
+import org.didelphis.language.automata.matching.Match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility Class {@code ParallelSearch}
+ * <p>
+ * Implements {@link StateMachine#findParallel(Object, ForkJoinPool)} and
+ * {@link StateMachine#findAllParallel(Object, ForkJoinPool)} by dividing the
+ * start positions of the input into chunks which are searched concurrently.
+ * Every match attempt still sees the whole input, so anchors behave exactly as
+ * in a sequential search; chunking is only used when the maximum length of a
+ * match is bounded, so that a match can only extend a short way past the end
+ * of its chunk.
+ *
+ * @since 0.4.0
+ */
+@UtilityClass
+class ParallelSearch {
+
+	/**
+	 * Inputs with fewer than twice this many start positions are searched
+	 * sequentially; it is also the smallest chunk which will be created
+	 */
+	private final int MIN_CHUNK = 4096;
+
+	@NonNull
+	<S> Match<S> find(
+			@NonNull StateMachine<S> machine,
+			@NonNull S input,
+			@NonNull ForkJoinPool pool
+	) {
+		int length = machine.getParser().lengthOf(input);
+		int chunk = chunkSize(machine, length, pool);
+		if (chunk < 0) {
+			return machine.find(input);
+		}
+		AtomicInteger best = new AtomicInteger(length);
+		return pool.invoke(new FindTask<>(machine, input, 0, length, chunk, best));
+	}
+
+	@NonNull
+	<S> List<Match<S>> findAll(
+			@NonNull StateMachine<S> machine,
+			@NonNull S input,
+			@NonNull ForkJoinPool pool
+	) {
+		int length = machine.getParser().lengthOf(input);
+		int chunk = chunkSize(machine, length, pool);
+		if (chunk < 0) {
+			return machine.findAll(input);
+		}
+
+		// Each chunk is first scanned as though a match could begin at its
+		// first position; the true position is only known once the preceding
+		// chunk has been resolved
+		List<ForkJoinTask<Chunk<S>>> tasks = new ArrayList<>();
+		for (int from = 0; from < length; from += chunk) {
+			int to = Math.min(length, from + chunk);
+			int start = from;
+			tasks.add(pool.submit(() -> scan(machine, input, start, to)));
+		}
+
+		List<Match<S>> matches = new ArrayList<>();
+		int cursor = 0;
+		for (ForkJoinTask<Chunk<S>> task : tasks) {
+			Chunk<S> scanned = task.join();
+			cursor = resolve(machine, input, scanned, cursor, matches);
+		}
+		return matches;
+	}
+
+	/**
+	 * @return the number of start positions in each chunk, or {@code -1} if
+	 *      the input should be searched sequentially
+	 */
+	private int chunkSize(
+			@NonNull StateMachine<?> machine,
+			int length,
+			@NonNull ForkJoinPool pool
+	) {
+		AutomatonInfo<?> info = machine.getInfo();
+		if (!info.isBounded() || info.isStartAnchored() ||
+				length < 2 * MIN_CHUNK || pool.getParallelism() < 2) {
+			return -1;
+		}
+		int chunk = length / (pool.getParallelism() * 4);
+		return Math.max(chunk, Math.max(MIN_CHUNK, 4 * info.getMaxLength()));
+	}
+
+	/**
+	 * Searches the start positions of a chunk in the same way as
+	 * {@link StateMachine#findAll(Object)}, beginning at the chunk's first
+	 * position
+	 */
+	@NonNull
+	private <S> Chunk<S> scan(
+			@NonNull StateMachine<S> machine,
+			@NonNull S input,
+			int from,
+			int to
+	) {
+		List<Match<S>> matches = new ArrayList<>();
+		int i = from;
+		while (i < to) {
+			Match<S> match = machine.match(input, i);
+			if (match.matches()) {
+				matches.add(match);
+				i = next(match, i);
+			} else {
+				i++;
+			}
+		}
+		return new Chunk<>(from, i, matches);
+	}
+
+	/**
+	 * Adds the matches of a chunk to the output, given the position at which
+	 * the sequential search actually enters the chunk. Where that differs from
+	 * the chunk's first position, the search is continued sequentially until
+	 * it reaches a position which was also visited by the chunk's own scan;
+	 * from there on, the two are identical.
+	 *
+	 * @return the position at which the search leaves the chunk
+	 */
+	private <S> int resolve(
+			@NonNull StateMachine<S> machine,
+			@NonNull S input,
+			@NonNull Chunk<S> chunk,
+			int cursor,
+			@NonNull List<Match<S>> output
+	) {
+		int i = Math.max(cursor, chunk.from);
+		int index = 0;
+		List<Match<S>> matches = chunk.matches;
+		while (i < chunk.exit) {
+			// skip matches of the scan which begin before the current position
+			while (index < matches.size() && matches.get(index).start() < i) {
+				index++;
+			}
+			// the scan visited every position except those inside its matches
+			int previous = index - 1;
+			if (previous < 0 || i >= matches.get(previous).end()) {
+				output.addAll(matches.subList(index, matches.size()));
+				return chunk.exit;
+			}
+			Match<S> match = machine.match(input, i);
+			if (match.matches()) {
+				output.add(match);
+				i = next(match, i);
+			} else {
+				i++;
+			}
+		}
+		return i;
+	}
+
+	private int next(@NonNull Match<?> match, int index) {
+		return match.end() > index ? match.end() : index + 1;
+	}
+
+	private static final class Chunk<S> {
+
+		private final int from;
+		private final int exit;
+		private final List<Match<S>> matches;
+
+		private Chunk(int from, int exit, List<Match<S>> matches) {
+			this.from = from;
+			this.exit = exit;
+			this.matches = matches;
+		}
+	}
+
+	/**
+	 * Finds the leftmost match in a range of start positions, splitting the
+	 * range until it is no larger than the chunk size. The position of the
+	 * leftmost match found so far is shared, so that ranges to its right can
+	 * stop early.
+	 */
+	private static final class FindTask<S> extends RecursiveTask<Match<S>> {
+
+		private static final long serialVersionUID = 3761946205314482907L;
+
+		private final StateMachine<S> machine;
+		private final S input;
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final AtomicInteger best;
+
+		private FindTask(
+				StateMachine<S> machine,
+				S input,
+				int from,
+				int to,
+				int chunk,
+				AtomicInteger best
+		) {
+			this.machine = machine;
+			this.input = input;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.best = best;
+		}
+
+		@Override
+		protected Match<S> compute() {
+			if (to - from > chunk) {
+				int middle = from + (to - from) / 2;
+				FindTask<S> right = new FindTask<>(machine, input, middle, to, chunk, best);
+				right.fork();
+				Match<S> match = new FindTask<>(machine, input, from, middle, chunk, best).compute();
+				Match<S> other = right.join();
+				return match.matches() ? match : other;
+			}
+			for (int i = from; i < to && i < best.get(); i++) {
+				Match<S> match = machine.match(input, i);
+				if (match.matches()) {
+					best.accumulateAndGet(i, Math::min);
+					return match;
+				}
+			}
+			return BasicMatch.empty(0);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+
+import org.didelphis.structures.graph.Arc;
+import org.didelphis.structures.graph.Graph;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class {@code Program}
+ * <p>
+ * The states and arcs of a {@link StandardStateMachine}, numbered and stored
+ * in arrays so that a {@link Matcher} can run the machine without looking up
+ * state ids in maps. States are numbered in the order they are reached from
+ * the start state, which is state zero, and the arcs of each state are kept
+ * in the same order as in the machine's graph.
+ *
+ * @param <S> the type of input matched by the machine
+ *
+ * @since 0.4.0
+ */
+final class Program<S> {
+
+	private final int groupCount;
+	private final boolean empty;
+
+	private final boolean[] accepting;
+	private final StateMachine<S>[] machines;
+	private final int[] machineIds;
+	private final int machineCount;
+	private final int[] startGroups;
+	private final int[] endGroups;
+
+	// Arcs leaving each state, or null if the state is not a key in the graph
+	private final Arc<S>[][] arcs;
+	private final int[][][] targets;
+
+	@SuppressWarnings("unchecked")
+	Program(@NonNull StandardStateMachine<S> machine) {
+		Graph<S> graph = machine.getGraph();
+		groupCount = machine.getGroups().size();
+		empty = graph.isEmpty();
+
+		Map<String, Integer> ids = new LinkedHashMap<>();
+		List<String> states = new ArrayList<>();
+		ids.put(machine.getStartStateId(), 0);
+		states.add(machine.getStartStateId());
+		for (int i = 0; i < states.size(); i++) {
+			Map<Arc<S>, Collection<String>> map = graph.get(states.get(i));
+			if (map == null) {
+				continue;
+			}
+			for (Collection<String> value : map.values()) {
+				for (String target : value) {
+					if (!ids.containsKey(target)) {
+						ids.put(target, states.size());
+						states.add(target);
+					}
+				}
+			}
+		}
+
+		int size = states.size();
+		accepting = new boolean[size];
+		machines = (StateMachine<S>[]) new StateMachine<?>[size];
+		machineIds = new int[size];
+		Map<StateMachine<S>, Integer> machineMap = new IdentityHashMap<>();
+		startGroups = new int[size];
+		endGroups = new int[size];
+		arcs = (Arc<S>[][]) new Arc<?>[size][];
+		targets = new int[size][][];
+
+		for (int i = 0; i < size; i++) {
+			String state = states.get(i);
+			accepting[i] = machine.getAcceptingStates().contains(state);
+			machines[i] = machine.getMachinesMap().get(state);
+			machineIds[i] = machines[i] == null
+					? -1
+					: machineMap.computeIfAbsent(machines[i], k -> machineMap.size());
+			startGroups[i] = machine.getStartNodes().getOrDefault(state, -1);
+			endGroups[i] = machine.getEndNodes().getOrDefault(state, -1);
+
+			if (!graph.containsFirstKey(state)) {
+				continue;
+			}
+			Map<Arc<S>, Collection<String>> map = graph.get(state);
+			arcs[i] = (Arc<S>[]) new Arc<?>[map.size()];
+			targets[i] = new int[map.size()][];
+			int a = 0;
+			for (Map.Entry<Arc<S>, Collection<String>> entry : map.entrySet()) {
+				Collection<String> value = entry.getValue();
+				int[] array = new int[value.size()];
+				int t = 0;
+				for (String target : value) {
+					array[t++] = ids.get(target);
+				}
+				arcs[i][a] = entry.getKey();
+				targets[i][a] = array;
+				a++;
+			}
+		}
+		machineCount = machineMap.size();
+	}
+
+	/**
+	 * @return the number of capture groups, including group zero
+	 */
+	int groupCount() {
+		return groupCount;
+	}
+
+	/**
+	 * @return true iff the machine has no capture groups other than group
+	 *      zero, in which case the result of a match depends only on its end,
+	 *      and not on which path through the machine reached it
+	 */
+	boolean isCaptureFree() {
+		return groupCount <= 1;
+	}
+
+	/**
+	 * @return true iff the machine has no states, and matches the empty string
+	 *      at the start of any input
+	 */
+	boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * @return the number of states reachable from the start state
+	 */
+	int stateCount() {
+		return accepting.length;
+	}
+
+	boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	/**
+	 * @return the negated sub-machine which must match on entering the state,
+	 *      if any
+	 */
+	@Nullable
+	StateMachine<S> getMachine(int state) {
+		return machines[state];
+	}
+
+	/**
+	 * @return a number identifying the sub-machine of the state, the same for
+	 *      every state which uses the same machine, or -1 if it has none
+	 */
+	int getMachineId(int state) {
+		return machineIds[state];
+	}
+
+	/**
+	 * @return the number of distinct sub-machines
+	 */
+	int machineCount() {
+		return machineCount;
+	}
+
+	/**
+	 * @return the group which starts at the state, or -1
+	 */
+	int getStartGroup(int state) {
+		return startGroups[state];
+	}
+
+	/**
+	 * @return the group which ends at the state, or -1
+	 */
+	int getEndGroup(int state) {
+		return endGroups[state];
+	}
+
+	@Nullable
+	Arc<S>[] getArcs(int state) {
+		return arcs[state];
+	}
+
+	@Nullable
+	int[][] getTargets(int state) {
+		return targets[state];
+	}
+}
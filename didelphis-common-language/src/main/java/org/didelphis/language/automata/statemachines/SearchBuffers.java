@@ -0,0 +1,223 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Class {@code SearchBuffers}
+ * <p>
+ * The scratch state used to run a {@link Program}: the current and next
+ * search frontiers, the pool of tag rows shared between cursors, and the set
+ * of visited cursors used for machines without groups. The buffers grow to fit
+ * the largest search they have been used for, and can then be reused without
+ * allocating.
+ * <p>
+ * The buffers hold no reference to any machine or input, so that they can be
+ * kept for reuse by each thread (see {@link #take()}) without keeping the
+ * machines which used them reachable.
+ *
+ * @since 0.4.0
+ */
+final class SearchBuffers {
+
+	static final int INITIAL_SIZE = 16;
+
+	// Idle buffers for each thread; a search takes them for its duration, so
+	// a nested search on the same thread, as run by a sub-machine, creates
+	// its own
+	private static final ThreadLocal<SearchBuffers> IDLE = new ThreadLocal<>();
+
+	// Current and next search frontiers
+	int[] states;
+	int[] indices;
+	int[] nextStates;
+	int[] nextIndices;
+	int nextSize;
+
+	// The tags of each cursor are a row of the pool, shared with the cursor's
+	// parent and siblings until a group boundary is written, when the row is
+	// copied; rows no longer used by any cursor are reclaimed by compaction
+	int[] rows;
+	int[] nextRows;
+	int[] pool;
+	int poolRows;
+	private int[] spare;
+	private int[] remap;
+
+	// States already visited at each index, for machines without groups
+	final CursorSet visited;
+
+	// The end of the best match found by the current search, and the tags of
+	// the cursor which found it, for searches which record them here (see
+	// #accept(int, int, int))
+	int bestEnd;
+	int[] bestTags;
+
+	SearchBuffers() {
+		states = new int[INITIAL_SIZE];
+		indices = new int[INITIAL_SIZE];
+		nextStates = new int[INITIAL_SIZE];
+		nextIndices = new int[INITIAL_SIZE];
+		rows = new int[INITIAL_SIZE];
+		nextRows = new int[INITIAL_SIZE];
+		pool = new int[INITIAL_SIZE];
+		spare = new int[INITIAL_SIZE];
+		remap = new int[INITIAL_SIZE];
+		visited = new CursorSet();
+		bestTags = new int[INITIAL_SIZE];
+	}
+
+	/**
+	 * @return the idle buffers of the current thread, which are removed until
+	 *      they are returned by {@link #release()}, or new buffers if there
+	 *      are none; not null
+	 */
+	@NonNull
+	static SearchBuffers take() {
+		SearchBuffers buffers = IDLE.get();
+		if (buffers == null) {
+			return new SearchBuffers();
+		}
+		IDLE.remove();
+		return buffers;
+	}
+
+	/**
+	 * Returns these buffers to the current thread for reuse by its next search
+	 */
+	void release() {
+		visited.clear();
+		IDLE.set(this);
+	}
+
+	/**
+	 * Starts a new search with a single cursor at the start state and index
+	 *
+	 * @param width the number of tags of each cursor, which may be zero
+	 */
+	void start(int start, int width) {
+		visited.clear();
+		visited.add(0, start);
+		poolRows = 0;
+		int root = allocateRow(width);
+		Arrays.fill(pool, root * width, root * width + width, -1);
+		states[0] = 0;
+		indices[0] = start;
+		rows[0] = root;
+		nextSize = 0;
+		bestEnd = -1;
+		if (bestTags.length < width) {
+			bestTags = new int[width];
+		}
+	}
+
+	/**
+	 * Adds a cursor to the next frontier
+	 */
+	void push(int state, int index, int row) {
+		if (nextSize == nextStates.length) {
+			int capacity = nextSize * 2;
+			nextStates = Arrays.copyOf(nextStates, capacity);
+			nextIndices = Arrays.copyOf(nextIndices, capacity);
+			nextRows = Arrays.copyOf(nextRows, capacity);
+		}
+		nextStates[nextSize] = state;
+		nextIndices[nextSize] = index;
+		nextRows[nextSize] = row;
+		nextSize++;
+	}
+
+	/**
+	 * Makes the next frontier current, and clears the next frontier
+	 *
+	 * @return the size of the new current frontier
+	 */
+	int swap(int width) {
+		int[] swapStates = states;
+		int[] swapIndices = indices;
+		int[] swapRows = rows;
+		states = nextStates;
+		indices = nextIndices;
+		rows = nextRows;
+		nextStates = swapStates;
+		nextIndices = swapIndices;
+		nextRows = swapRows;
+		int size = nextSize;
+		nextSize = 0;
+		if (width > 0 && poolRows > 2 * size + INITIAL_SIZE) {
+			compact(size, width);
+		}
+		return size;
+	}
+
+	/**
+	 * Records a match ending at the provided index, found by a cursor whose
+	 * tags are the provided row
+	 */
+	void accept(int end, int row, int width) {
+		bestEnd = end;
+		System.arraycopy(pool, row * width, bestTags, 0, width);
+	}
+
+	int allocateRow(int width) {
+		if ((poolRows + 1) * width > pool.length) {
+			pool = Arrays.copyOf(pool, Math.max(pool.length * 2, width));
+		}
+		return poolRows++;
+	}
+
+	int copyRow(int row, int width) {
+		int copy = allocateRow(width);
+		System.arraycopy(pool, row * width, pool, copy * width, width);
+		return copy;
+	}
+
+	/**
+	 * Moves the rows used by the current frontier to the front of the pool,
+	 * discarding the rest; this is done only once the pool holds more unused
+	 * rows than used ones, so its cost is covered by the copies which filled
+	 * the pool in the first place.
+	 */
+	private void compact(int size, int width) {
+		if (spare.length < pool.length) {
+			spare = new int[pool.length];
+		}
+		if (remap.length < poolRows) {
+			remap = new int[pool.length / width];
+		}
+		Arrays.fill(remap, 0, poolRows, -1);
+		int count = 0;
+		for (int c = 0; c < size; c++) {
+			int row = rows[c];
+			if (remap[row] < 0) {
+				System.arraycopy(pool, row * width, spare, count * width, width);
+				remap[row] = count++;
+			}
+			rows[c] = remap[row];
+		}
+		int[] swapPool = pool;
+		pool = spare;
+		spare = swapPool;
+		poolRows = count;
+	}
+}
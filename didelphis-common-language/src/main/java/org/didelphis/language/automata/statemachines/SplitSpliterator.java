@@ -0,0 +1,99 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import lombok.NonNull;
+
+import org.didelphis.language.automata.parsing.LanguageParser;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Class {@code SplitSpliterator}
+ * <p>
+ * Produces the pieces of an input split around the matches of a
+ * {@link StateMachine}, in order, searching for each match only when the next
+ * piece is requested. The pieces are the same as those returned by
+ * {@link StateMachine#split(Object)}.
+ * <p>
+ * The estimated size is an upper bound: an input of length {@code n} is split
+ * into at most {@code n + 1} pieces, and the estimate shrinks as the input is
+ * consumed.
+ *
+ * @param <S> the type of input being split
+ *
+ * @since 0.4.0
+ */
+final class SplitSpliterator<S> implements Spliterator<S> {
+
+	private final LanguageParser<S> parser;
+	private final Matcher<S> matcher;
+	private final S input;
+	private final int length;
+
+	// The start of the next piece, or -1 once the last piece has been produced
+	private int cursor;
+
+	SplitSpliterator(@NonNull StateMachine<S> machine, @NonNull S input) {
+		this.input = input;
+		parser = machine.getParser();
+		matcher = machine.matcher(input);
+		length = parser.lengthOf(input);
+	}
+
+	@Override
+	public boolean tryAdvance(@NonNull Consumer<? super S> action) {
+		if (cursor < 0) {
+			return false;
+		}
+		S piece;
+		if (matcher.find()) {
+			piece = parser.subSequence(input, cursor, matcher.start());
+			cursor = matcher.end();
+		} else {
+			piece = parser.subSequence(input, cursor, length);
+			cursor = -1;
+		}
+		action.accept(piece);
+		return true;
+	}
+
+	/**
+	 * Splitting would require searching the input for a match, which is
+	 * the work this spliterator defers; it is not split.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public Spliterator<S> trySplit() {
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return cursor < 0 ? 0 : length - cursor + 1;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL;
+	}
+}
@@ -20,16 +20,19 @@
 package org.didelphis.language.automata.statemachines;
 
 import lombok.AccessLevel;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.expressions.Expression;
+import org.didelphis.language.automata.expressions.ExpressionOptimizer;
 import org.didelphis.language.automata.matching.BasicMatch;
 import org.didelphis.language.automata.matching.Match;
 import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.language.automata.parsing.SequenceBuilder;
 import org.didelphis.structures.graph.Arc;
 import org.didelphis.structures.graph.Graph;
 import org.didelphis.structures.maps.interfaces.MultiMap;
@@ -43,24 +46,42 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
-@EqualsAndHashCode
+@EqualsAndHashCode(exclude = "program")
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public final class StandardStateMachine<S> implements StateMachine<S> {
 
 	LanguageParser<S> parser;
 
 	String id;
+	@Getter(AccessLevel.PACKAGE)
 	String startStateId;
+	@Getter(AccessLevel.PACKAGE)
 	Collection<String> acceptingStates;
+	@Getter(AccessLevel.PACKAGE)
 	Map<String, StateMachine<S>> machinesMap;
 
+	@Getter(AccessLevel.PACKAGE)
 	List<Tuple<String, String>> groups;
 
+	// Node IDs at which each capture group starts or ends
+	@Getter(AccessLevel.PACKAGE)
+	Map<String, Integer> startNodes;
+	@Getter(AccessLevel.PACKAGE)
+	Map<String, Integer> endNodes;
+
 	// {String (Node ID), Sequence (Arc)} --> String (Node ID)
+	@Getter(AccessLevel.PACKAGE)
 	Graph<S> graph;
 
+	AutomatonInfo<S> info;
+
+	// The machine in the form run by a Matcher
+	Program<S> program;
+
 	@NonNull
 	public static <T> StateMachine<T> create(
 			@NonNull String id,
@@ -70,9 +91,7 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		if (expression.isEmpty()) {
 			return new EmptyMachine<>(id, parser);
 		} else {
-			return new StandardStateMachine<>(id,
-					parser.parseExpression(expression),
-					parser);
+			return create(id, parser.parseExpression(expression), parser);
 		}
 	}
 
@@ -81,11 +100,12 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 			@NonNull String id,
 			@NonNull Expression expression,
 			@NonNull LanguageParser<T> parser) {
+		Expression optimized = ExpressionOptimizer.optimize(expression, parser);
 		//noinspection IfMayBeConditional
-		if (!expression.hasChildren() && expression.getTerminal().isEmpty()) {
+		if (!optimized.hasChildren() && optimized.getTerminal().isEmpty()) {
 			return new EmptyMachine<>(id, parser);
 		} else {
-			return new StandardStateMachine<>(id, expression, parser);
+			return new StandardStateMachine<>(id, optimized, parser);
 		}
 	}
 
@@ -116,6 +136,13 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		List<Expression> list = Collections.singletonList(expression);
 		String state = parse(0, startStateId, "Z", list, captures);
 		acceptingStates.add(state);
+
+		info = ExpressionAnalyzer.analyze(expression, parser);
+
+		startNodes = indexGroups(groups, true);
+		endNodes = indexGroups(groups, false);
+
+		program = new Program<>(this);
 	}
 
 	private StandardStateMachine(
@@ -142,6 +169,13 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		List<Expression> list = Collections.singletonList(expression);
 		String endState = parse(0, startStateId, "Z", list, captures);
 		acceptingStates.add(endState);
+
+		info = ExpressionAnalyzer.analyze(expression, parser);
+
+		startNodes = indexGroups(groups, true);
+		endNodes = indexGroups(groups, false);
+
+		program = new Program<>(this);
 	}
 
 	@NonNull
@@ -153,118 +187,29 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 	@NonNull
 	@Override
 	public Match<S> match(@NonNull S input, int start) {
-
-		if (graph.isEmpty()) {
-			return new BasicMatch<>(input, 0, 0);
+		// The matcher is created for this call only, and runs on the idle
+		// buffers of the current thread, which hold no reference back to
+		// this machine
+		Matcher<S> matcher = new Matcher<>(this, program, input,
+				SearchBuffers.take());
+		try {
+			matcher.lookingAt(start);
+			return matcher.toMatch();
+		} finally {
+			matcher.release();
 		}
+	}
 
-		// Variables for managing capture groups
-		Map<String, Integer> startNodes = new HashMap<>();
-		Map<String, Integer> endNodes = new HashMap<>();
-
-		for (int i = 0; i < groups.size(); i++) {
-			Tuple<String, String> tuple = groups.get(i);
-			if (tuple != null) {
-				startNodes.put(tuple.getLeft(), i);
-				endNodes.put(tuple.getRight(), i);
-			}
-		}
-
-		List<Cursor> cursorSwap = new ArrayList<>();
-		List<Cursor> cursorList = new ArrayList<>();
-		// Start here
-		cursorList.add(new Cursor(start, startStateId, groups.size()));
-
-		List<Match<S>> matches = new ArrayList<>();
-		while (!cursorList.isEmpty()) {
-			for (Cursor cursor : cursorList) {
-
-				String currentNode = cursor.getNode();
-				int index = cursor.getIndex();
-
-				if (machinesMap.containsKey(currentNode) && index >= 0) {
-					StateMachine<S> machine = machinesMap.get(currentNode);
-					Match<S> match = machine.match(input, index);
-					int end = match.end();
-					if (end >= 0) {
-						cursor.setIndex(end);
-						// copy valid groups from the match to the cursor
-						for (int i = 1; i < match.groupCount(); i++) {
-							int start1 = match.start(i);
-							int end1 = match.end(i);
-							// don't overwrite existing groups with non-matched
-							if (start1 >= 0 && end1 >= 0) {
-								cursor.setGroupStart(i, start1);
-								cursor.setGroupEnd(i, end1);
-							}
-						}
-					} else {
-						continue;
-					}
-				}
-
-				if (acceptingStates.contains(currentNode)) {
-					int end = cursor.getIndex();
-					S seq = parser.subSequence(input, start, end);
-					BasicMatch<S> match = new BasicMatch<>(seq, start, end);
-
-					// Add special group zero
-					match.addGroup(0, end, seq);
-
-					for (int i = 1; i < groups.size(); i++) {
-						int gStart = cursor.getGroupStart(i);
-						int gEnd = cursor.getGroupEnd(i);
-						if (gStart < 0 || gEnd < 0 || (gStart == gEnd)) {
-							match.addGroup(-1, -1, null);
-						} else {
-							S sub = parser.subSequence(input, gStart, gEnd);
-							match.addGroup(gStart, gEnd, sub);
-						}
-					}
-					matches.add(match);
-				}
-
-				// This check is done because not all nodes are keys in the
-				// graph; if a node is terminal, with no outgoing arcs, then
-				// the node will not be a key in the graph
-				if (graph.containsFirstKey(currentNode)) {
-					if (cursor.getIndex() > parser.lengthOf(input)) {
-						continue;
-					}
-
-					// update captures
-					if (startNodes.containsKey(currentNode)) {
-						int group = startNodes.get(currentNode);
-						if (cursor.getGroupStart(group) == -1) {
-							cursor.setGroupStart(group, index);
-						}
-					}
-
-					List<Cursor> cursors = checkNode(input, cursor);
-					for (Cursor aCursor : cursors) {
-						String node = aCursor.getNode();
-						if (endNodes.containsKey(node)) {
-							int group = endNodes.get(node);
-							if (cursor.getGroupEnd(group) == -1) {
-								int end = aCursor.getIndex();
-								aCursor.setGroupEnd(group, end);
-							}
-						}
-					}
-					cursorSwap.addAll(cursors);
-				}
-			}
-			cursorList = cursorSwap;
-			cursorSwap = new ArrayList<>();
-		}
+	@NonNull
+	@Override
+	public Matcher<S> matcher(@NonNull S input) {
+		return new Matcher<>(this, program, input);
+	}
 
-		Match<S> best = BasicMatch.empty(groups.size());
-		for (Match<S> match : matches) {
-			if (match.end() > best.end()) {
-				best = match;
-			}
-		}
-		return best;
+	@NonNull
+	@Override
+	public AutomatonInfo<S> getInfo() {
+		return info;
 	}
 
 	@Override
@@ -277,46 +222,6 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		return id;
 	}
 
-	/**
-	 * Evaluates the inputs against the arcs leaving the current node and if
-	 * successful, will add to the output indices
-	 *
-	 * @param input the input data being consumed by this automaton
-	 * @param cursor a {@link Cursor} object which store the current node and
-	 *      its associated position in the input
-	 *
-	 * @return a collection of new states
-	 */
-	@NonNull
-	private List<Cursor> checkNode(
-			S input,
-			Cursor cursor
-	) {
-		String currentNode = cursor.getNode();
-		int index = cursor.getIndex();
-
-		List<Cursor> cursors = new ArrayList<>();
-		Map<Arc<S>, Collection<String>> map = graph.get(currentNode);
-		for (Entry<Arc<S>, Collection<String>> entry : map.entrySet()) {
-			Arc<S> arc = entry.getKey();
-			Collection<String> value = entry.getValue();
-			for (String node : value) {
-				int newIndex = arc.match(input, index);
-				if (newIndex >= 0) {
-					cursors.add(new Cursor(newIndex, node, groups.size()));
-				}
-			}
-		}
-
-		for (Cursor aCursor : cursors) {
-			for (int i = 0; i < groups.size(); i++) {
-				aCursor.setGroupStart(i, cursor.getGroupStart(i));
-				aCursor.setGroupEnd(i, cursor.getGroupEnd(i));
-			}
-		}
-		return cursors;
-	}
-
 	/**
 	 * The primary parse function converting an {@link Expression} tree into the
 	 * corresponding state machine.
@@ -363,11 +268,9 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 			graph.add(previous, parser.epsilon(), current);
 			if (expression.hasChildren()) {
 				if (expression.isParallel()) {
-					String node = makeParallel(nodeId,
-							current,
-							expression,
-							captures
-					);
+					String node = isTerminalAlternation(expression, captures)
+							? makeAlternation(current, expression)
+							: makeParallel(nodeId, current, expression, captures);
 					previous = makeGroup(current, node, meta);
 				} else {
 					List<Expression> children = expression.getChildren();
@@ -417,6 +320,48 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		return output;
 	}
 
+	/**
+	 * Connects the start node to a single output node using the arcs provided
+	 * by {@link LanguageParser#getAlternationArcs(List)}, rather than building
+	 * separate states for each branch
+	 */
+	@NonNull
+	private String makeAlternation(String start, Expression expression) {
+		List<String> terminals = new ArrayList<>();
+		for (Expression child : expression.getChildren()) {
+			terminals.add(child.getTerminal());
+		}
+		String output = start + "-Out";
+		for (Arc<S> arc : parser.getAlternationArcs(terminals)) {
+			graph.add(start, arc, output);
+		}
+		return output;
+	}
+
+	/**
+	 * Determines if an alternation consists only of plain terminals, so that
+	 * it can be built with {@link #makeAlternation(String, Expression)}. This
+	 * is not done in the presence of capture groups because, when several
+	 * paths match the same span, the groups reported are those of whichever
+	 * path reaches the accepting state first.
+	 */
+	private static boolean isTerminalAlternation(
+			Expression expression,
+			List<Expression> captures
+	) {
+		if (captures.size() > 1) {
+			return false;
+		}
+		for (Expression child : expression.getChildren()) {
+			if (!child.isTerminal() || child.isNegative() ||
+					!child.getQuantifier().isEmpty() ||
+					child.getTerminal().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void createNegative(
 			Expression expression,
 			String machineNode,
@@ -506,6 +451,21 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 		return end;
 	}
 
+	@NonNull
+	private static Map<String, Integer> indexGroups(
+			List<Tuple<String, String>> groups,
+			boolean start
+	) {
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < groups.size(); i++) {
+			Tuple<String, String> tuple = groups.get(i);
+			if (tuple != null) {
+				map.put(start ? tuple.getLeft() : tuple.getRight(), i);
+			}
+		}
+		return map;
+	}
+
 	private static void populateCaptures(
 			Expression expression,
 			List<Expression> captures
@@ -668,6 +628,12 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 			return new BasicMatch<>(input, start, start);
 		}
 
+		@NonNull
+		@Override
+		public AutomatonInfo<S> getInfo() {
+			return AutomatonInfo.literal(parser.transform(""), parser);
+		}
+
 		@NonNull
 		@Override
 		public List<S> split(@NonNull S input, int limit) {
@@ -680,56 +646,27 @@ public final class StandardStateMachine<S> implements StateMachine<S> {
 
 		@NonNull
 		@Override
-		public S replace(@NonNull S input, @NonNull S replacement) {
+		public Stream<S> splitAsStream(@NonNull S input) {
+			return IntStream.range(0, parser.lengthOf(input))
+					.mapToObj(i -> parser.subSequence(input, i, i + 1));
+		}
+
+		@NonNull
+		@Override
+		public S replace(
+				@NonNull S input,
+				@NonNull Function<? super Match<S>, ? extends S> replacer
+		) {
 			int size = parser.lengthOf(input);
-			S sequence = parser.transform("");
+			SequenceBuilder<S> builder = parser.newBuilder();
 			for (int i = 0; i < size; i++) {
-				S q = parser.subSequence(input, i, i + 1);
-				sequence = parser.concatenate(sequence, q);
+				builder.append(input, i, i + 1);
 				if (i < size - 1) {
-					sequence = parser.concatenate(sequence, replacement);
+					builder.append(replacer.apply(match(input, i + 1)));
 				}
 			}
-			return sequence;
-		}
-	}
-
-	@Data
-	@FieldDefaults(level = AccessLevel.PRIVATE)
-	private static final class Cursor {
-
-		final int[] groupStart;
-		final int[] groupEnd ;
-		int index;
-		String node;
-
-		private Cursor(int index, String node, int size) {
-			this.index = index;
-			this.node = node;
-
-			groupStart = new int[size];
-			groupEnd   = new int[size];
-
-			for (int i = 0; i < size; i++) {
-				groupStart[i] = -1;
-				groupEnd[i]   = -1;
-			}
+			return builder.build();
 		}
 
-		private void setGroupStart(int group, int index) {
-			groupStart[group] = index;
-		}
-
-		private void setGroupEnd(int group, int index) {
-			groupEnd[group] = index;
-		}
-
-		private int getGroupStart(int group) {
-			return groupStart[group];
-		}
-
-		private int getGroupEnd(int group) {
-			return groupEnd[group];
-		}
 	}
 }
@@ -22,12 +22,19 @@ package org.didelphis.language.automata.statemachines;
 import lombok.NonNull;
 
 import org.didelphis.language.automata.Automaton;
+import org.didelphis.language.automata.AutomatonInfo;
 import org.didelphis.language.automata.matching.BasicMatch;
 import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
 import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.language.automata.parsing.SequenceBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Interface {@code StateMachine}
@@ -44,33 +51,52 @@ public interface StateMachine<S> extends Automaton<S> {
 	@NonNull
 	@Override
 	default S replace(@NonNull S input, @NonNull S replacement) {
-		LanguageParser<S> parser = getParser();
-
-		 S sequence = parser.transform("");
-		int size = parser.lengthOf(input);
-		int cursor = 0;
-		int i = 0;
-		while (i < size) {
-			Match<S> match = match(input, i);
-			if (match.matches()) {
+		return replace(input, getParser().compileReplacement(replacement));
+	}
 
-				// Append non-matched
-				S subSequence = parser.subSequence(input, cursor, i);
-				sequence = parser.concatenate(sequence, subSequence);
+	/**
+	 * Replaces each successive match in the input with the value computed
+	 * from it by the provided function, such as a compiled
+	 * {@link org.didelphis.language.automata.matching.Replacement}. The match
+	 * passed to the function is only valid for the duration of the call; use
+	 * {@link Matcher#toMatch()} to retain it.
+	 *
+	 * @param input the input in which to replace matches; not null
+	 * @param replacer a function producing the replacement for each match;
+	 *      not null
+	 *
+	 * @return a new sequence with each match replaced; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	@SuppressWarnings("unchecked")
+	default S replace(
+			@NonNull S input,
+			@NonNull Function<? super Match<S>, ? extends S> replacer
+	) {
+		LanguageParser<S> parser = getParser();
+		SequenceBuilder<S> builder = parser.newBuilder();
 
-				// Handle group references in replacement
-				S newReplacement = parser.replaceGroups(replacement, match);
-				sequence = parser.concatenate(sequence, newReplacement);
+		// Compiled templates are appended without creating their groups
+		Replacement<S> replacement = replacer instanceof Replacement
+				? (Replacement<S>) (Function<?, ?>) replacer
+				: null;
 
-				i = match.end();
-				cursor = i;
+		int cursor = 0;
+		Matcher<S> matcher = matcher(input);
+		while (matcher.find()) {
+			// Append non-matched
+			builder.append(input, cursor, matcher.start());
+			if (replacement == null) {
+				builder.append(replacer.apply(matcher));
 			} else {
-				i++;
+				replacement.appendTo(builder, input, matcher);
 			}
+			cursor = matcher.end();
 		}
-
-		S tail = parser.subSequence(input, cursor, size);
-		return parser.concatenate(sequence, tail);
+		builder.append(input, cursor, parser.lengthOf(input));
+		return builder.build();
 	}
 
 	@NonNull
@@ -79,39 +105,133 @@ public interface StateMachine<S> extends Automaton<S> {
 		List<S> list = new ArrayList<>();
 
 		LanguageParser<S> parser = getParser();
-		int length = parser.lengthOf(input);
-		int i = 0;
 		int cursor = 0;
-
-		while ((limit == -1 || list.size() < limit) && i < length) {
-			Match<S> match = match(input, i);
-			int end = match.end();
-			if (end >= 0) {
-				S sequence = parser.subSequence(input, cursor, i);
-				list.add(sequence);
-				cursor = end;
-				i = cursor;
-			} else {
-				i++;
-			}
-		}
-		if (cursor <= length) {
-			list.add(parser.subSequence(input, cursor, length));
+		Matcher<S> matcher = matcher(input);
+		while ((limit == -1 || list.size() < limit) && matcher.find()) {
+			list.add(parser.subSequence(input, cursor, matcher.start()));
+			cursor = matcher.end();
 		}
+		list.add(parser.subSequence(input, cursor, parser.lengthOf(input)));
 		return list;
 	}
 
+	@NonNull
+	@Override
+	default Stream<S> splitAsStream(@NonNull S input) {
+		return StreamSupport.stream(new SplitSpliterator<>(this, input), false);
+	}
+
 	@NonNull
 	@Override
 	default Match<S> find(@NonNull S input) {
-		int length = getParser().lengthOf(input);
-		for (int i = 0; i < length; i++) {
-			Match<S> match = match(input, i);
-			if (match.matches()) {
-				return match;
-			}
+		Matcher<S> matcher = matcher(input);
+		return matcher.find() ? matcher.toMatch() : BasicMatch.empty(0);
+	}
+
+	/**
+	 * Finds each successive match in the input: the search resumes at the end
+	 * of each match, or at the following position if a match was empty.
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return a list of the matches found, in order; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<Match<S>> findAll(@NonNull S input) {
+		List<Match<S>> list = new ArrayList<>();
+		Matcher<S> matcher = matcher(input);
+		while (matcher.find()) {
+			list.add(matcher.toMatch());
 		}
-		return BasicMatch.empty(0);
+		return list;
+	}
+
+	/**
+	 * Creates a reusable {@link Matcher} for this machine. The default
+	 * implementation produces a matcher which calls
+	 * {@link #match(Object, int)} for each attempt.
+	 *
+	 * @param input the initial input of the matcher; not null
+	 *
+	 * @return a new matcher; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default Matcher<S> matcher(@NonNull S input) {
+		return new Matcher<>(this, null, input);
+	}
+
+	/**
+	 * Equivalent to {@link #find(Object)}, but divides long inputs into chunks
+	 * which are searched concurrently using the common {@link ForkJoinPool}.
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return the same match as would be returned by {@link #find(Object)}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default Match<S> findParallel(@NonNull S input) {
+		return findParallel(input, ForkJoinPool.commonPool());
 	}
 
+	/**
+	 * Equivalent to {@link #find(Object)}, but divides long inputs into chunks
+	 * which are searched concurrently. Chunking is only used if the maximum
+	 * length of a match is bounded (see {@link AutomatonInfo#isBounded()});
+	 * otherwise, or for short inputs, the input is searched sequentially.
+	 *
+	 * @param input the input to be searched
+	 * @param pool the pool in which to run the search
+	 *
+	 * @return the same match as would be returned by {@link #find(Object)}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default Match<S> findParallel(@NonNull S input, @NonNull ForkJoinPool pool) {
+		return ParallelSearch.find(this, input, pool);
+	}
+
+	/**
+	 * Equivalent to {@link #findAll(Object)}, but divides long inputs into
+	 * chunks which are searched concurrently using the common
+	 * {@link ForkJoinPool}.
+	 *
+	 * @param input the input to be searched
+	 *
+	 * @return the same matches as would be returned by {@link #findAll(Object)}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<Match<S>> findAllParallel(@NonNull S input) {
+		return findAllParallel(input, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Equivalent to {@link #findAll(Object)}, but divides long inputs into
+	 * chunks which are searched concurrently. Chunking is only used if the
+	 * maximum length of a match is bounded (see
+	 * {@link AutomatonInfo#isBounded()}); otherwise, or for short inputs, the
+	 * input is searched sequentially.
+	 *
+	 * @param input the input to be searched
+	 * @param pool the pool in which to run the search
+	 *
+	 * @return the same matches as would be returned by {@link #findAll(Object)}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<Match<S>> findAllParallel(
+			@NonNull S input,
+			@NonNull ForkJoinPool pool
+	) {
+		return ParallelSearch.findAll(this, input, pool);
+	}
 }
@@ -0,0 +1,225 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+package org.didelphis.language.parsing;
+
+import lombok.NonNull;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Class {@code CharTrie}
+ * <p>
+ * An immutable character trie from string keys to values, which finds the
+ * longest key at an index of an input in a single walk, however many keys the
+ * trie contains. Child keys are kept in sorted arrays, so that transitions are
+ * found by binary search without boxing.
+ * <p>
+ * A trie may be built to ignore some characters, such as tie bars, both in its
+ * keys and in the inputs it searches; keys which differ only by such
+ * characters then share a path. Where several keys match, the longest, as
+ * measured including any ignored characters, is preferred and, among keys of
+ * the same length, the one added first.
+ *
+ * @param <V> the type of value associated with each key
+ *
+ * @since 0.4.0
+ */
+public final class CharTrie<V> {
+
+	@Nullable
+	private final IntPredicate ignored;
+	private final Node<V> root;
+
+	private CharTrie(@Nullable IntPredicate ignored, @NonNull Node<V> root) {
+		this.ignored = ignored;
+		this.root = root;
+	}
+
+	/**
+	 * @param <V> the type of value associated with each key
+	 *
+	 * @return a builder for a trie which ignores no characters
+	 */
+	@NonNull
+	public static <V> Builder<V> builder() {
+		return new Builder<>(null);
+	}
+
+	/**
+	 * @param ignored matches characters to be skipped in keys and inputs
+	 * @param <V> the type of value associated with each key
+	 *
+	 * @return a builder for a trie which ignores the characters matched
+	 */
+	@NonNull
+	public static <V> Builder<V> builder(@NonNull IntPredicate ignored) {
+		return new Builder<>(ignored);
+	}
+
+	/**
+	 * Finds the value of the preferred key which occurs in the input at the
+	 * provided index, skipping ignored characters in both
+	 *
+	 * @param input the input to be searched; not null
+	 * @param index the index at which the key must start
+	 *
+	 * @return the value of the longest key found, or null if there is none
+	 */
+	@Nullable
+	public V find(@NonNull CharSequence input, int index) {
+		Node<V> best = root.hasValue ? root : null;
+		Node<V> node = root;
+		for (int i = index; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (ignored != null && ignored.test(c)) {
+				continue;
+			}
+			node = node.next(c);
+			if (node == null) {
+				break;
+			}
+			if (node.hasValue && (best == null || node.isBetterThan(best))) {
+				best = node;
+			}
+		}
+		return best == null ? null : best.value;
+	}
+
+	/**
+	 * A frozen trie node, holding the value of the preferred key which ends
+	 * there, if any
+	 */
+	private static final class Node<V> {
+
+		private final char[]    keys;
+		private final Node<V>[] children;
+		private final boolean   hasValue;
+		private final V         value;
+		private final int       length;
+		private final int       order;
+
+		private Node(
+				char[] keys,
+				Node<V>[] children,
+				boolean hasValue,
+				V value,
+				int length,
+				int order
+		) {
+			this.keys = keys;
+			this.children = children;
+			this.hasValue = hasValue;
+			this.value = value;
+			this.length = length;
+			this.order = order;
+		}
+
+		private Node<V> next(char c) {
+			int i = Arrays.binarySearch(keys, c);
+			return i < 0 ? null : children[i];
+		}
+
+		private boolean isBetterThan(Node<V> node) {
+			return length > node.length ||
+					length == node.length && order < node.order;
+		}
+	}
+
+	/**
+	 * Collects the keys of a trie; where keys collide, the value of the
+	 * preferred key is kept. Empty keys are ignored.
+	 *
+	 * @param <V> the type of value associated with each key
+	 */
+	public static final class Builder<V> {
+
+		@Nullable
+		private final IntPredicate ignored;
+		private final Entry<V> root;
+		private int count;
+
+		private Builder(@Nullable IntPredicate ignored) {
+			this.ignored = ignored;
+			root = new Entry<>();
+		}
+
+		/**
+		 * @param key the key to add; not null
+		 * @param value the value returned when the key is found
+		 *
+		 * @return this builder
+		 */
+		@NonNull
+		public Builder<V> put(@NonNull String key, @Nullable V value) {
+			if (key.isEmpty()) {
+				return this;
+			}
+			Entry<V> entry = root;
+			for (int i = 0; i < key.length(); i++) {
+				char c = key.charAt(i);
+				if (ignored == null || !ignored.test(c)) {
+					entry = entry.children.computeIfAbsent(c, k -> new Entry<>());
+				}
+			}
+			int order = count++;
+			if (!entry.hasValue || key.length() > entry.length) {
+				entry.hasValue = true;
+				entry.value = value;
+				entry.length = key.length();
+				entry.order = order;
+			}
+			return this;
+		}
+
+		/**
+		 * @return a trie holding the keys added so far
+		 */
+		@NonNull
+		public CharTrie<V> build() {
+			return new CharTrie<>(ignored, root.build());
+		}
+	}
+
+	private static final class Entry<V> {
+
+		private final Map<Character, Entry<V>> children = new TreeMap<>();
+		private boolean hasValue;
+		private V       value;
+		private int     length;
+		private int     order;
+
+		@SuppressWarnings("unchecked")
+		private Node<V> build() {
+			char[] keys = new char[children.size()];
+			Node<V>[] nodes = (Node<V>[]) new Node<?>[children.size()];
+			int i = 0;
+			for (Map.Entry<Character, Entry<V>> entry : children.entrySet()) {
+				keys[i] = entry.getKey();
+				nodes[i] = entry.getValue().build();
+				i++;
+			}
+			return new Node<>(keys, nodes, hasValue, value, length, order);
+		}
+	}
+}
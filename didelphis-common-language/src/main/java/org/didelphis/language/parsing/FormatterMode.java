@@ -21,17 +21,15 @@ package org.didelphis.language.parsing;
 
 import lombok.NonNull;
 
-import org.didelphis.language.automata.Regex;
-import org.didelphis.language.automata.matching.Match;
-
 import org.jetbrains.annotations.Nullable;
 
 import java.text.Normalizer;
 import java.text.Normalizer.Form;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.didelphis.utilities.Splitter.*;
 
@@ -100,23 +98,32 @@ public enum FormatterMode implements Segmenter, Formatter {
 		private static final int SUB_SMALL_T  = 0x209C;
 		/*>-------------------------------------------------------------------*/
 
-		private final Regex pattern = new Regex("\\$[^$]*\\d+");
+		@NonNull
+		@Override
+		public List<String> split(
+				@NonNull String string,
+				@NonNull Iterable<String> special,
+				@NonNull Map<String, String> delimiters
+		) {
+			return split(string, compile(special), delimiters);
+		}
 
 		@NonNull
 		@Override
 		@SuppressWarnings ({"OverlyComplexMethod", "OverlyLongMethod"})
 		public List<String> split(
 				@NonNull String string,
-				@NonNull Iterable<String> special,
+				@NonNull SegmentationPlan plan,
 				@NonNull Map<String, String> delimiters
 		) {
 			String word = normalize(string);
+			Set<String> noSpecials = Collections.emptySet();
 			List<String> strings = new ArrayList<>();
 			StringBuilder sb = new StringBuilder();
 			int i = 0;
 			while (i < word.length()) {
 				// Get the word from current position on
-				int index = parseParens(word, delimiters, new HashSet<>(), i);
+				int index = parseParens(word, delimiters, noSpecials, i);
 				if (index > 0) {
 					if (sb.length() > 0) {
 						strings.add(sb.toString());
@@ -126,22 +133,20 @@ public enum FormatterMode implements Segmenter, Formatter {
 					sb = new StringBuilder();
 					i = index;
 				} else {
-					String substring = word.substring(i);
-					// Find the longest string in keys which the substring
-					// starts
-					String key = getBestMatch(substring, special);
+					// Find the longest key which occurs at this position
+					int length = getBestMatch(word, i, plan);
 					if (sb.length() == 0) {
 						// Assume that the first sb must be a base-character
 						// This doesn't universally work (pre-nasalized,
 						// pre-aspirated), but we don't support this in our
 						// model yet
-						if (key.isEmpty()) {
+						if (length == 0) {
 							// No special error handling if word starts with
 							// diacritic, but may be desirable
 							sb.append(word.charAt(i));
 						} else {
-							sb.append(key);
-							i += key.length() - 1;
+							sb.append(word, i, i + length);
+							i += length - 1;
 						}
 					} else {
 						char ch = word.charAt(i);
@@ -159,11 +164,11 @@ public enum FormatterMode implements Segmenter, Formatter {
 								strings.add(sb.toString());
 							}
 							sb = new StringBuilder();
-							if (key.isEmpty()) {
+							if (length == 0) {
 								sb.append(ch);
 							} else {
-								sb.append(key);
-								i += key.length() - 1;
+								sb.append(word, i, i + length);
+								i += length - 1;
 							}
 						}
 					}
@@ -176,27 +181,32 @@ public enum FormatterMode implements Segmenter, Formatter {
 			return strings;
 		}
 
-		// Finds longest item in keys which the provided string starts with
-		// Also can be used to grab index symbols
-		@NonNull
-		private String getBestMatch(
-				@NonNull String word, @NonNull Iterable<String> keys
+		// Finds the length of the longest key which occurs at the index;
+		// Also can be used to grab index symbols, which take precedence
+		private int getBestMatch(
+				@NonNull String word, int index, @NonNull SegmentationPlan plan
 		) {
-			String bestMatch = "";
-			for (String key : keys) {
-				if (word.startsWith(key) && bestMatch.length() < key.length()) {
-					bestMatch = key;
-				}
-			}
+			int length = getBackReferenceLength(word, index);
+			return length > 0 ? length : plan.longestMatch(word, index);
+		}
 
-			Match<String> backReferenceMatcher = pattern.match(word);
-			if (backReferenceMatcher.matches()) {
-				String group = backReferenceMatcher.group(0);
-				if (group != null) {
-					bestMatch = group;
+		// Equivalent to matching \$[^$]*\d+ at the index: the dollar sign and
+		// everything up to the last digit before the next dollar sign
+		private int getBackReferenceLength(@NonNull String word, int index) {
+			if (word.charAt(index) != '$') {
+				return 0;
+			}
+			int end = -1;
+			for (int i = index + 1; i < word.length(); i++) {
+				char c = word.charAt(i);
+				if (c == '$') {
+					break;
+				}
+				if ('0' <= c && c <= '9') {
+					end = i + 1;
 				}
 			}
-			return bestMatch;
+			return end < 0 ? 0 : end - index;
 		}
 
 		private boolean isAttachable(char c) {
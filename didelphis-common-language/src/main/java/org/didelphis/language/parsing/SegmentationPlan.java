@@ -0,0 +1,86 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.parsing;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class {@code SegmentationPlan}
+ * <p>
+ * A set of special strings prepared for use by a {@link Segmenter}, so that
+ * the work of preparing them can be shared by any number of calls to {@link
+ * Segmenter#split(String, SegmentationPlan, Map)}. The strings are held in a
+ * {@link CharTrie}, which finds the longest special string at any index of an
+ * input in a single walk, however many strings the plan contains.
+ * <p>
+ * Plans are immutable, and are obtained from {@link
+ * Segmenter#compile(Iterable)}.
+ *
+ * @since 0.4.0
+ */
+public final class SegmentationPlan {
+
+	private final List<String> special;
+	private final CharTrie<String> trie;
+
+	SegmentationPlan(@NonNull Iterable<String> special) {
+		List<String> list = new ArrayList<>();
+		CharTrie.Builder<String> builder = CharTrie.builder();
+		for (String string : special) {
+			list.add(string);
+			builder.put(string, string);
+		}
+		this.special = Collections.unmodifiableList(list);
+		trie = builder.build();
+	}
+
+	/**
+	 * @return the special strings of the plan, in the order they were provided
+	 */
+	@NonNull
+	public List<String> getSpecial() {
+		return special;
+	}
+
+	/**
+	 * Finds the longest special string which occurs in the input at the
+	 * provided index
+	 *
+	 * @param string the input to be searched; not null
+	 * @param index the index at which the special string must start
+	 *
+	 * @return the length of the longest special string found, or 0 if there is
+	 *      none
+	 */
+	int longestMatch(@NonNull String string, int index) {
+		String match = trie.find(string, index);
+		return match == null ? 0 : match.length();
+	}
+
+	@Override
+	public String toString() {
+		return "SegmentationPlan" + special;
+	}
+}
@@ -55,4 +55,42 @@ public interface Segmenter {
 			@NonNull Iterable<String> special,
 			@NonNull Map<String, String> delimiters
 	);
+
+	/**
+	 * Prepares a set of reserved symbols for repeated use with {@link
+	 * #split(String, SegmentationPlan, Map)}
+	 *
+	 * @param special reserved characters to be treated as unitary
+	 *
+	 * @return a plan which can be shared by any number of calls; not null
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default SegmentationPlan compile(@NonNull Iterable<String> special) {
+		return new SegmentationPlan(special);
+	}
+
+	/**
+	 * Splits a string into components using reserved symbols which have been
+	 * prepared by {@link #compile(Iterable)}. The result is the same as that
+	 * of {@link #split(String, Iterable, Map)} with the plan's symbols.
+	 *
+	 * @param string string to be segmented
+	 * @param plan the reserved characters to be treated as unitary
+	 * @param delimiters a map of opening and closing delimiters which will
+	 *      not be split
+	 *
+	 * @return a list of strings; not {@code null}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<String> split(
+			@NonNull String string,
+			@NonNull SegmentationPlan plan,
+			@NonNull Map<String, String> delimiters
+	) {
+		return split(string, plan.getSpecial(), delimiters);
+	}
 }
@@ -19,18 +19,25 @@
 
 package org.didelphis.language.phonetic;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
 import org.didelphis.language.parsing.FormatterMode;
+import org.didelphis.language.parsing.SegmentationPlan;
 import org.didelphis.language.phonetic.features.FeatureArray;
 import org.didelphis.language.phonetic.model.FeatureMapping;
 import org.didelphis.language.phonetic.model.FeatureModel;
 import org.didelphis.language.phonetic.model.FeatureSpecification;
+import org.didelphis.language.phonetic.segments.CopyOnWriteSegment;
+import org.didelphis.language.phonetic.segments.ImmutableSegment;
 import org.didelphis.language.phonetic.segments.Segment;
 import org.didelphis.language.phonetic.segments.StandardSegment;
+import org.didelphis.language.phonetic.segments.UndefinedSegment;
 import org.didelphis.language.phonetic.sequences.BasicSequence;
 import org.didelphis.language.phonetic.sequences.Sequence;
 import org.didelphis.utilities.Sort;
@@ -39,12 +46,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Class {@code SequenceFactory}
+ * <p>
+ * A factory may be created in <i>interning</i> mode, in which each distinct
+ * symbol is parsed only once. Segments produced from the same symbol then
+ * share a single {@link ImmutableSegment} through a {@link
+ * CopyOnWriteSegment}, which copies the shared features only if it is
+ * altered; segments not defined in the model are shared outright. This
+ * greatly reduces the memory used by large lexicons, where the same few
+ * segments occur many times.
  *
  * @since 0.0.0
  */
@@ -61,6 +78,16 @@ public class SequenceFactory<T> {
 	FeatureMapping<T>  featureMapping;
 	FormatterMode      formatterMode;
 	Collection<String> reservedStrings;
+	boolean            interning;
+
+	@Getter(AccessLevel.NONE)
+	Map<String, Segment<T>> interned;
+
+	// Rebuilt whenever the reserved strings are found to have changed, as the
+	// collection may be modified by the caller as well as by reserve()
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	volatile Plan plan;
 
 	public SequenceFactory(
 			@NonNull FeatureMapping<T> featureMapping,
@@ -73,12 +100,33 @@ public class SequenceFactory<T> {
 			@NonNull FeatureMapping<T> featureMapping,
 			@NonNull Collection<String> reservedStrings,
 			@NonNull FormatterMode formatterMode
+	) {
+		this(featureMapping, reservedStrings, formatterMode, false);
+	}
+
+	/**
+	 * @param featureMapping the mapping used to parse symbols into segments
+	 * @param reservedStrings strings which are to be treated as single units
+	 *      when splitting words into segments
+	 * @param formatterMode the mode used to split and normalize words
+	 * @param interning whether segments parsed from the same symbol should
+	 *      share a single immutable template
+	 *
+	 * @since 0.4.0
+	 */
+	public SequenceFactory(
+			@NonNull FeatureMapping<T> featureMapping,
+			@NonNull Collection<String> reservedStrings,
+			@NonNull FormatterMode formatterMode,
+			boolean interning
 	) {
 		/* ----------------------------------------------------------------- <*/
 		this.featureMapping  = featureMapping;
 		this.reservedStrings = reservedStrings;
 		this.formatterMode   = formatterMode;
+		this.interning       = interning;
 		/*> ----------------------------------------------------------------- */
+		interned = interning ? new ConcurrentHashMap<>() : null;
 	}
 
 	public void reserve(@NonNull String reserved) {
@@ -87,6 +135,33 @@ public class SequenceFactory<T> {
 
 	@NonNull
 	public Segment<T> toSegment(@NonNull String string) {
+		if (!interning) {
+			return parseSegment(string);
+		}
+		Segment<T> segment = interned.get(string);
+		if (segment == null) {
+			Segment<T> parsed = parseSegment(string);
+			if (parsed instanceof UndefinedSegment) {
+				segment = parsed;
+			} else if (parsed.getClass() == StandardSegment.class) {
+				segment = new ImmutableSegment<>(parsed);
+			} else {
+				// Semi-defined segments carry more than their symbol and
+				// features, and are rare enough not to be worth sharing
+				return parsed;
+			}
+			Segment<T> previous = interned.putIfAbsent(string, segment);
+			if (previous != null) {
+				segment = previous;
+			}
+		}
+		return segment instanceof ImmutableSegment
+				? new CopyOnWriteSegment<>((ImmutableSegment<T>) segment)
+				: segment;
+	}
+
+	@NonNull
+	private Segment<T> parseSegment(@NonNull String string) {
 		FeatureSpecification specification = featureMapping.getSpecification();
 		FeatureModel<T> featureModel = featureMapping.getFeatureModel();
 		if (specification.size() > 0 && string.startsWith("[")) {
@@ -99,16 +174,18 @@ public class SequenceFactory<T> {
 
 	@NonNull
 	public Sequence<T> toSequence(@NonNull String word) {
-		List<String> keys = new ArrayList<>();
-		keys.addAll(reservedStrings);
-		keys.addAll(featureMapping.getFeatureMap().keySet());
-		Sort.quicksort(keys, SequenceFactory::compare);
-		Collection<String> list = formatterMode.split(word, keys, DELIMITERS);
+		SegmentationPlan segmentationPlan = getPlan();
+		Collection<String> list = formatterMode.split(
+				word,
+				segmentationPlan,
+				DELIMITERS
+		);
 		FeatureModel<T> featureModel = featureMapping.getFeatureModel();
 		List<Segment<T>> segments = list.stream()
 				.map(this::toSegment)
 				.collect(Collectors.toList());
-		return new BasicSequence<>(segments, featureModel);	}
+		return new BasicSequence<>(segments, featureModel);
+	}
 
 	@NonNull
 	public Collection<String> getSpecialStrings() {
@@ -118,9 +195,50 @@ public class SequenceFactory<T> {
 		return keys;
 	}
 
+	@NonNull
+	private SegmentationPlan getPlan() {
+		Plan current = plan;
+		if (current == null || !current.isFor(reservedStrings)) {
+			List<String> keys = new ArrayList<>();
+			keys.addAll(reservedStrings);
+			keys.addAll(featureMapping.getFeatureMap().keySet());
+			Sort.quicksort(keys, SequenceFactory::compare);
+			current = new Plan(
+					new ArrayList<>(reservedStrings),
+					formatterMode.compile(keys)
+			);
+			plan = current;
+		}
+		return current.segmentationPlan;
+	}
+
 	private static int compare(CharSequence k1, CharSequence k2) {
 		int x = k1.length();
 		int y = k2.length();
 		return Integer.compare(x, y);
 	}
+
+	private static final class Plan {
+
+		private final List<String> reserved;
+		private final SegmentationPlan segmentationPlan;
+
+		private Plan(List<String> reserved, SegmentationPlan segmentationPlan) {
+			this.reserved = reserved;
+			this.segmentationPlan = segmentationPlan;
+		}
+
+		private boolean isFor(Collection<String> reservedStrings) {
+			if (reserved.size() != reservedStrings.size()) {
+				return false;
+			}
+			Iterator<String> iterator = reserved.iterator();
+			for (String string : reservedStrings) {
+				if (!string.equals(iterator.next())) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
 }
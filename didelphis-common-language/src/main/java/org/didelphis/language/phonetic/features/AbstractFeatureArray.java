@@ -21,11 +21,20 @@ package org.didelphis.language.phonetic.features;
 
 import lombok.NonNull;
 
+import org.didelphis.language.phonetic.model.Constraint;
 import org.didelphis.language.phonetic.model.FeatureModel;
 import org.didelphis.language.phonetic.model.FeatureSpecification;
+import org.didelphis.utilities.Logger;
 import org.didelphis.utilities.Templates;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Class {@code AbstractFeatureArray}
@@ -34,10 +43,18 @@ import java.util.Objects;
  */
 public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 
+	private static final Logger LOG = Logger.create(AbstractFeatureArray.class);
+
 	private final FeatureModel<T> featureModel;
 	private final int size;
 	private final FeatureSpecification specification;
 
+	// Only present while constraints are being applied
+	private Propagation<T> propagation;
+
+	// Set on copies made by readOnlyCopy, which may be shared
+	private boolean readOnly;
+
 	protected AbstractFeatureArray(@NonNull FeatureModel<T> featureModel) {
 		this.featureModel = featureModel;
 
@@ -45,6 +62,50 @@ public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 		size = specification.size();
 	}
 
+	/**
+	 * Creates a copy of the provided array which cannot be changed: calls to
+	 * its {@link #set(int, Object)} or {@link #alter(FeatureArray)} methods
+	 * throw {@link UnsupportedOperationException}, so the copy can be shared
+	 * safely, as immutable segments do. Unlike a wrapper, the copy is of the
+	 * same class as the array the model's feature type would create, and so
+	 * is read as efficiently. An array which
+	 * is already read-only, or which is not an {@code AbstractFeatureArray},
+	 * such as an {@link EmptyFeatureArray}, is returned as it is.
+	 *
+	 * @param array the array to copy
+	 * @param <T> the type of feature data in the array
+	 *
+	 * @return a read-only array holding the same features
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	public static <T> FeatureArray<T> readOnlyCopy(
+			@NonNull FeatureArray<T> array
+	) {
+		if (!(array instanceof AbstractFeatureArray)
+				|| ((AbstractFeatureArray<T>) array).readOnly) {
+			return array;
+		}
+		FeatureArray<T> copy = array instanceof SparseFeatureArray
+				? new SparseFeatureArray<>((SparseFeatureArray<T>) array)
+				: array.getFeatureModel().getFeatureType().copyArray(array);
+		if (copy instanceof AbstractFeatureArray) {
+			((AbstractFeatureArray<T>) copy).readOnly = true;
+		}
+		return copy;
+	}
+
+	/**
+	 * @return true iff this array was created by {@link #readOnlyCopy} and so
+	 *      cannot be changed
+	 *
+	 * @since 0.4.0
+	 */
+	public final boolean isReadOnly() {
+		return readOnly;
+	}
+
 	@Override
 	public String toString() {
 		return "AbstractFeatureArray[" + size + "]";
@@ -85,9 +146,19 @@ public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 		return specification;
 	}
 
+	/**
+	 * Computes a hash from the specification and from every value, combined
+	 * as by {@link java.util.List#hashCode()}, so that arrays which are equal
+	 * under {@link #equals(Object)} have the same hash. Implementations which
+	 * store their values in other forms should produce the same result.
+	 */
 	@Override
 	public int hashCode() {
-		return specification.hashCode();
+		int code = 1;
+		for (int i = 0; i < size; i++) {
+			code = 31 * code + Objects.hashCode(get(i));
+		}
+		return 31 * specification.hashCode() + code;
 	}
 
 	@Override
@@ -95,6 +166,7 @@ public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 		if (this == obj) return true;
 		if (!(obj instanceof AbstractFeatureArray)) return false;
 		FeatureArray<?> that = (FeatureArray<?>) obj;
+		if (size != that.size()) return false;
 		for (int i = 0; i < size; i++) {
 			T t1 = get(i);
 			Object t2 = that.get(i);
@@ -105,10 +177,104 @@ public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 		return specification.equals(that.getSpecification());
 	}
 
+	/**
+	 * Applies the model's constraints following a change to the feature at the
+	 * provided index, as {@link #applyConstraints(int[], int)} does for a
+	 * single feature.
+	 *
+	 * @param index the index of a feature which has just been changed
+	 *
+	 * @since 0.4.0
+	 */
+	protected final void applyConstraints(int index) {
+		if (featureModel.getConstraints(index).isEmpty()) {
+			return;
+		}
+		applyConstraints(new int[]{index}, 1);
+	}
+
+	/**
+	 * Applies the model's constraints following a change to the features at
+	 * the provided indices. Each constraint whose source specifies a changed
+	 * feature and matches this array is applied by altering this array with
+	 * its target.
+	 * <p>
+	 * Constraints are applied depth-first. The features changed together by
+	 * one call to {@code set} or {@code alter} are handled in the order in
+	 * which their first constraints are listed in the model, and the
+	 * constraints of each feature in the order the model lists them. When a
+	 * constraint changes further features, those are handled in the same way
+	 * before the next constraint is checked. So where the constraints of
+	 * features changed together contradict each other, the constraint listed
+	 * first in the model takes precedence.
+	 * <p>
+	 * Each constraint is applied at most once per outermost call, so
+	 * constraints which undo one another cannot alter the array indefinitely.
+	 * The result is then not necessarily consistent with every constraint: a
+	 * constraint whose target is undone by a later one is left unsatisfied,
+	 * and this is logged as a warning.
+	 *
+	 * @param indices the indices of features which have just been changed,
+	 *      in ascending order
+	 * @param count the number of indices to read from the array
+	 *
+	 * @since 0.4.0
+	 */
+	protected final void applyConstraints(int[] indices, int count) {
+		// While constraints are being applied, calls to set or alter only push
+		// the features they change
+		if (propagation != null) {
+			propagation.push(indices, count);
+			return;
+		}
+		propagation = new Propagation<>(featureModel, count);
+		try {
+			propagation.push(indices, count);
+			Constraint<T> constraint;
+			while ((constraint = propagation.next()) != null) {
+				if (matches(constraint.getSource())
+						&& propagation.apply(constraint)) {
+					alter(constraint.getTarget());
+				}
+			}
+			checkConstraints(propagation.applied);
+		} finally {
+			propagation = null;
+		}
+	}
+
+	/**
+	 * Throws an exception if this array is read-only; called by each method
+	 * which changes the array before it makes any change
+	 *
+	 * @param method the name of the calling method
+	 *
+	 * @since 0.4.0
+	 */
+	protected final void writeCheck(@NonNull String method) {
+		if (readOnly) {
+			String message = Templates.create()
+					.add("{} is read-only and does not support method #{}")
+					.with(getClass(), method)
+					.build();
+			throw new UnsupportedOperationException(message);
+		}
+	}
+
 	protected final void sizeCheck(@NonNull FeatureArray<T> o) {
 		if (size() != o.size()) throw buildException(o);
 	}
 
+	private void checkConstraints(@NonNull Iterable<Constraint<T>> applied) {
+		for (Constraint<T> constraint : applied) {
+			if (matches(constraint.getSource())
+					&& !matches(constraint.getTarget())) {
+				LOG.warn("Constraint {} was undone by another constraint and "
+						+ "is not satisfied by {}", constraint, this);
+			}
+		}
+	}
+
 	@NonNull
 	private IllegalArgumentException buildException(
 			@NonNull FeatureArray<T> featureArray
@@ -121,4 +287,109 @@ public abstract class AbstractFeatureArray<T> implements FeatureArray<T> {
 				.build();
 		return new IllegalArgumentException(message);
 	}
+
+	/**
+	 * The state of one outermost call to {@link #applyConstraints(int[], int)}:
+	 * a stack of changed features, each with the position of the next of its
+	 * constraints to check, and the constraints already applied
+	 */
+	private static final class Propagation<T> {
+
+		private final FeatureModel<T> model;
+		private final Set<Constraint<T>> applied;
+
+		private int[] pending;
+		private int[] positions;
+		private int depth;
+
+		private Propagation(@NonNull FeatureModel<T> model, int count) {
+			this.model = model;
+			applied = Collections.newSetFromMap(new IdentityHashMap<>());
+			pending = new int[Math.max(8, count)];
+			positions = new int[pending.length];
+		}
+
+		/**
+		 * Pushes the features which have constraints, so that the feature
+		 * whose first constraint is listed first in the model is on top
+		 */
+		private void push(int[] indices, int count) {
+			int base = depth;
+			for (int k = 0; k < count; k++) {
+				if (!model.getConstraints(indices[k]).isEmpty()) {
+					push(indices[k]);
+				}
+			}
+			if (depth - base < 2) {
+				return;
+			}
+			int[] ranks = new int[depth - base];
+			for (int i = base; i < depth; i++) {
+				ranks[i - base] = rank(pending[i]);
+			}
+			// an insertion sort into descending rank; the range is at most
+			// the size of the model
+			for (int i = 1; i < ranks.length; i++) {
+				int rank = ranks[i];
+				int index = pending[base + i];
+				int j = i - 1;
+				while (j >= 0 && ranks[j] < rank) {
+					ranks[j + 1] = ranks[j];
+					pending[base + j + 1] = pending[base + j];
+					j--;
+				}
+				ranks[j + 1] = rank;
+				pending[base + j + 1] = index;
+			}
+		}
+
+		/**
+		 * @return the next constraint to check, or null if there are none
+		 */
+		@Nullable
+		private Constraint<T> next() {
+			while (depth > 0) {
+				int top = depth - 1;
+				List<Constraint<T>> constraints
+						= model.getConstraints(pending[top]);
+				if (positions[top] < constraints.size()) {
+					return constraints.get(positions[top]++);
+				}
+				depth--;
+			}
+			return null;
+		}
+
+		/**
+		 * @return true iff the constraint has not yet been applied
+		 */
+		private boolean apply(@NonNull Constraint<T> constraint) {
+			return applied.add(constraint);
+		}
+
+		private void push(int index) {
+			if (depth == pending.length) {
+				pending = Arrays.copyOf(pending, depth * 2);
+				positions = Arrays.copyOf(positions, depth * 2);
+			}
+			pending[depth] = index;
+			positions[depth] = 0;
+			depth++;
+		}
+
+		/**
+		 * @return the position in the model of the first constraint of the
+		 *      feature at the provided index
+		 */
+		private int rank(int index) {
+			Constraint<T> first = model.getConstraints(index).get(0);
+			List<Constraint<T>> constraints = model.getConstraints();
+			for (int i = 0; i < constraints.size(); i++) {
+				if (constraints.get(i) == first) {
+					return i;
+				}
+			}
+			return constraints.size();
+		}
+	}
 }
@@ -70,6 +70,16 @@ public enum BinaryFeature implements FeatureType<Boolean> {
 		return UNDEFINED;
 	}
 
+	@NonNull
+	@Override
+	public FeatureArray<Boolean> copyArray(
+			@NonNull FeatureArray<Boolean> array
+	) {
+		return array instanceof BinaryFeatureArray
+				? new BinaryFeatureArray((BinaryFeatureArray) array)
+				: new BinaryFeatureArray(array);
+	}
+
 	@Override
 	public int compare(@Nullable Boolean v1, @Nullable Boolean v2) {
 		return Boolean.compare(isValid(v1), isValid(v2));
@@ -80,6 +90,19 @@ public enum BinaryFeature implements FeatureType<Boolean> {
 		return isValid(v1) ^ isValid(v2) ? 1.0 : 0.0;
 	}
 
+	@Override
+	public double difference(
+			@NonNull FeatureArray<Boolean> left,
+			@NonNull FeatureArray<Boolean> right
+	) {
+		if (left instanceof BinaryFeatureArray
+				&& right instanceof BinaryFeatureArray) {
+			return ((BinaryFeatureArray) left).difference(
+					(BinaryFeatureArray) right);
+		}
+		return FeatureType.super.difference(left, right);
+	}
+
 	@Override
 	public int intValue(@Nullable Boolean value) {
 		return (isValid(value) && value) ? 1 : 0;
@@ -0,0 +1,381 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.model.FeatureModel;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * Class {@code BinaryFeatureArray}
+ * <p>
+ * A {@link FeatureArray} for models using {@link BinaryFeature}, storing its
+ * features in two bitsets: one marking which features are defined, and one
+ * holding their values. The bits of undefined features are always clear in
+ * the second set, so that matching, altering, comparing and measuring the
+ * difference between two such arrays are done a word at a time.
+ * <p>
+ * Like {@link StandardFeatureArray}, the model's constraints are applied
+ * whenever a feature is changed by {@link #set(int, Boolean)} or
+ * {@link #alter(FeatureArray)}, and instances are equal to any
+ * {@link StandardFeatureArray} holding the same values.
+ *
+ * @since 0.4.0
+ */
+public final class BinaryFeatureArray extends AbstractFeatureArray<Boolean> {
+
+	private final long[] defined;
+	private final long[] values;
+
+	// Cleared whenever a value changes
+	private int hash;
+
+	/**
+	 * @param value the value to which every feature is initially set
+	 * @param featureModel the model to which the array belongs
+	 */
+	public BinaryFeatureArray(
+			@Nullable Boolean value, @NonNull FeatureModel<Boolean> featureModel
+	) {
+		super(featureModel);
+		int words = words(size());
+		defined = new long[words];
+		values = new long[words];
+		if (value != null) {
+			for (int i = 0; i < size(); i++) {
+				write(i, value);
+			}
+		}
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public BinaryFeatureArray(@NonNull BinaryFeatureArray array) {
+		super(array.getFeatureModel());
+		defined = array.defined.clone();
+		values = array.values.clone();
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public BinaryFeatureArray(@NonNull FeatureArray<Boolean> array) {
+		super(array.getFeatureModel());
+		int words = words(size());
+		defined = new long[words];
+		values = new long[words];
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<Boolean> sparse
+					= (SparseFeatureArray<Boolean>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				write(sparse.indexAt(k), sparse.valueAt(k));
+			}
+		} else {
+			for (int i = 0; i < size(); i++) {
+				write(i, array.get(i));
+			}
+		}
+	}
+
+	@Override
+	public void set(int index, @Nullable Boolean value) {
+		writeCheck("set");
+		indexCheck(index);
+		write(index, value);
+		hash = 0;
+		applyConstraints(index);
+	}
+
+	@Override
+	public @Nullable Boolean get(int index) {
+		indexCheck(index);
+		int word = index >>> 6;
+		long bit = 1L << index;
+		if ((defined[word] & bit) == 0) {
+			return null;
+		}
+		return (values[word] & bit) != 0;
+	}
+
+	@Override
+	public boolean matches(@NonNull FeatureArray<Boolean> array) {
+		sizeCheck(array);
+		if (array instanceof BinaryFeatureArray) {
+			BinaryFeatureArray other = (BinaryFeatureArray) array;
+			for (int w = 0; w < values.length; w++) {
+				long conflicts = (values[w] ^ other.values[w])
+						& defined[w] & other.defined[w];
+				if (conflicts != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<Boolean> sparse
+					= (SparseFeatureArray<Boolean>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				int i = sparse.indexAt(k);
+				Boolean y = sparse.valueAt(k);
+				if (y != null && isDefined(i) && y != isSet(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (int i = 0; i < size(); i++) {
+			Boolean y = array.get(i);
+			if (y != null && isDefined(i) && y != isSet(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests this array against a pattern given as two bitsets in the layout
+	 * used by this class, which a caller matching many arrays against the
+	 * same pattern can compute once: bit {@code i} of {@code definedMask}
+	 * marks feature {@code i} as specified by the pattern, and the same bit of
+	 * {@code valueMask} holds its value. As with
+	 * {@link #matches(FeatureArray)}, the array matches where every feature
+	 * defined in both has the same value.
+	 *
+	 * @param definedMask the features defined in the pattern, one bit per
+	 *      feature, 64 to a word
+	 * @param valueMask the values of the pattern's features; bits of features
+	 *      not in {@code definedMask} are ignored
+	 *
+	 * @return true iff no feature defined in both differs in value
+	 *
+	 * @throws IllegalArgumentException if either mask does not have one word
+	 *      for every 64 features of this array
+	 */
+	public boolean matches(
+			@NonNull long[] definedMask, @NonNull long[] valueMask
+	) {
+		if (definedMask.length != values.length
+				|| valueMask.length != values.length) {
+			throw new IllegalArgumentException("Masks of " + definedMask.length
+					+ " and " + valueMask.length + " words cannot be matched "
+					+ "against an array of " + size() + " features");
+		}
+		for (int w = 0; w < values.length; w++) {
+			long conflicts = (values[w] ^ valueMask[w])
+					& defined[w] & definedMask[w];
+			if (conflicts != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean alter(@NonNull FeatureArray<Boolean> array) {
+		writeCheck("alter");
+		sizeCheck(array);
+		BinaryFeatureArray other = array instanceof BinaryFeatureArray
+				? (BinaryFeatureArray) array
+				: new BinaryFeatureArray(array);
+
+		long[] altered = new long[values.length];
+		boolean changed = false;
+		for (int w = 0; w < values.length; w++) {
+			long mask = other.defined[w];
+			altered[w] = mask & (~defined[w] | (values[w] ^ other.values[w]));
+			defined[w] |= mask;
+			values[w] = values[w] & ~mask | other.values[w];
+			changed |= altered[w] != 0;
+		}
+		if (changed) {
+			hash = 0;
+		}
+
+		if (changed) {
+			int[] indices = new int[size()];
+			int count = 0;
+			for (int w = 0; w < altered.length; w++) {
+				for (long bits = altered[w]; bits != 0; bits &= bits - 1) {
+					indices[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+				}
+			}
+			applyConstraints(indices, count);
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean contains(@Nullable Boolean value) {
+		for (int w = 0; w < values.length; w++) {
+			long bits;
+			if (value == null) {
+				bits = ~defined[w];
+			} else if (value) {
+				bits = values[w];
+			} else {
+				bits = defined[w] & ~values[w];
+			}
+			if ((bits & wordMask(w)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int compareTo(@NonNull FeatureArray<Boolean> o) {
+		if (!(o instanceof BinaryFeatureArray)) {
+			return super.compareTo(o);
+		}
+		sizeCheck(o);
+		// Undefined features compare as false, which is how they are stored
+		BinaryFeatureArray other = (BinaryFeatureArray) o;
+		for (int w = 0; w < values.length; w++) {
+			long diff = values[w] ^ other.values[w];
+			if (diff != 0) {
+				return (values[w] & Long.lowestOneBit(diff)) != 0 ? 1 : -1;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public Iterator<Boolean> iterator() {
+		return new Iterator<Boolean>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public Boolean next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		int code = hash;
+		if (code == 0) {
+			// The same as for a list of the boxed values, as specified by
+			// AbstractFeatureArray
+			code = 1;
+			for (int i = 0; i < size(); i++) {
+				int value = isDefined(i) ? Boolean.hashCode(isSet(i)) : 0;
+				code = 31 * code + value;
+			}
+			code += 31 * getSpecification().hashCode();
+			hash = code;
+		}
+		return code;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof BinaryFeatureArray) {
+			BinaryFeatureArray array = (BinaryFeatureArray) obj;
+			return Arrays.equals(defined, array.defined)
+					&& Arrays.equals(values, array.values)
+					&& getSpecification().equals(array.getSpecification());
+		}
+		return !(obj instanceof SparseFeatureArray) && super.equals(obj);
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(";", "[[", "]]");
+		for (int i = 0; i < size(); i++) {
+			joiner.add(String.valueOf(get(i)));
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * Counts the features whose values differ between this array and another,
+	 * treating undefined features as false, as
+	 * {@link BinaryFeature#difference(Boolean, Boolean)} does.
+	 *
+	 * @param array another array of the same size
+	 *
+	 * @return the number of features whose values differ
+	 */
+	int difference(@NonNull BinaryFeatureArray array) {
+		sizeCheck(array);
+		int count = 0;
+		for (int w = 0; w < values.length; w++) {
+			count += Long.bitCount(values[w] ^ array.values[w]);
+		}
+		return count;
+	}
+
+	private boolean isDefined(int index) {
+		return (defined[index >>> 6] & 1L << index) != 0;
+	}
+
+	private boolean isSet(int index) {
+		return (values[index >>> 6] & 1L << index) != 0;
+	}
+
+	private void write(int index, @Nullable Boolean value) {
+		int word = index >>> 6;
+		long bit = 1L << index;
+		if (value == null) {
+			defined[word] &= ~bit;
+			values[word] &= ~bit;
+		} else {
+			defined[word] |= bit;
+			if (value) {
+				values[word] |= bit;
+			} else {
+				values[word] &= ~bit;
+			}
+		}
+	}
+
+	private long wordMask(int word) {
+		int remaining = size() - (word << 6);
+		return remaining >= 64 ? -1L : (1L << remaining) - 1;
+	}
+
+	private void indexCheck(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size());
+		}
+	}
+
+	private static int words(int size) {
+		return (size + 63) >>> 6;
+	}
+}
@@ -73,6 +73,19 @@ public enum DoubleFeature implements FeatureType<Double> {
 		return UNDEFINED;
 	}
 
+	@Override
+	public boolean isDefined(@Nullable Double value) {
+		return value != null && !value.isNaN() && !value.isInfinite();
+	}
+
+	@NonNull
+	@Override
+	public FeatureArray<Double> copyArray(@NonNull FeatureArray<Double> array) {
+		return array instanceof DoubleFeatureArray
+				? new DoubleFeatureArray((DoubleFeatureArray) array)
+				: new DoubleFeatureArray(array);
+	}
+
 	@Override
 	public int compare(@Nullable Double v1, @Nullable Double v2) {
 		double x = v1 == null ? 0.0 : v1;
@@ -85,6 +98,19 @@ public enum DoubleFeature implements FeatureType<Double> {
 		return Math.abs(norm(v1) - (norm(v2)));
 	}
 
+	@Override
+	public double difference(
+			@NonNull FeatureArray<Double> left,
+			@NonNull FeatureArray<Double> right
+	) {
+		if (left instanceof DoubleFeatureArray
+				&& right instanceof DoubleFeatureArray) {
+			return ((DoubleFeatureArray) left).difference(
+					(DoubleFeatureArray) right);
+		}
+		return FeatureType.super.difference(left, right);
+	}
+
 	@Override
 	public int intValue(@Nullable Double value) {
 		return (value == null) ? 0 : value.intValue();
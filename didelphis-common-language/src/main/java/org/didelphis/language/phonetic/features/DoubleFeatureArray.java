@@ -0,0 +1,336 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.model.FeatureModel;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * Class {@code DoubleFeatureArray}
+ * <p>
+ * A {@link FeatureArray} for models using {@link DoubleFeature}, storing its
+ * values in a {@code double[]}. Every value which {@link DoubleFeature}
+ * considers undefined, including infinities, is stored as {@code NaN}, so that
+ * whether a feature is defined is a primitive test, and is read back as
+ * {@code null}. Negative zero is stored as zero.
+ * <p>
+ * Like {@link StandardFeatureArray}, the model's constraints are applied
+ * whenever a feature is changed by {@link #set(int, Double)},
+ * {@link #setDouble(int, double)} or {@link #alter(FeatureArray)}, and
+ * instances are equal to any {@link StandardFeatureArray} holding the same
+ * values.
+ *
+ * @since 0.4.0
+ */
+public final class DoubleFeatureArray extends AbstractFeatureArray<Double> {
+
+	private final double[] values;
+
+	// Cleared whenever a value changes
+	private int hash;
+
+	/**
+	 * @param value the value to which every feature is initially set
+	 * @param featureModel the model to which the array belongs
+	 */
+	public DoubleFeatureArray(
+			@Nullable Double value, @NonNull FeatureModel<Double> featureModel
+	) {
+		super(featureModel);
+		values = new double[size()];
+		Arrays.fill(values, normalize(value));
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public DoubleFeatureArray(@NonNull DoubleFeatureArray array) {
+		super(array.getFeatureModel());
+		values = array.values.clone();
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public DoubleFeatureArray(@NonNull FeatureArray<Double> array) {
+		super(array.getFeatureModel());
+		values = new double[size()];
+		if (array instanceof SparseFeatureArray) {
+			Arrays.fill(values, Double.NaN);
+			SparseFeatureArray<Double> sparse
+					= (SparseFeatureArray<Double>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				values[sparse.indexAt(k)] = normalize(sparse.valueAt(k));
+			}
+		} else {
+			for (int i = 0; i < size(); i++) {
+				values[i] = normalize(array.get(i));
+			}
+		}
+	}
+
+	@Override
+	public void set(int index, @Nullable Double value) {
+		writeCheck("set");
+		indexCheck(index);
+		values[index] = normalize(value);
+		hash = 0;
+		applyConstraints(index);
+	}
+
+	@Override
+	public @Nullable Double get(int index) {
+		indexCheck(index);
+		double value = values[index];
+		return isDefined(value) ? value : null;
+	}
+
+	/**
+	 * Sets the feature at the provided index, without boxing. Values which are
+	 * not finite leave the feature undefined.
+	 *
+	 * @param index the index of the feature
+	 * @param value the new value of the feature
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public void setDouble(int index, double value) {
+		writeCheck("setDouble");
+		indexCheck(index);
+		values[index] = normalize(value);
+		hash = 0;
+		applyConstraints(index);
+	}
+
+	/**
+	 * Retrieves the feature at the provided index, without boxing.
+	 *
+	 * @param index the index of the feature
+	 *
+	 * @return the value of the feature, or {@code NaN} if it is undefined
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public double getDouble(int index) {
+		indexCheck(index);
+		return values[index];
+	}
+
+	@Override
+	public boolean matches(@NonNull FeatureArray<Double> array) {
+		sizeCheck(array);
+		if (array instanceof DoubleFeatureArray) {
+			double[] those = ((DoubleFeatureArray) array).values;
+			for (int i = 0; i < values.length; i++) {
+				double x = values[i];
+				double y = those[i];
+				// Comparisons with NaN are false, so values which differ only
+				// conflict where neither is NaN
+				if (x != y && x == x && y == y) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<Double> sparse
+					= (SparseFeatureArray<Double>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				double x = values[sparse.indexAt(k)];
+				double y = normalize(sparse.valueAt(k));
+				if (x != y && x == x && y == y) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (int i = 0; i < values.length; i++) {
+			double x = values[i];
+			double y = normalize(array.get(i));
+			if (x != y && x == x && y == y) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean alter(@NonNull FeatureArray<Double> array) {
+		writeCheck("alter");
+		sizeCheck(array);
+		double[] those = array instanceof DoubleFeatureArray
+				? ((DoubleFeatureArray) array).values
+				: new DoubleFeatureArray(array).values;
+
+		int[] altered = new int[values.length];
+		int count = 0;
+		for (int i = 0; i < values.length; i++) {
+			double y = those[i];
+			// Also true where this value is NaN and the other is not
+			if (y == y && values[i] != y) {
+				altered[count++] = i;
+				values[i] = y;
+			}
+		}
+		if (count > 0) {
+			hash = 0;
+			applyConstraints(altered, count);
+		}
+		return count > 0;
+	}
+
+	@Override
+	public boolean contains(@Nullable Double value) {
+		double x = normalize(value);
+		for (double y : values) {
+			if (x == y || x != x && y != y) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int compareTo(@NonNull FeatureArray<Double> o) {
+		if (!(o instanceof DoubleFeatureArray)) {
+			return super.compareTo(o);
+		}
+		sizeCheck(o);
+		// Undefined features are read as null, which compares as zero
+		double[] those = ((DoubleFeatureArray) o).values;
+		for (int i = 0; i < values.length; i++) {
+			int comparison = Double.compare(norm(values[i]), norm(those[i]));
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public Iterator<Double> iterator() {
+		return new Iterator<Double>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public Double next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		int code = hash;
+		if (code == 0) {
+			// The same as for a list of the boxed values, as specified by
+			// AbstractFeatureArray
+			code = 1;
+			for (double value : values) {
+				int valueHash = isDefined(value) ? Double.hashCode(value) : 0;
+				code = 31 * code + valueHash;
+			}
+			code += 31 * getSpecification().hashCode();
+			hash = code;
+		}
+		return code;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof DoubleFeatureArray) {
+			DoubleFeatureArray array = (DoubleFeatureArray) obj;
+			return Arrays.equals(values, array.values)
+					&& getSpecification().equals(array.getSpecification());
+		}
+		return !(obj instanceof SparseFeatureArray) && super.equals(obj);
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(";", "[[", "]]");
+		for (int i = 0; i < size(); i++) {
+			joiner.add(String.valueOf(get(i)));
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * Sums the absolute differences between the features of this array and
+	 * another, treating undefined features as zero, as
+	 * {@link DoubleFeature#difference(Double, Double)} does.
+	 *
+	 * @param array another array of the same size
+	 *
+	 * @return the total difference between the two arrays
+	 */
+	double difference(@NonNull DoubleFeatureArray array) {
+		sizeCheck(array);
+		double[] those = array.values;
+		double sum = 0.0;
+		for (int i = 0; i < values.length; i++) {
+			sum += Math.abs(norm(values[i]) - norm(those[i]));
+		}
+		return sum;
+	}
+
+	private void indexCheck(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size());
+		}
+	}
+
+	private static boolean isDefined(double value) {
+		return value == value;
+	}
+
+	private static double norm(double value) {
+		return value == value ? value : 0.0;
+	}
+
+	private static double normalize(@Nullable Double value) {
+		return value == null ? Double.NaN : normalize(value.doubleValue());
+	}
+
+	private static double normalize(double value) {
+		if (Double.isInfinite(value)) {
+			return Double.NaN;
+		}
+		// Also replaces negative zero with zero
+		return value == 0.0 ? 0.0 : value;
+	}
+}
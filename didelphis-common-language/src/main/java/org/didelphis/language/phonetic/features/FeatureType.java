@@ -68,6 +68,22 @@ public interface FeatureType<T> {
 
 	@NonNull Collection<T> listUndefined();
 
+	/**
+	 * Creates a new, fully specified feature array containing the same values
+	 * as the one provided. Feature types may override this to provide an array
+	 * specialized to their values.
+	 *
+	 * @param array the array to be copied
+	 *
+	 * @return a new, mutable feature array
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default FeatureArray<T> copyArray(@NonNull FeatureArray<T> array) {
+		return new StandardFeatureArray<>(array);
+	}
+
 	/**
 	 * Checks if the given value is defined or undefined according to the this
 	 * feature model.
@@ -68,6 +68,16 @@ public enum IntegerFeature implements FeatureType<Integer> {
 		return UNDEFINED;
 	}
 
+	@NonNull
+	@Override
+	public FeatureArray<Integer> copyArray(
+			@NonNull FeatureArray<Integer> array
+	) {
+		return array instanceof IntegerFeatureArray
+				? new IntegerFeatureArray((IntegerFeatureArray) array)
+				: new IntegerFeatureArray(array);
+	}
+
 	@Override
 	public int compare(@Nullable Integer v1, @Nullable Integer v2) {
 		int x = v1 == null ? 0 : v1;
@@ -80,6 +90,19 @@ public enum IntegerFeature implements FeatureType<Integer> {
 		return Math.abs(norm(v1) - norm(v2));
 	}
 
+	@Override
+	public double difference(
+			@NonNull FeatureArray<Integer> left,
+			@NonNull FeatureArray<Integer> right
+	) {
+		if (left instanceof IntegerFeatureArray
+				&& right instanceof IntegerFeatureArray) {
+			return ((IntegerFeatureArray) left).difference(
+					(IntegerFeatureArray) right);
+		}
+		return FeatureType.super.difference(left, right);
+	}
+
 	@Override
 	public int intValue(@Nullable Integer value) {
 		return (value == null) ? 0 : value;
@@ -0,0 +1,354 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.model.FeatureModel;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * Class {@code IntegerFeatureArray}
+ * <p>
+ * A {@link FeatureArray} for models using {@link IntegerFeature}, storing its
+ * values in an {@code int[]} alongside a bitset marking which features are
+ * defined. Undefined features are stored as {@code 0}, the value which
+ * {@link IntegerFeature} uses for them when comparing and measuring
+ * differences, so that those operations can read the values directly.
+ * <p>
+ * Like {@link StandardFeatureArray}, the model's constraints are applied
+ * whenever a feature is changed by {@link #set(int, Integer)},
+ * {@link #setInt(int, int)} or {@link #alter(FeatureArray)}, and instances are
+ * equal to any {@link StandardFeatureArray} holding the same values.
+ *
+ * @since 0.4.0
+ */
+public final class IntegerFeatureArray extends AbstractFeatureArray<Integer> {
+
+	private final int[] values;
+	private final long[] defined;
+
+	// Cleared whenever a value changes
+	private int hash;
+
+	/**
+	 * @param value the value to which every feature is initially set
+	 * @param featureModel the model to which the array belongs
+	 */
+	public IntegerFeatureArray(
+			@Nullable Integer value, @NonNull FeatureModel<Integer> featureModel
+	) {
+		super(featureModel);
+		values = new int[size()];
+		defined = new long[(size() + 63) >>> 6];
+		if (value != null) {
+			Arrays.fill(values, value);
+			for (int i = 0; i < size(); i++) {
+				defined[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public IntegerFeatureArray(@NonNull IntegerFeatureArray array) {
+		super(array.getFeatureModel());
+		values = array.values.clone();
+		defined = array.defined.clone();
+	}
+
+	/**
+	 * @param array an array whose features are copied into the new array
+	 */
+	public IntegerFeatureArray(@NonNull FeatureArray<Integer> array) {
+		super(array.getFeatureModel());
+		values = new int[size()];
+		defined = new long[(size() + 63) >>> 6];
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<Integer> sparse
+					= (SparseFeatureArray<Integer>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				write(sparse.indexAt(k), sparse.valueAt(k));
+			}
+		} else {
+			for (int i = 0; i < size(); i++) {
+				write(i, array.get(i));
+			}
+		}
+	}
+
+	@Override
+	public void set(int index, @Nullable Integer value) {
+		writeCheck("set");
+		indexCheck(index);
+		write(index, value);
+		hash = 0;
+		applyConstraints(index);
+	}
+
+	@Override
+	public @Nullable Integer get(int index) {
+		indexCheck(index);
+		return isDefined(index) ? values[index] : null;
+	}
+
+	/**
+	 * Sets the feature at the provided index, without boxing.
+	 *
+	 * @param index the index of the feature
+	 * @param value the new value of the feature
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public void setInt(int index, int value) {
+		writeCheck("setInt");
+		indexCheck(index);
+		values[index] = value;
+		defined[index >>> 6] |= 1L << index;
+		hash = 0;
+		applyConstraints(index);
+	}
+
+	/**
+	 * Retrieves the feature at the provided index, without boxing.
+	 *
+	 * @param index the index of the feature
+	 *
+	 * @return the value of the feature, or {@code 0} if it is undefined
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int getInt(int index) {
+		indexCheck(index);
+		return values[index];
+	}
+
+	/**
+	 * @param index the index of the feature
+	 *
+	 * @return true iff the feature at the provided index is defined
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public boolean isDefined(int index) {
+		indexCheck(index);
+		return (defined[index >>> 6] & 1L << index) != 0;
+	}
+
+	@Override
+	public boolean matches(@NonNull FeatureArray<Integer> array) {
+		sizeCheck(array);
+		if (array instanceof IntegerFeatureArray) {
+			IntegerFeatureArray other = (IntegerFeatureArray) array;
+			int[] those = other.values;
+			for (int i = 0; i < values.length; i++) {
+				// Undefined values are zero, so differing values are only a
+				// conflict where both are defined
+				if (values[i] != those[i] && bothDefined(other, i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<Integer> sparse
+					= (SparseFeatureArray<Integer>) array;
+			for (int k = 0; k < sparse.entries(); k++) {
+				int i = sparse.indexAt(k);
+				Integer y = sparse.valueAt(k);
+				if (y != null && isDefined(i) && y != values[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (int i = 0; i < values.length; i++) {
+			Integer y = array.get(i);
+			if (y != null && isDefined(i) && y != values[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean alter(@NonNull FeatureArray<Integer> array) {
+		writeCheck("alter");
+		sizeCheck(array);
+		IntegerFeatureArray other = array instanceof IntegerFeatureArray
+				? (IntegerFeatureArray) array
+				: new IntegerFeatureArray(array);
+
+		int[] altered = new int[values.length];
+		int count = 0;
+		int[] those = other.values;
+		for (int w = 0; w < defined.length; w++) {
+			for (long bits = other.defined[w]; bits != 0; bits &= bits - 1) {
+				int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+				if ((defined[w] & 1L << i) == 0 || values[i] != those[i]) {
+					altered[count++] = i;
+				}
+			}
+			defined[w] |= other.defined[w];
+		}
+		for (int k = 0; k < count; k++) {
+			values[altered[k]] = those[altered[k]];
+		}
+		if (count > 0) {
+			hash = 0;
+			applyConstraints(altered, count);
+		}
+		return count > 0;
+	}
+
+	@Override
+	public boolean contains(@Nullable Integer value) {
+		for (int i = 0; i < values.length; i++) {
+			boolean isDefined = (defined[i >>> 6] & 1L << i) != 0;
+			if (value == null ? !isDefined : isDefined && values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int compareTo(@NonNull FeatureArray<Integer> o) {
+		if (!(o instanceof IntegerFeatureArray)) {
+			return super.compareTo(o);
+		}
+		sizeCheck(o);
+		// Undefined features compare as zero, which is how they are stored
+		int[] those = ((IntegerFeatureArray) o).values;
+		for (int i = 0; i < values.length; i++) {
+			int comparison = Integer.compare(values[i], those[i]);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public Integer next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		int code = hash;
+		if (code == 0) {
+			// The same as for a list of the boxed values, as specified by
+			// AbstractFeatureArray; undefined values are stored as zero, which
+			// is also the hash of null
+			code = 1;
+			for (int value : values) {
+				code = 31 * code + value;
+			}
+			code += 31 * getSpecification().hashCode();
+			hash = code;
+		}
+		return code;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof IntegerFeatureArray) {
+			IntegerFeatureArray array = (IntegerFeatureArray) obj;
+			return Arrays.equals(defined, array.defined)
+					&& Arrays.equals(values, array.values)
+					&& getSpecification().equals(array.getSpecification());
+		}
+		return !(obj instanceof SparseFeatureArray) && super.equals(obj);
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(";", "[[", "]]");
+		for (int i = 0; i < size(); i++) {
+			joiner.add(String.valueOf(get(i)));
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * Sums the absolute differences between the features of this array and
+	 * another, treating undefined features as zero, as
+	 * {@link IntegerFeature#difference(Integer, Integer)} does.
+	 *
+	 * @param array another array of the same size
+	 *
+	 * @return the total difference between the two arrays
+	 */
+	double difference(@NonNull IntegerFeatureArray array) {
+		sizeCheck(array);
+		int[] those = array.values;
+		double sum = 0.0;
+		for (int i = 0; i < values.length; i++) {
+			sum += Math.abs(values[i] - those[i]);
+		}
+		return sum;
+	}
+
+	private boolean bothDefined(@NonNull IntegerFeatureArray other, int i) {
+		long bit = 1L << i;
+		return (defined[i >>> 6] & other.defined[i >>> 6] & bit) != 0;
+	}
+
+	private void write(int index, @Nullable Integer value) {
+		long bit = 1L << index;
+		if (value == null) {
+			values[index] = 0;
+			defined[index >>> 6] &= ~bit;
+		} else {
+			values[index] = value;
+			defined[index >>> 6] |= bit;
+		}
+	}
+
+	private void indexCheck(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size());
+		}
+	}
+}
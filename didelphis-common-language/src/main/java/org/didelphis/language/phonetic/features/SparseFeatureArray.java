@@ -25,30 +25,38 @@ import org.didelphis.language.phonetic.model.FeatureModel;
 import org.didelphis.utilities.Templates;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.StringJoiner;
 
 /**
  * Class {@code SparseFeatureArray}
+ * <p>
+ * Stores only the features which have been assigned, as parallel arrays of
+ * their indices, in ascending order, and their values. Lookups are binary
+ * searches, and {@link #matches(FeatureArray)} and {@link #alter(FeatureArray)}
+ * merge the entries of two sparse arrays rather than visiting every feature.
  *
  * @since 0.1.0
  */
 public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 
-	private final Map<Integer, T> features;
+	private int[] indices;
+	private Object[] values;
+	private int count;
+
+	// Cleared whenever an entry changes
+	private int hash;
 
 	/**
 	 * @param featureModel
 	 */
 	public SparseFeatureArray(@NonNull FeatureModel<T> featureModel) {
 		super(featureModel);
-		features = new HashMap<>();
+		indices = new int[0];
+		values = new Object[0];
 	}
 
 	/**
@@ -58,11 +66,13 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 	public SparseFeatureArray(
 			@NonNull List<T> list, @NonNull FeatureModel<T> featureModel
 	) {
-		this(featureModel);
+		super(featureModel);
+		indices = new int[list.size()];
+		values = new Object[list.size()];
 		for (int i = 0; i < list.size(); i++) {
 			T value = list.get(i);
 			if (value != null) {
-				features.put(i, value);
+				append(i, value);
 			}
 		}
 	}
@@ -72,12 +82,13 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 	 */
 	public SparseFeatureArray(@NonNull FeatureArray<T> array) {
 		super(array.getFeatureModel());
-		features = new HashMap<>();
+		indices = new int[array.size()];
+		values = new Object[array.size()];
 		FeatureType<T> type = array.getFeatureModel().getFeatureType();
 		for (int i = 0; i < array.size(); i++) {
 			T t = array.get(i);
 			if (type.isDefined(t)) {
-				features.put(i, t);
+				append(i, t);
 			}
 		}
 	}
@@ -87,19 +98,39 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 	 */
 	public SparseFeatureArray(@NonNull SparseFeatureArray<T> array) {
 		super(array.getFeatureModel());
-		features = new HashMap<>(array.features);
+		count = array.count;
+		indices = Arrays.copyOf(array.indices, count);
+		values = Arrays.copyOf(array.values, count);
 	}
 
 	@Override
 	public void set(int index, T value) {
+		writeCheck("set");
 		indexCheck(index);
-		features.put(index, value);
+		hash = 0;
+		int k = Arrays.binarySearch(indices, 0, count, index);
+		if (k >= 0) {
+			values[k] = value;
+			return;
+		}
+		k = -k - 1;
+		if (count == indices.length) {
+			int capacity = Math.max(4, count * 2);
+			indices = Arrays.copyOf(indices, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		System.arraycopy(indices, k, indices, k + 1, count - k);
+		System.arraycopy(values, k, values, k + 1, count - k);
+		indices[k] = index;
+		values[k] = value;
+		count++;
 	}
 
 	@Override
 	public T get(int index) {
 		indexCheck(index);
-		return features.get(index);
+		int k = Arrays.binarySearch(indices, 0, count, index);
+		return k < 0 ? null : valueAt(k);
 	}
 
 	@Override
@@ -107,17 +138,32 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 		if (obj == this) return true;
 		if (!(obj instanceof SparseFeatureArray)) return false;
 		SparseFeatureArray<?> array = (SparseFeatureArray<?>) obj;
-		return super.equals(obj) && features.equals(array.features);
+		if (count != array.count) return false;
+		for (int k = 0; k < count; k++) {
+			if (indices[k] != array.indices[k]
+					|| !Objects.equals(values[k], array.values[k])) {
+				return false;
+			}
+		}
+		return getSpecification().equals(array.getSpecification());
 	}
 
+	/**
+	 * Computes a hash from the specification and the entries; unlike other
+	 * implementations, an entry holding {@code null} is distinct from a
+	 * missing one, as it is in {@link #equals(Object)}
+	 */
 	@Override
 	public int hashCode() {
-		int code = super.hashCode();
-		code *= features.entrySet()
-				.stream()
-				.mapToInt(tEntry -> 31 * tEntry.getKey() *
-						Objects.hashCode(tEntry.getValue()))
-				.reduce(1, (a, b) -> a * b);
+		int code = hash;
+		if (code == 0) {
+			code = getSpecification().hashCode();
+			for (int k = 0; k < count; k++) {
+				code = 31 * code + indices[k];
+				code = 31 * code + Objects.hashCode(values[k]);
+			}
+			hash = code;
+		}
 		return code;
 	}
 
@@ -125,10 +171,28 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 	public boolean matches(@NonNull FeatureArray<T> array) {
 		sizeCheck(array);
 		FeatureType<T> featureType = getFeatureModel().getFeatureType();
-		for (Entry<Integer, T> entry : features.entrySet()) {
-			T x = entry.getValue();
-			T y = array.get(entry.getKey());
-			if ((featureType.isDefined(y)) && !Objects.equals(x, y)) {
+		if (array instanceof SparseFeatureArray) {
+			// Features which the other array does not assign are undefined,
+			// so only the indices common to both need to be compared
+			SparseFeatureArray<T> other = (SparseFeatureArray<T>) array;
+			int j = 0;
+			for (int k = 0; k < count && j < other.count; k++) {
+				while (j < other.count && other.indices[j] < indices[k]) {
+					j++;
+				}
+				if (j < other.count && other.indices[j] == indices[k]) {
+					T y = other.valueAt(j);
+					if (featureType.isDefined(y)
+							&& !Objects.equals(values[k], y)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		for (int k = 0; k < count; k++) {
+			T y = array.get(indices[k]);
+			if (featureType.isDefined(y) && !Objects.equals(values[k], y)) {
 				return false;
 			}
 		}
@@ -137,47 +201,136 @@ public final class SparseFeatureArray<T> extends AbstractFeatureArray<T> {
 
 	@Override
 	public boolean alter(@NonNull FeatureArray<T> array) {
+		writeCheck("alter");
 		sizeCheck(array);
-
 		FeatureType<T> featureType = getFeatureModel().getFeatureType();
 
+		// Collect the defined values of the other array, in ascending order
+		int[] alterIndices;
+		Object[] alterValues;
+		int alterCount = 0;
+		if (array instanceof SparseFeatureArray) {
+			SparseFeatureArray<T> other = (SparseFeatureArray<T>) array;
+			alterIndices = new int[other.count];
+			alterValues = new Object[other.count];
+			for (int j = 0; j < other.count; j++) {
+				T v = other.valueAt(j);
+				if (featureType.isDefined(v)) {
+					alterIndices[alterCount] = other.indices[j];
+					alterValues[alterCount++] = v;
+				}
+			}
+		} else {
+			alterIndices = new int[size()];
+			alterValues = new Object[size()];
+			for (int i = 0; i < size(); i++) {
+				T v = array.get(i);
+				if (featureType.isDefined(v)) {
+					alterIndices[alterCount] = i;
+					alterValues[alterCount++] = v;
+				}
+			}
+		}
+		if (alterCount == 0) {
+			return false;
+		}
+
+		// Merge the two sets of entries, preferring the other array's values
+		int[] mergedIndices = new int[count + alterCount];
+		Object[] mergedValues = new Object[count + alterCount];
+		int merged = 0;
 		boolean changed = false;
-		for (int i = 0; i < size(); i++) {
-			T v = array.get(i);
-			if (featureType.isDefined(v)) {
-				changed = true;
-				features.put(i, v);
+		int k = 0;
+		int j = 0;
+		while (k < count || j < alterCount) {
+			if (j == alterCount || k < count && indices[k] < alterIndices[j]) {
+				mergedIndices[merged] = indices[k];
+				mergedValues[merged++] = values[k++];
+			} else {
+				if (k < count && indices[k] == alterIndices[j]) {
+					changed |= !Objects.equals(values[k], alterValues[j]);
+					k++;
+				} else {
+					changed = true;
+				}
+				mergedIndices[merged] = alterIndices[j];
+				mergedValues[merged++] = alterValues[j++];
 			}
 		}
+		indices = mergedIndices;
+		values = mergedValues;
+		count = merged;
+		hash = 0;
 		return changed;
 	}
 
 	@Override
 	public boolean contains(T value) {
-		return features.containsValue(value);
+		for (int k = 0; k < count; k++) {
+			if (Objects.equals(values[k], value)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
-
 	@Override
 	public Iterator<T> iterator() {
 		List<T> list = new ArrayList<>(size());
-		Collections.fill(list, null);
-		features.forEach(list::set);
+		for (int i = 0; i < size(); i++) {
+			list.add(null);
+		}
+		for (int k = 0; k < count; k++) {
+			list.set(indices[k], valueAt(k));
+		}
 		return list.iterator();
 	}
 
 	@Override
 	public String toString() {
-		return features.entrySet()
-				.stream()
-				.map(entry -> entry.getKey() + "=" + entry.getValue())
-				.collect(Collectors.joining(";", "{", "}"));
+		StringJoiner joiner = new StringJoiner(";", "{", "}");
+		for (int k = 0; k < count; k++) {
+			joiner.add(indices[k] + "=" + values[k]);
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * @return the number of features which have been assigned, including any
+	 *      which were assigned an undefined value
+	 */
+	int entries() {
+		return count;
+	}
+
+	/**
+	 * @param k the position of an entry, less than {@link #entries()}
+	 *
+	 * @return the index of the feature stored in the entry
+	 */
+	int indexAt(int k) {
+		return indices[k];
+	}
+
+	/**
+	 * @param k the position of an entry, less than {@link #entries()}
+	 *
+	 * @return the value stored in the entry
+	 */
+	@SuppressWarnings("unchecked")
+	T valueAt(int k) {
+		return (T) values[k];
+	}
+
+	private void append(int index, T value) {
+		indices[count] = index;
+		values[count++] = value;
 	}
 
 	private void indexCheck(int index) {
-		if (index >= size()) {
+		if (index < 0 || index >= size()) {
 			String message = Templates.create().add(
-					"Provided index {} is larger than the defined size {}",
+					"Provided index {} is outside the defined size {}",
 					"of the feature model."
 			).with(index, size()).build();
 			throw new IndexOutOfBoundsException(message);
@@ -19,17 +19,13 @@
 
 package org.didelphis.language.phonetic.features;
 
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 
-import org.didelphis.language.phonetic.model.Constraint;
 import org.didelphis.language.phonetic.model.FeatureModel;
 
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -37,14 +33,20 @@ import java.util.stream.Collectors;
 
 /**
  * Class {@code StandardFeatureArray}
+ * <p>
+ * Instances are equal to any other array of the same specification holding
+ * the same values, including those specialized to a feature type such as
+ * {@link IntegerFeatureArray}, but never to a {@link SparseFeatureArray}.
  *
  * @since 0.1.0
  */
-@EqualsAndHashCode (callSuper = true)
 public final class StandardFeatureArray<T> extends AbstractFeatureArray<T> {
 
 	private final List<T> features;
 
+	// Cleared whenever a value changes
+	private int hash;
+
 	/**
 	 * @param value
 	 * @param featureModel
@@ -92,7 +94,9 @@ public final class StandardFeatureArray<T> extends AbstractFeatureArray<T> {
 
 	@Override
 	public void set(int index, @Nullable T value) {
+		writeCheck("set");
 		features.set(index, value);
+		hash = 0;
 		applyConstraints(index);
 	}
 
@@ -117,21 +121,24 @@ public final class StandardFeatureArray<T> extends AbstractFeatureArray<T> {
 
 	@Override
 	public boolean alter(@NonNull FeatureArray<T> array) {
+		writeCheck("alter");
 		sizeCheck(array);
 
 		FeatureType<T> featureType = getFeatureModel().getFeatureType();
-		Collection<Integer> alteredIndices = new HashSet<>();
+		int[] altered = new int[features.size()];
+		int count = 0;
 		for (int i = 0; i < features.size(); i++) {
 			T v = array.get(i);
 			if (featureType.isDefined(v) && !Objects.equals(get(i), v)) {
-				alteredIndices.add(i);
+				altered[count++] = i;
 				features.set(i, v);
+				hash = 0;
 			}
 		}
-		for (int index : alteredIndices) {
-			applyConstraints(index);
+		if (count > 0) {
+			applyConstraints(altered, count);
 		}
-		return !alteredIndices.isEmpty();
+		return count > 0;
 	}
 
 	@Override
@@ -139,6 +146,26 @@ public final class StandardFeatureArray<T> extends AbstractFeatureArray<T> {
 		return features.contains(value);
 	}
 
+	@Override
+	public int hashCode() {
+		int code = hash;
+		if (code == 0) {
+			code = 31 * getSpecification().hashCode() + features.hashCode();
+			hash = code;
+		}
+		return code;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof StandardFeatureArray) {
+			StandardFeatureArray<?> array = (StandardFeatureArray<?>) obj;
+			return features.equals(array.features)
+					&& getSpecification().equals(array.getSpecification());
+		}
+		return !(obj instanceof SparseFeatureArray) && super.equals(obj);
+	}
+
 	@Override
 	public String toString() {
 		return features.stream()
@@ -156,13 +183,4 @@ public final class StandardFeatureArray<T> extends AbstractFeatureArray<T> {
 		return !(featureType.isDefined(x) && featureType.isDefined(y)) ||
 				Objects.equals(x, y);
 	}
-
-	private void applyConstraints(int index) {
-		for (Constraint<T> constraint : getFeatureModel().getConstraints()) {
-			FeatureArray<T> source = constraint.getSource();
-			if (source.get(index) != null && matches(source)) {
-				alter(constraint.getTarget());
-			}
-		}
-	}
 }
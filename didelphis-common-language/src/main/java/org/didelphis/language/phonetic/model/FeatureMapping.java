@@ -118,4 +118,18 @@ public interface FeatureMapping<T> extends ModelBearer<T> {
 	 *      character not present in the mapping
 	 */
 	@NonNull Segment<T> parseSegment(@NonNull String string);
+
+	/**
+	 * Provides the cache used by {@link #parseSegment(String)}, if the
+	 * implementation has one, which can be used to inspect its statistics.
+	 *
+	 * @return the cache of parsed segments, or {@code null} if the mapping
+	 *      does not cache them
+	 *
+	 * @since 0.4.0
+	 */
+	@Nullable
+	default SegmentCache<T> getSegmentCache() {
+		return null;
+	}
 }
@@ -26,6 +26,7 @@ import org.didelphis.language.phonetic.SpecificationBearer;
 import org.didelphis.language.phonetic.features.FeatureArray;
 import org.didelphis.language.phonetic.features.FeatureType;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,6 +47,30 @@ public interface FeatureModel<T> extends SpecificationBearer {
 	 */
 	@NonNull List<Constraint<T>> getConstraints();
 
+	/**
+	 * Retrieves the constraints whose source specifies a value for the feature
+	 * at the provided index, which are the only constraints that a change to
+	 * that feature can trigger. Implementations should index their constraints
+	 * rather than filter them on each call.
+	 *
+	 * @param index the index of a feature in this model
+	 *
+	 * @return the constraints triggered by the feature, in the order of
+	 *      {@link #getConstraints()}
+	 *
+	 * @since 0.4.0
+	 */
+	@NonNull
+	default List<Constraint<T>> getConstraints(int index) {
+		List<Constraint<T>> list = new ArrayList<>();
+		for (Constraint<T> constraint : getConstraints()) {
+			if (constraint.getSource().get(index) != null) {
+				list.add(constraint);
+			}
+		}
+		return list;
+	}
+
 	/**
 	 * Parses a well-formed feature {@link String} into the corresponding array
 	 *
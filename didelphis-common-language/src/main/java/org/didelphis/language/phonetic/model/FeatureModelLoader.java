@@ -46,7 +46,6 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import static java.text.Normalizer.*;
 import static org.didelphis.language.phonetic.model.ModelConstants.*;
@@ -193,13 +192,12 @@ public final class FeatureModelLoader<T> {
 		specification = parseSpecification();
 
 		Map<String, FeatureArray<T>> aliases = new HashMap<>();
-		List<Constraint<T>> constraints = new ArrayList<>();
-
-		featureModel = new GeneralFeatureModel<>(featureType,
+		GeneralFeatureModel<T> model = new GeneralFeatureModel<>(featureType,
 				specification,
-				constraints,
+				Collections.emptyList(),
 				aliases
 		);
+		featureModel = model;
 
 		for (String string : zoneData.get(ParseZone.ALIASES)) {
 			List<String> split = EQUALS.split(string, 2);
@@ -209,10 +207,12 @@ public final class FeatureModelLoader<T> {
 		}
 
 		// populate constraints
+		List<Constraint<T>> constraints = new ArrayList<>();
 		for (String s : zoneData.get(ParseZone.CONSTRAINTS)) {
 			Constraint<T> constraint = parseConstraint(s);
 			constraints.add(constraint);
 		}
+		model.addConstraints(constraints);
 
 		featureMapping = new GeneralFeatureMapping<>(featureModel,
 				populateSymbols(),
@@ -323,6 +323,7 @@ public final class FeatureModelLoader<T> {
 	@NonNull
 	private Map<String, FeatureArray<T>> populateSymbols() {
 		Map<String, FeatureArray<T>> featureMap = new LinkedHashMap<>();
+		Map<FeatureArray<T>, String> symbols = new HashMap<>();
 		Iterable<String> lines = zoneData.get(ParseZone.SYMBOLS);
 		for (String entry : lines) {
 			Match<String> match = SYMBOL_PATTERN.match(entry);
@@ -347,9 +348,12 @@ public final class FeatureModelLoader<T> {
 					String value = values.get(i);
 					features.set(i, featureType.parseValue(value));
 				}
-				if (checkFeatureCollisions(symbol, featureMap, features)) {
-					String norm = normalize(symbol, Form.NFD);
-					featureMap.put(norm, features);
+				String norm = normalize(symbol, Form.NFD);
+				if (checkFeatureCollisions(norm, symbols, features)) {
+					FeatureArray<T> previous = featureMap.put(norm, features);
+					if (previous != null) {
+						symbols.remove(previous, norm);
+					}
 				}
 			} else if (!entry.trim().isEmpty()) {
 				LOG.error("Unrecognized symbol definition {}", entry);
@@ -374,17 +378,14 @@ public final class FeatureModelLoader<T> {
 
 	private static <T> boolean checkFeatureCollisions(
 			@NonNull String symbol,
-			@NonNull Map<String, FeatureArray<T>> featureMap,
+			@NonNull Map<FeatureArray<T>, String> symbols,
 			@NonNull FeatureArray<T> features
 	) {
-		if (featureMap.containsValue(features)) {
-			for (Entry<String, FeatureArray<T>> e : featureMap.entrySet()) {
-				if (features.equals(e.getValue())) {
-					LOG.warn("Collision between features {} and {} --- both "
-							+ "have value {}", symbol, e.getKey(), features);
-					return false;
-				}
-			}
+		String existing = symbols.putIfAbsent(features, symbol);
+		if (existing != null) {
+			LOG.warn("Collision between features {} and {} --- both "
+					+ "have value {}", symbol, existing, features);
+			return false;
 		}
 		return true;
 	}
@@ -26,7 +26,7 @@ import org.didelphis.language.phonetic.features.EmptyFeatureArray;
 import org.didelphis.language.phonetic.features.FeatureArray;
 import org.didelphis.language.phonetic.features.FeatureType;
 import org.didelphis.language.phonetic.features.SparseFeatureArray;
-import org.didelphis.language.phonetic.features.StandardFeatureArray;
+import org.didelphis.language.phonetic.segments.ImmutableSegment;
 import org.didelphis.language.phonetic.segments.Segment;
 import org.didelphis.language.phonetic.segments.SemidefinedSegment;
 import org.didelphis.language.phonetic.segments.StandardSegment;
@@ -47,15 +47,24 @@ import java.util.stream.Collectors;
 import static org.didelphis.language.phonetic.model.ModelConstants.*;
 
 
-@ToString(exclude = "hash")
+@ToString(exclude = {"hash", "cache", "symbolTrie"})
 public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 
+	/**
+	 * The default number of parsed segments held by a mapping's cache; this
+	 * comfortably exceeds the number of distinct segments in most data
+	 */
+	public static final int DEFAULT_CACHE_CAPACITY = 4096;
+
 	private final FeatureSpecification specification;
 	private final FeatureModel<T> featureModel;
 
 	private final Map<String, FeatureArray<T>> featureMap;
 	private final Map<String, FeatureArray<T>> modifiers;
 	private final List<String> orderedKeys;
+	private final SymbolTrie symbolTrie;
+
+	private final SegmentCache<T> cache;
 
 	private int hash;
 
@@ -64,6 +73,25 @@ public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 			@NonNull Map<String, FeatureArray<T>> featureMap,
 			@NonNull Map<String, FeatureArray<T>> modifiers
 	) {
+		this(featureModel, featureMap, modifiers, DEFAULT_CACHE_CAPACITY);
+	}
+
+	/**
+	 * @param featureModel the model from which the mapping's features are taken
+	 * @param featureMap a map from primary symbols to their features
+	 * @param modifiers a map from modifier symbols to their features
+	 * @param cacheCapacity the maximum number of parsed segments to be cached
+	 *      by {@link #parseSegment(String)}; if zero, nothing is cached
+	 *
+	 * @since 0.4.0
+	 */
+	public GeneralFeatureMapping(
+			@NonNull FeatureModel<T> featureModel,
+			@NonNull Map<String, FeatureArray<T>> featureMap,
+			@NonNull Map<String, FeatureArray<T>> modifiers,
+			int cacheCapacity
+	) {
+		cache = new SegmentCache<>(cacheCapacity);
 		specification = featureModel.getSpecification();
 		this.featureModel = featureModel;
 		this.featureMap = Collections.unmodifiableMap(featureMap);
@@ -75,6 +103,7 @@ public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 			int y = Normalizer.normalize(s2, Normalizer.Form.NFD).length();
 			return -1 * (Integer.compare(x, y));
 		});
+		symbolTrie = new SymbolTrie(orderedKeys);
 	}
 
 	@NonNull
@@ -141,13 +170,36 @@ public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 	public FeatureArray<T> getFeatureArray(@NonNull String key) {
 		key = Normalizer.normalize(key, Normalizer.Form.NFD);
 		return featureMap.containsKey(key)
-				? new StandardFeatureArray<>(featureMap.get(key))
+				? featureModel.getFeatureType().copyArray(featureMap.get(key))
 				: new SparseFeatureArray<>(featureModel);
 	}
 
+	/**
+	 * Parses a string into a new {@link Segment}. Segments parsed from each
+	 * distinct string are cached as templates, so that parsing the same string
+	 * again only copies the template's features.
+	 */
 	@NonNull
 	@Override
 	public Segment<T> parseSegment(@NonNull String string) {
+		if (featureMap.isEmpty()) {
+			return parse(string);
+		}
+		Segment<T> template = cache.get(string);
+		if (template == null) {
+			template = cache.put(string, toTemplate(parse(string)));
+		}
+		return fromTemplate(template);
+	}
+
+	@NonNull
+	@Override
+	public SegmentCache<T> getSegmentCache() {
+		return cache;
+	}
+
+	@NonNull
+	private Segment<T> parse(@NonNull String string) {
 		string = Normalizer.normalize(string, Normalizer.Form.NFD);
 
 		if (featureMap.isEmpty()) {
@@ -229,17 +281,44 @@ public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 				orderedKeys.equals(that.orderedKeys);
 	}
 
+	/**
+	 * Templates are held only by the cache, so a freshly parsed segment is
+	 * made immutable where that does not lose information; semi-defined
+	 * segments are stored as they are and are never exposed
+	 */
 	@NonNull
-	private String findBestPrimarySymbol(String substring) {
-		String best = "";
-		String s1 = DASH.replace(substring, "");
-		for (String key : orderedKeys) {
-			String s2 = DASH.replace(key, "");
-			if (s1.startsWith(s2) && key.length() > best.length()) {
-				best = key;
-			}
+	private static <T> Segment<T> toTemplate(@NonNull Segment<T> segment) {
+		return segment.getClass() == StandardSegment.class
+				? new ImmutableSegment<>(segment)
+				: segment;
+	}
+
+	@NonNull
+	private Segment<T> fromTemplate(@NonNull Segment<T> template) {
+		if (!template.isDefinedInModel()) {
+			// undefined segments cannot be altered, so can be shared
+			return template;
+		}
+		String symbol = template.getSymbol();
+		FeatureArray<T> features = template.getFeatures();
+		FeatureArray<T> array = features instanceof SparseFeatureArray
+				? new SparseFeatureArray<>((SparseFeatureArray<T>) features)
+				: featureModel.getFeatureType().copyArray(features);
+		if (template instanceof SemidefinedSegment) {
+			SemidefinedSegment<T> segment = (SemidefinedSegment<T>) template;
+			return new SemidefinedSegment<>(
+					symbol,
+					segment.getPrefix(),
+					segment.getSuffix(),
+					array
+			);
 		}
-		return best;
+		return new StandardSegment<>(symbol, array);
+	}
+
+	@NonNull
+	private String findBestPrimarySymbol(String substring) {
+		return symbolTrie.findLongestPrefix(substring);
 	}
 
 	@NonNull
@@ -257,7 +336,7 @@ public class GeneralFeatureMapping<T> implements FeatureMapping<T> {
 
 		for (Map.Entry<String, FeatureArray<T>> entry : modifiers.entrySet()) {
 			FeatureArray<T> diacriticFeatures = entry.getValue();
-			FeatureArray<T> compiled = new StandardFeatureArray<>(bestFeatures);
+			FeatureArray<T> compiled = type.copyArray(bestFeatures);
 			compiled.alter(diacriticFeatures);
 
 			if (!compiled.equals(bestFeatures)) {
@@ -30,6 +30,8 @@ import org.didelphis.language.phonetic.features.SparseFeatureArray;
 import org.didelphis.utilities.Templates;
 
 import java.text.Normalizer.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -43,20 +45,25 @@ import static org.didelphis.language.phonetic.model.ModelConstants.*;
  *
  * @since 0.1.0
  */
-@ToString(exclude = "hash")
+@ToString(exclude = {"hash", "constraintView", "constraintIndex"})
 public final class GeneralFeatureModel<T> implements FeatureModel<T> {
 
 	private int hash;
 
 	private final FeatureSpecification specification;
 	private final List<Constraint<T>> constraints;
+	private final List<Constraint<T>> constraintView;
 	private final Map<String, FeatureArray<T>> aliases;
 	private final FeatureType<T> featureType;
 
+	// Rebuilt whenever constraints are added, which only the loader can do
+	private ConstraintIndex<T> constraintIndex;
+
 	/**
 	 * @param featureType
 	 * @param specification
-	 * @param constraints
+	 * @param constraints the model's constraints; the list is copied, so
+	 *      later changes to it do not affect the model
 	 * @param aliases
 	 */
 	public GeneralFeatureModel(
@@ -67,14 +74,37 @@ public final class GeneralFeatureModel<T> implements FeatureModel<T> {
 	) {
 		this.featureType = featureType;
 		this.specification = specification;
-		this.constraints = Collections.unmodifiableList(constraints);
+		this.constraints = new ArrayList<>(constraints);
+		constraintView = Collections.unmodifiableList(this.constraints);
 		this.aliases = Collections.unmodifiableMap(aliases);
+		constraintIndex = new ConstraintIndex<>(
+				this.constraints, specification.size());
+	}
+
+	/**
+	 * Adds constraints to the model and rebuilds the index used by
+	 * {@link #getConstraints(int)}; used by {@link FeatureModelLoader}, which
+	 * can only parse constraints once the model exists
+	 *
+	 * @param added the constraints to add
+	 */
+	void addConstraints(@NonNull Collection<Constraint<T>> added) {
+		constraints.addAll(added);
+		constraintIndex = new ConstraintIndex<>(
+				constraints, specification.size());
+		hash = 0;
 	}
 
 	@NonNull
 	@Override
 	public List<Constraint<T>> getConstraints() {
-		return constraints;
+		return constraintView;
+	}
+
+	@NonNull
+	@Override
+	public List<Constraint<T>> getConstraints(int index) {
+		return constraintIndex.get(index);
 	}
 
 	@NonNull
@@ -147,6 +177,36 @@ public final class GeneralFeatureModel<T> implements FeatureModel<T> {
 		return hash;
 	}
 
+	/**
+	 * Lists, for each feature, the constraints whose source specifies it
+	 */
+	private static final class ConstraintIndex<T> {
+
+		private final List<List<Constraint<T>>> lists;
+
+		private ConstraintIndex(
+				@NonNull List<Constraint<T>> constraints, int size
+		) {
+			lists = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				List<Constraint<T>> list = new ArrayList<>();
+				for (Constraint<T> constraint : constraints) {
+					if (constraint.getSource().get(i) != null) {
+						list.add(constraint);
+					}
+				}
+				lists.add(list.isEmpty()
+						? Collections.emptyList()
+						: Collections.unmodifiableList(list));
+			}
+		}
+
+		@NonNull
+		private List<Constraint<T>> get(int index) {
+			return lists.get(index);
+		}
+	}
+
 	private static int retrieveIndex(
 			@NonNull String label,
 			@NonNull String string,
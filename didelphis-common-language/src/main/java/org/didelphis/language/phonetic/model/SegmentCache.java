@@ -0,0 +1,220 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.model;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+import org.didelphis.language.phonetic.segments.Segment;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class {@code SegmentCache}
+ * <p>
+ * A bounded, thread-safe cache from the strings passed to {@link
+ * FeatureMapping#parseSegment(String)} to the segments parsed from them, used
+ * as templates from which the mapping produces new segments. Templates are
+ * never modified, so they may be shared between threads.
+ * <p>
+ * Once the cache is full, adding a template evicts another chosen by the
+ * CLOCK policy, an approximation of least-recently-used: the keys are held in
+ * a ring, a lookup marks its template as referenced, and a hand sweeps the
+ * ring, clearing marks until it reaches an unmarked template to evict. Lookups
+ * take no lock and eviction costs amortized constant time; only additions,
+ * which follow parsing a segment anyway, are serialized.
+ * <p>
+ * The cache records the number of hits, misses, and evictions, which can be
+ * used to judge whether its capacity suits the data being parsed.
+ *
+ * @param <T> the type of feature data used by the segments' model
+ *
+ * @since 0.4.0
+ */
+@ToString(of = {"capacity", "hits", "misses", "evictions"})
+public final class SegmentCache<T> {
+
+	private final int capacity;
+	private final Map<String, Entry<T>> templates;
+
+	// The ring of keys swept by the clock hand; guarded by its own lock
+	private final String[] keys;
+	private int count;
+	private int hand;
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	/**
+	 * @param capacity the maximum number of templates to be held; if zero,
+	 *      nothing is cached
+	 *
+	 * @throws IllegalArgumentException if {@code capacity} is negative
+	 */
+	public SegmentCache(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException(
+					"Cache capacity cannot be negative: " + capacity);
+		}
+		this.capacity = capacity;
+		templates = new ConcurrentHashMap<>();
+		keys = new String[capacity];
+		hits = new LongAdder();
+		misses = new LongAdder();
+		evictions = new LongAdder();
+	}
+
+	/**
+	 * @return the maximum number of templates held by the cache
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of templates currently held by the cache
+	 */
+	public int size() {
+		return templates.size();
+	}
+
+	/**
+	 * @return the number of lookups which found a template
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups which did not find a template
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of templates removed to make room for others
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the proportion of lookups which found a template, or zero if
+	 *      there have been no lookups
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0.0 : (double) h / total;
+	}
+
+	/**
+	 * Removes all templates from the cache and resets its statistics
+	 */
+	public void clear() {
+		synchronized (keys) {
+			templates.clear();
+			Arrays.fill(keys, null);
+			count = 0;
+			hand = 0;
+		}
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	@Nullable
+	Segment<T> get(@NonNull String string) {
+		Entry<T> entry = templates.get(string);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		if (!entry.referenced) {
+			entry.referenced = true;
+		}
+		return entry.template;
+	}
+
+	/**
+	 * Adds a template to the cache, unless another thread has already done so
+	 *
+	 * @return the template held by the cache for the string, or the provided
+	 *      template if the cache has no capacity
+	 */
+	@NonNull
+	Segment<T> put(@NonNull String string, @NonNull Segment<T> template) {
+		if (capacity == 0) {
+			return template;
+		}
+		synchronized (keys) {
+			Entry<T> previous = templates.get(string);
+			if (previous != null) {
+				return previous.template;
+			}
+			int slot = count < capacity ? count++ : evict();
+			keys[slot] = string;
+			templates.put(string, new Entry<>(template));
+			return template;
+		}
+	}
+
+	/**
+	 * Advances the hand to the first unreferenced template, clearing the marks
+	 * of those it passes, and removes it; called only while the cache is full
+	 * and the lock is held, and so ends within two turns of the ring
+	 *
+	 * @return the slot freed in the ring
+	 */
+	private int evict() {
+		while (true) {
+			int slot = hand;
+			hand = hand + 1 == capacity ? 0 : hand + 1;
+			Entry<T> entry = templates.get(keys[slot]);
+			if (entry.referenced) {
+				entry.referenced = false;
+			} else {
+				templates.remove(keys[slot]);
+				evictions.increment();
+				return slot;
+			}
+		}
+	}
+
+	private static final class Entry<T> {
+
+		private final Segment<T> template;
+
+		// Set by lookups and cleared by the clock hand
+		private volatile boolean referenced;
+
+		private Entry(Segment<T> template) {
+			this.template = template;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.model;
+
+import lombok.NonNull;
+
+import org.didelphis.language.parsing.CharTrie;
+
+import java.util.List;
+
+/**
+ * Class {@code SymbolTrie}
+ * <p>
+ * A {@link CharTrie} over the primary symbols of a {@link FeatureMapping}, used
+ * to find the longest symbol at the start of a string in time proportional to
+ * the length of the string rather than to the number of symbols.
+ * <p>
+ * Tie bars and other combining double marks (U+035C to U+0362, the characters
+ * matched by {@link ModelConstants#DASH}) are ignored, both in the symbols and
+ * in the strings searched, so that {@code ts}, {@code t͡s}, and {@code t͜s} are
+ * all found by the same path.
+ *
+ * @since 0.4.0
+ */
+final class SymbolTrie {
+
+	private static final char DASH_START = '\u035C';
+	private static final char DASH_END   = '\u0362';
+
+	private final CharTrie<String> trie;
+
+	/**
+	 * @param symbols the symbols to be searched; where several symbols match
+	 *      the same string, the longest is preferred and, among symbols of the
+	 *      same length, the one which occurs first in this list
+	 */
+	SymbolTrie(@NonNull List<String> symbols) {
+		CharTrie.Builder<String> builder = CharTrie.builder(SymbolTrie::isDash);
+		for (String symbol : symbols) {
+			builder.put(symbol, symbol);
+		}
+		trie = builder.build();
+	}
+
+	/**
+	 * Finds the symbol which best matches the start of the provided string,
+	 * ignoring tie bars in both
+	 *
+	 * @param string the string to be searched; not null
+	 *
+	 * @return the longest symbol whose characters, other than tie bars, are a
+	 *      prefix of those of the string, or an empty string if there is none
+	 */
+	@NonNull
+	String findLongestPrefix(@NonNull String string) {
+		String symbol = trie.find(string, 0);
+		return symbol == null ? "" : symbol;
+	}
+
+	private static boolean isDash(int c) {
+		return DASH_START <= c && c <= DASH_END;
+	}
+}
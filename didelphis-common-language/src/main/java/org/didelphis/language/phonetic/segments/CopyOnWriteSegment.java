@@ -0,0 +1,108 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.segments;
+
+import lombok.NonNull;
+
+import org.didelphis.language.phonetic.features.FeatureArray;
+import org.didelphis.language.phonetic.features.SparseFeatureArray;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Class {@code CopyOnWriteSegment}
+ * <p>
+ * A segment which shares the symbol and features of an immutable template
+ * segment until it is changed. The template's features are copied the first
+ * time {@link #alter(Segment)} makes a change, so that many segments can be
+ * backed by a single template without any of them observing changes made to
+ * another.
+ * <p>
+ * The features of the template are read through {@link #getFeatures()} while
+ * the segment is unaltered; they are read-only, so modifying them directly
+ * throws an {@link UnsupportedOperationException} rather than changing every
+ * segment sharing the template.
+ *
+ * @param <T> the type of feature data used by the segment's model
+ *
+ * @since 0.4.0
+ */
+public final class CopyOnWriteSegment<T> extends StandardSegment<T> {
+
+	private final ImmutableSegment<T> template;
+
+	@Nullable
+	private FeatureArray<T> copy;
+
+	/**
+	 * @param template the segment whose symbol and features are shared until
+	 *      this segment is altered
+	 */
+	public CopyOnWriteSegment(@NonNull ImmutableSegment<T> template) {
+		super(template);
+		this.template = template;
+	}
+
+	@Override
+	public boolean alter(@NonNull Segment<T> segment) {
+		if (copy != null) {
+			return copy.alter(segment.getFeatures());
+		}
+		FeatureArray<T> features = super.getFeatures();
+		FeatureArray<T> array = features instanceof SparseFeatureArray
+				? new SparseFeatureArray<>((SparseFeatureArray<T>) features)
+				: getFeatureModel().getFeatureType().copyArray(features);
+		if (array.alter(segment.getFeatures())) {
+			copy = array;
+			return true;
+		}
+		return false;
+	}
+
+	@NonNull
+	@Override
+	public FeatureArray<T> getFeatures() {
+		return copy == null ? super.getFeatures() : copy;
+	}
+
+	/**
+	 * @return true iff this segment still shares the features of its template
+	 */
+	public boolean isShared() {
+		return copy == null;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o instanceof CopyOnWriteSegment) {
+			CopyOnWriteSegment<?> that = (CopyOnWriteSegment<?>) o;
+			if (template == that.template && copy == null && that.copy == null) {
+				return true;
+			}
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+}
@@ -21,12 +21,18 @@ package org.didelphis.language.phonetic.segments;
 
 import lombok.NonNull;
 
+import org.didelphis.language.phonetic.features.AbstractFeatureArray;
 import org.didelphis.language.phonetic.features.EmptyFeatureArray;
 import org.didelphis.language.phonetic.features.FeatureArray;
 import org.didelphis.language.phonetic.model.FeatureModel;
 
 /**
  * Class {@code ImmutableSegment}
+ * <p>
+ * A segment which cannot be altered. Its features are a read-only copy of
+ * those it is created with, made by
+ * {@link AbstractFeatureArray#readOnlyCopy(FeatureArray)}, so they cannot be
+ * changed through {@link #getFeatures()} either.
  *
  * @since 0.1.0
  */
@@ -38,7 +44,7 @@ public class ImmutableSegment<T> extends StandardSegment<T> {
 	 * @param segment the {@link Segment} to be copied
 	 */
 	public ImmutableSegment(@NonNull Segment<T> segment) {
-		super(segment);
+		this(segment.getSymbol(), segment.getFeatures());
 	}
 
 	/**
@@ -48,7 +54,7 @@ public class ImmutableSegment<T> extends StandardSegment<T> {
 	 * @param featureArray the feature array representing this segment
 	 */
 	public ImmutableSegment(String symbol, FeatureArray<T> featureArray) {
-		super(symbol, featureArray);
+		super(symbol, AbstractFeatureArray.readOnlyCopy(featureArray));
 	}
 
 	public ImmutableSegment(String symbol, FeatureModel<T> model) {
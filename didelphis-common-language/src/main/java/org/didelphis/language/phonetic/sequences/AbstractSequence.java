@@ -29,7 +29,6 @@ import org.didelphis.structures.contracts.Delegating;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -56,7 +55,7 @@ public abstract class AbstractSequence<T>
 	}
 
 	protected AbstractSequence(@NonNull FeatureModel<T> featureModel) {
-		segments = new LinkedList<>();
+		segments = new ArrayList<>();
 		this.featureModel = featureModel;
 	}
 
@@ -64,7 +63,7 @@ public abstract class AbstractSequence<T>
 			@NonNull Collection<Segment<T>> segments,
 			@NonNull FeatureModel<T> featureModel
 	) {
-		this.segments = new LinkedList<>(segments);
+		this.segments = new ArrayList<>(segments);
 		this.featureModel = featureModel;
 	}
 
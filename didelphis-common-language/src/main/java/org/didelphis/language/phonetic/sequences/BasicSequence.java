@@ -139,12 +139,18 @@ public class BasicSequence<T> extends AbstractSequence<T> {
 
 	@Override
 	public boolean startsWith(@NonNull Sequence<T> sequence) {
-		if (sequence.size() > size()) {
+		return regionMatches(0, sequence);
+	}
+
+	@Override
+	public boolean regionMatches(int offset, @NonNull Sequence<T> other) {
+		int bound = other.size();
+		if (offset < 0 || offset + bound > size()) {
 			return false;
 		}
-		int bound = sequence.size();
+		List<Segment<T>> segments = getSegments();
 		for (int i = 0; i < bound; i++) {
-			if (!get(i).matches(sequence.get(i))) {
+			if (!segments.get(offset + i).matches(other.get(i))) {
 				return false;
 			}
 		}
@@ -48,6 +48,29 @@ public interface Sequence<T>
 
 	boolean startsWith(@NonNull Sequence<T> sequence);
 
+	/**
+	 * Checks whether the segments of this sequence, starting at the provided
+	 * offset, match those of another sequence, without copying either; this
+	 * is equivalent to {@code subsequence(offset).startsWith(other)} for any
+	 * offset within the sequence.
+	 *
+	 * @param offset the index in this sequence at which to begin comparing
+	 * @param other the sequence to compare against; not null
+	 *
+	 * @return true iff each segment of {@code other} is matched by the
+	 *      segment of this sequence at the corresponding index; false if the
+	 *      offset is negative, or {@code other} extends past the end of this
+	 *      sequence
+	 *
+	 * @since 0.4.0
+	 */
+	default boolean regionMatches(int offset, @NonNull Sequence<T> other) {
+		if (offset < 0 || offset > size()) {
+			return false;
+		}
+		return subsequence(offset).startsWith(other);
+	}
+
 	@NonNull Sequence<T> remove(int start, int end);
 
 	boolean matches(@NonNull Sequence<T> sequence);
@@ -0,0 +1,129 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import org.didelphis.language.automata.parsing.StringParser;
+import org.didelphis.language.automata.statemachines.StandardStateMachine;
+import org.didelphis.structures.maps.GeneralMultiMap;
+import org.didelphis.structures.maps.interfaces.MultiMap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomatonInfoTest {
+
+	@Test
+	void testLiteral() {
+		AutomatonInfo<String> info = new Regex("abc").getInfo();
+		assertEquals(3, info.getMinLength());
+		assertEquals(3, info.getMaxLength());
+		assertEquals("abc", info.getLiteral());
+		assertEquals(Collections.singleton("a"), info.getFirstSymbols());
+		assertEquals(Collections.singletonList("abc"), info.getRequiredLiterals());
+	}
+
+	@Test
+	void testLengths() {
+		AutomatonInfo<String> info = new Regex("a.c?d").getInfo();
+		assertEquals(3, info.getMinLength());
+		assertEquals(4, info.getMaxLength());
+		assertTrue(info.isBounded());
+		assertFalse(info.admitsLength(2));
+		assertTrue(info.admitsLength(4));
+		assertFalse(info.admitsLength(5));
+	}
+
+	@Test
+	void testUnbounded() {
+		AutomatonInfo<String> info = new Regex("[a-z]+ing").getInfo();
+		assertEquals(4, info.getMinLength());
+		assertFalse(info.isBounded());
+		assertNull(info.getFirstSymbols());
+		assertEquals(Collections.singletonList("ing"), info.getRequiredLiterals());
+	}
+
+	@Test
+	void testAnchors() {
+		assertTrue(new Regex("^ab").getInfo().isStartAnchored());
+		assertFalse(new Regex("^ab").getInfo().isEndAnchored());
+		assertTrue(new Regex("(?:a$|b$)").getInfo().isEndAnchored());
+		assertFalse(new Regex("(?:a$|b)").getInfo().isEndAnchored());
+	}
+
+	@Test
+	void testAlternation() {
+		AutomatonInfo<String> info = new Regex("(?:foo|ba)r").getInfo();
+		assertEquals(3, info.getMinLength());
+		assertEquals(4, info.getMaxLength());
+		assertEquals(new HashSet<>(Arrays.asList("f", "b")), info.getFirstSymbols());
+		assertEquals(Collections.singletonList("r"), info.getRequiredLiterals());
+		assertNull(info.getLiteral());
+	}
+
+	@Test
+	void testRepetitionLiterals() {
+		AutomatonInfo<String> info = new Regex("x(?:ab)+y").getInfo();
+		assertEquals(Arrays.asList("xab", "aby"), info.getRequiredLiterals());
+	}
+
+	@Test
+	void testInsensitive() {
+		AutomatonInfo<String> info = new Regex("abc", true).getInfo();
+		assertEquals(3, info.getMinLength());
+		assertNull(info.getFirstSymbols());
+		assertTrue(info.getRequiredLiterals().isEmpty());
+	}
+
+	@Test
+	void testSpecials() {
+		MultiMap<String, String> specials = new GeneralMultiMap<>();
+		specials.add("V", "a");
+		specials.add("V", "ei");
+		StringParser parser = new StringParser(specials);
+		Automaton<String> machine = StandardStateMachine.create("M", "#Vt", parser);
+		AutomatonInfo<String> info = machine.getInfo();
+		assertEquals(2, info.getMinLength());
+		assertEquals(3, info.getMaxLength());
+		assertTrue(info.isStartAnchored());
+		assertEquals(new HashSet<>(Arrays.asList("a", "e")), info.getFirstSymbols());
+		assertEquals(Collections.singletonList("t"), info.getRequiredLiterals());
+	}
+
+	@Test
+	void testNegative() {
+		Automaton<String> machine = StandardStateMachine.create("M", "a!b", new StringParser());
+		AutomatonInfo<String> info = machine.getInfo();
+		assertEquals(2, info.getMinLength());
+		assertEquals(2, info.getMaxLength());
+		assertEquals(Collections.singletonList("a"), info.getRequiredLiterals());
+	}
+
+	@Test
+	void testEmpty() {
+		AutomatonInfo<String> info = new Regex("").getInfo();
+		assertEquals(0, info.getMaxLength());
+		assertEquals("", info.getLiteral());
+	}
+}
@@ -0,0 +1,159 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.parsing.StringParser;
+import org.didelphis.language.automata.statemachines.MatcherCompiler;
+import org.didelphis.language.automata.statemachines.StandardStateMachine;
+import org.didelphis.language.automata.statemachines.StateMachine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatcherCompilerTest {
+
+	private static final String[] INPUTS = {
+			"", "a", "ab", "abc", "aabbcc", "cab", "abab", "bca", "ccc", "abcabc"
+	};
+
+	@Test
+	void testLiterals() {
+		assertRegexEquivalent("abc");
+		assertRegexEquivalent("a|ab|abc");
+		assertRegexEquivalent("longer-than-eight");
+		assertStringEquivalent("{ab abc} c");
+	}
+
+	@Test
+	void testQuantifiers() {
+		assertRegexEquivalent("a*b+c?");
+		assertRegexEquivalent("(?:ab)*c");
+		assertRegexEquivalent("[ab]+.");
+	}
+
+	@Test
+	void testGroups() {
+		assertRegexEquivalent("(a)(b)?(c)");
+		assertRegexEquivalent("(a|ab)(c|bcd)?");
+		assertRegexEquivalent("((a)b*)+");
+	}
+
+	@Test
+	void testAnchors() {
+		assertRegexEquivalent("^ab");
+		assertRegexEquivalent("bc$");
+		assertStringEquivalent("#ab");
+	}
+
+	@Test
+	void testNegative() {
+		assertStringEquivalent("!a");
+		assertStringEquivalent("a!{b c}");
+	}
+
+	@Test
+	void testInsensitive() {
+		RegexParser parser = new RegexParser(true);
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0", "aB(c)", parser);
+		assertEquivalent(machine, "xAbC");
+	}
+
+	@Test
+	void testMetadata() {
+		StateMachine<String> machine = getMachine("a(b)", new RegexParser());
+		StateMachine<String> compiled = MatcherCompiler.compile(machine);
+		assertNotSame(machine, compiled);
+		assertSame(machine.getParser(), compiled.getParser());
+		assertEquals(machine.getId(), compiled.getId());
+		assertEquals(machine.getInfo(), compiled.getInfo());
+	}
+
+	@Test
+	void testLargeMachine() {
+		Random random = new Random(0);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 150; i++) {
+			sb.append(i == 0 ? "" : "|").append((char) ('a' + random.nextInt(3)));
+			sb.append((char) ('a' + random.nextInt(3))).append("*c?");
+		}
+		assertRegexEquivalent(sb.toString());
+	}
+
+	@Test
+	void testAmbiguousWithoutGroups() {
+		// Each state is visited only once at each index, so the paths through
+		// the loop, which double with each character, are never enumerated
+		StateMachine<String> machine = getMachine("(?:a|[ab])*c", new RegexParser());
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			sb.append('a');
+		}
+		String input = sb.toString();
+		assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> assertEquivalent(machine, input, input + 'c'));
+	}
+
+	private static void assertRegexEquivalent(String pattern) {
+		StateMachine<String> machine = getMachine(pattern, new RegexParser());
+		assertEquivalent(machine, INPUTS);
+	}
+
+	private static void assertStringEquivalent(String pattern) {
+		StateMachine<String> machine = getMachine(pattern, new StringParser());
+		assertEquivalent(machine, INPUTS);
+	}
+
+	private static void assertEquivalent(
+			StateMachine<String> machine,
+			String... inputs
+	) {
+		StateMachine<String> compiled = MatcherCompiler.compile(machine);
+		assertNotSame(machine, compiled, "Machine was not compiled");
+		for (String input : inputs) {
+			for (int i = 0; i <= input.length(); i++) {
+				Match<String> expected = machine.match(input, i);
+				Match<String> received = compiled.match(input, i);
+				String message = machine + " on " + input + " at " + i;
+				assertEquals(expected.end(), received.end(), message);
+				assertEquals(expected.groupCount(), received.groupCount(), message);
+				for (int g = 0; g < expected.groupCount(); g++) {
+					assertEquals(expected.start(g), received.start(g), message);
+					assertEquals(expected.end(g), received.end(g), message);
+					assertEquals(expected.group(g), received.group(g), message);
+				}
+			}
+		}
+	}
+
+	private static StateMachine<String> getMachine(
+			String pattern,
+			LanguageParser<String> parser
+	) {
+		return StandardStateMachine.create("M0", pattern, parser);
+	}
+}
@@ -0,0 +1,209 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.parsing.StringParser;
+import org.didelphis.language.automata.statemachines.Matcher;
+import org.didelphis.language.automata.statemachines.StandardStateMachine;
+import org.didelphis.language.automata.statemachines.StateMachine;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatcherTest {
+
+	@Test
+	void testFind() {
+		Matcher<String> matcher = new Regex("a(b)?").matcher("xabaab");
+
+		assertTrue(matcher.find());
+		assertEquals(1, matcher.start());
+		assertEquals(3, matcher.end());
+		assertEquals(2, matcher.start(1));
+		assertEquals(3, matcher.end(1));
+		assertEquals("b", matcher.group(1));
+
+		assertTrue(matcher.find());
+		assertEquals(3, matcher.start());
+		assertEquals(4, matcher.end());
+		assertEquals(-1, matcher.start(1));
+		assertNull(matcher.group(1));
+
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+		assertEquals("ab", matcher.group(0));
+
+		assertFalse(matcher.find());
+		assertFalse(matcher.matches());
+		assertEquals(-1, matcher.start());
+	}
+
+	@Test
+	void testFindFrom() {
+		Matcher<String> matcher = new Regex("ab").matcher("abxab");
+		assertTrue(matcher.find(1));
+		assertEquals(3, matcher.start());
+		assertFalse(matcher.find());
+		assertTrue(matcher.find(0));
+		assertEquals(0, matcher.start());
+	}
+
+	@Test
+	void testLookingAt() {
+		Matcher<String> matcher = new Regex("b+").matcher("abbc");
+		assertFalse(matcher.lookingAt(0));
+		assertTrue(matcher.lookingAt(1));
+		assertEquals(3, matcher.end());
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testReset() {
+		Regex regex = new Regex("(a+)(b*)");
+		Matcher<String> matcher = regex.matcher("");
+		assertFalse(matcher.find());
+
+		for (String input : new String[]{"aab", "xxab", "b", "aaaa"}) {
+			matcher.reset(input);
+			Match<String> expected = regex.find(input);
+			assertEquals(expected.matches(), matcher.find(), input);
+			assertEquals(expected.start(), matcher.start(), input);
+			assertEquals(expected.end(), matcher.end(), input);
+			for (int i = 1; i < expected.groupCount(); i++) {
+				assertEquals(expected.group(i), matcher.group(i), input);
+			}
+		}
+	}
+
+	@Test
+	void testEquivalentToFindAll() {
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0", "(?:(a)|(b)c)+|c", new RegexParser());
+		String input = "abcaacbcxcbca";
+
+		List<Match<String>> expected = machine.findAll(input);
+		Matcher<String> matcher = machine.matcher(input);
+		for (Match<String> match : expected) {
+			assertTrue(matcher.find());
+			Match<String> received = matcher.toMatch();
+			assertEquals(match.start(), received.start());
+			assertEquals(match.end(), received.end());
+			assertEquals(match.groupCount(), received.groupCount());
+			for (int i = 0; i < match.groupCount(); i++) {
+				assertEquals(match.start(i), matcher.start(i));
+				assertEquals(match.end(i), matcher.end(i));
+				assertEquals(match.group(i), received.group(i));
+			}
+		}
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testGroupZero() {
+		Match<String> match = new Regex("b").match("ab", 1);
+		assertEquals(1, match.start(0));
+		assertEquals(2, match.end(0));
+		assertEquals("b", match.group(0));
+	}
+
+	@Test
+	void testGroupOutOfBounds() {
+		Matcher<String> matcher = new Regex("(a)").matcher("a");
+		assertTrue(matcher.find());
+		assertThrows(IndexOutOfBoundsException.class, () -> matcher.start(2));
+	}
+
+	@Test
+	void testEmptyMachine() {
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0", "", new StringParser());
+		Matcher<String> matcher = machine.matcher("ab");
+		assertTrue(matcher.lookingAt(1));
+		assertEquals(1, matcher.start());
+		assertEquals(1, matcher.end());
+	}
+
+	@Test
+	void testCaptureFreeAmbiguous() {
+		// Each 'a' can be consumed by either branch; without captures, paths
+		// which reach the same state at the same index are only followed once
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 64; i++) {
+			sb.append('a');
+		}
+		String input = sb.toString();
+		Matcher<String> matcher = new Regex("(?:a|.)*c").matcher(input + 'c');
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			assertTrue(matcher.lookingAt(0));
+			assertEquals(65, matcher.end());
+		});
+		Matcher<String> longest = new Regex("(?:a|.)*").matcher(input);
+		assertTrue(longest.lookingAt(0));
+		assertEquals(64, longest.end());
+	}
+
+	@Test
+	void testSubMachineReuse() {
+		// The negated sub-machine is reached by several paths at each index,
+		// and its results are kept between calls on the same input
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0", "{a b}*!b", new StringParser());
+		Matcher<String> matcher = machine.matcher("abab");
+		for (int i = 0; i < 4; i++) {
+			assertEquals(machine.match("abab", i).end(),
+					matcher.lookingAt(i) ? matcher.end() : -1);
+		}
+		assertTrue(matcher.find(0));
+		assertEquals(3, matcher.end());
+		assertFalse(matcher.find());
+
+		matcher.reset("abbb");
+		assertTrue(matcher.lookingAt(0));
+		assertEquals(1, matcher.end());
+	}
+
+	@Test
+	void testMachineCollectedAfterMatch() throws InterruptedException {
+		// The buffers kept by this thread for reuse must not keep the machines
+		// which used them reachable
+		WeakReference<StateMachine<String>> reference = matchAndDrop();
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(reference.get());
+	}
+
+	private static WeakReference<StateMachine<String>> matchAndDrop() {
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0", "(a)(b)*", new StringParser());
+		Match<String> match = machine.match("abbd", 0);
+		assertEquals(3, match.end());
+		assertEquals("bb", match.group(2));
+		return new WeakReference<>(machine);
+	}
+}
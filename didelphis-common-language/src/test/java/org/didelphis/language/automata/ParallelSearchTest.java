@@ -0,0 +1,134 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.statemachines.StandardStateMachine;
+import org.didelphis.language.automata.statemachines.StateMachine;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTest {
+
+	private static ForkJoinPool pool;
+
+	@BeforeAll
+	static void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void testFindAll() {
+		StateMachine<String> machine = getMachine("a(b)?");
+		List<Match<String>> matches = machine.findAll("xabaab");
+		assertEquals(3, matches.size());
+		assertEquals(1, matches.get(0).start());
+		assertEquals("b", matches.get(0).group(1));
+		assertEquals(3, matches.get(1).start());
+		assertNull(matches.get(1).group(1));
+		assertEquals(4, matches.get(2).start());
+	}
+
+	@Test
+	void testFindAllEmptyMatches() {
+		StateMachine<String> machine = getMachine("a?");
+		assertEquals(4, machine.findAll("baab").size());
+	}
+
+	@Test
+	void testBoundedDense() {
+		// Matches of three can straddle the boundaries between chunks
+		assertConsistent("aaa", input(50_000, "a", 1));
+		assertConsistent("(?:aa|a)a", input(50_000, "a", 2));
+	}
+
+	@Test
+	void testBoundedSparse() {
+		assertConsistent("a.c", input(40_000, "abcd", 3));
+		assertConsistent("(a)(b)?c", input(40_000, "abcd", 4));
+		assertConsistent("dddd", input(40_000, "abcd", 5));
+	}
+
+	@Test
+	void testAnchored() {
+		assertConsistent("a$", input(30_000, "ab", 6) + "a");
+		assertConsistent("^ab", "ab" + input(30_000, "ab", 7));
+	}
+
+	@Test
+	void testUnbounded() {
+		assertConsistent("ab*", input(30_000, "ab", 8));
+	}
+
+	@Test
+	void testNoMatch() {
+		assertConsistent("x", input(30_000, "abcd", 9));
+	}
+
+	private static void assertConsistent(String pattern, String input) {
+		StateMachine<String> machine = getMachine(pattern);
+
+		Match<String> expected = machine.find(input);
+		Match<String> received = machine.findParallel(input, pool);
+		assertEquals(expected.start(), received.start());
+		assertEquals(expected.end(), received.end());
+
+		List<Match<String>> list1 = machine.findAll(input);
+		List<Match<String>> list2 = machine.findAllParallel(input, pool);
+		assertEquals(list1.size(), list2.size());
+		for (int i = 0; i < list1.size(); i++) {
+			Match<String> match1 = list1.get(i);
+			Match<String> match2 = list2.get(i);
+			assertEquals(match1.start(), match2.start());
+			assertEquals(match1.end(), match2.end());
+			for (int j = 1; j < match1.groupCount(); j++) {
+				assertEquals(match1.group(j), match2.group(j));
+			}
+		}
+	}
+
+	private static String input(int length, String alphabet, long seed) {
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+
+	private static StateMachine<String> getMachine(String pattern) {
+		RegexParser parser = new RegexParser();
+		return StandardStateMachine.create("M0", pattern, parser);
+	}
+}
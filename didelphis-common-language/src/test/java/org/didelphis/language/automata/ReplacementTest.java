@@ -0,0 +1,127 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata;
+
+import org.didelphis.language.automata.matching.Match;
+import org.didelphis.language.automata.matching.Replacement;
+import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.parsing.StringParser;
+import org.didelphis.language.automata.statemachines.StandardStateMachine;
+import org.didelphis.language.automata.statemachines.StateMachine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplacementTest {
+
+	@Test
+	void testCompile() {
+		RegexParser parser = new RegexParser();
+		Replacement<String> replacement = parser.compileReplacement("<$2x$1>");
+		Replacement<String> expected = Replacement.builder(parser)
+				.literal("<")
+				.group(2)
+				.literal("x")
+				.group(1)
+				.literal(">")
+				.build();
+		assertEquals(expected, replacement);
+		assertFalse(replacement.isLiteral());
+	}
+
+	@Test
+	void testCompileLiteral() {
+		Replacement<String> replacement = new RegexParser().compileReplacement(
+				"abc");
+		assertTrue(replacement.isLiteral());
+		Match<String> match = new Regex("x").match("x", 0);
+		assertEquals("abc", replacement.apply(match));
+	}
+
+	@Test
+	void testApply() {
+		Regex regex = new Regex("(a)(b)?");
+		Replacement<String> replacement = new RegexParser().compileReplacement(
+				"[$2$1]");
+		assertEquals("[ba]", replacement.apply(regex.match("ab", 0)));
+		assertEquals("[a]", replacement.apply(regex.match("a", 0)));
+	}
+
+	@Test
+	void testMatchesReplaceGroups() {
+		RegexParser parser = new RegexParser();
+		Regex regex = new Regex("(a+)(b*)");
+		Match<String> match = regex.match("aabbb", 0);
+		String template = "$2-$1-$0$";
+		assertEquals(
+				parser.replaceGroups(template, match),
+				parser.compileReplacement(template).apply(match)
+		);
+	}
+
+	@Test
+	void testDeferred() {
+		RegexParser parser = new RegexParser();
+		Regex regex = new Regex("(a+)(b*)");
+		Replacement<String> replacement = Replacement.deferred(parser, "$2-$1");
+		assertFalse(replacement.isLiteral());
+		assertEquals("bbb-aa", replacement.apply(regex.match("aabbb", 0)));
+		assertEquals("xbb-ax", regex.replace("xabbx", replacement));
+	}
+
+	@Test
+	void testReplace() {
+		Regex regex = new Regex("(a)(b)");
+		assertEquals("xbaxba", regex.replace("xabxab", "$2$1"));
+	}
+
+	@Test
+	void testReplaceFunction() {
+		Regex regex = new Regex("a+");
+		String replaced = regex.replace(
+				"baaca",
+				match -> String.valueOf(match.group(0).length())
+		);
+		assertEquals("b2c1", replaced);
+	}
+
+	@Test
+	void testReplaceEmptyMatch() {
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0",
+				"a*",
+				new StringParser()
+		);
+		assertEquals("-b-c", machine.replace("bc", "-"));
+	}
+
+	@Test
+	void testSplitEmptyMatch() {
+		StateMachine<String> machine = StandardStateMachine.create(
+				"M0",
+				"a*",
+				new StringParser()
+		);
+		assertEquals(Arrays.asList("", "b", "c"), machine.split("bc"));
+	}
+}
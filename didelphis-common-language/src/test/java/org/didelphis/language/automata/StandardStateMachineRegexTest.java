@@ -34,8 +34,10 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Spliterator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.*;
 import static org.didelphis.language.parsing.ParseDirection.*;
@@ -972,6 +974,16 @@ class StandardStateMachineRegexTest extends StateMachineTestBase<String> {
 			assertConsistant("\\p{Space}",  "\t", "\n", "a");
 		}
 
+		@Test
+		void testSiblingBranchGroups() {
+			String exp = "^(?:(a)(b)|(a)(c)|(a)(d)(e)?)$";
+			assertConsistant(exp, "ab", "ac", "ad", "ade", "ae");
+
+			StateMachine<String> machine = getMachine(exp);
+			assertMatch(machine, "ac", 8, "ac", null, null, "a", "c");
+			assertMatch(machine, "ad", 8, "ad", null, null, null, null, "a", "d", null);
+		}
+
 		@Test
 		void testCaret() {
 			assertConsistant("\\^aa", "^aa");
@@ -1035,6 +1047,31 @@ class StandardStateMachineRegexTest extends StateMachineTestBase<String> {
 			assertEquals(expected, machine.split("a, b;c d"));
 		}
 
+		@Test
+		void testSplitAsStream() {
+			StateMachine<String> machine = getMachine("a");
+			for (String input : asList("babab", "ababa", "baba", "abab", "")) {
+				List<String> list = machine.splitAsStream(input)
+						.collect(Collectors.toList());
+				assertEquals(machine.split(input), list);
+			}
+		}
+
+		@Test
+		void testSplitAsStreamLazy() {
+			StateMachine<String> machine = getMachine("a");
+			Spliterator<String> spliterator = machine.splitAsStream("babab")
+					.spliterator();
+			assertEquals(6, spliterator.estimateSize());
+			assertTrue(spliterator.tryAdvance(piece -> assertEquals("b", piece)));
+			assertEquals(4, spliterator.estimateSize());
+			assertEquals(
+					asList("b", "b"),
+					machine.splitAsStream("babab").skip(1).limit(2)
+							.collect(Collectors.toList())
+			);
+		}
+
 		@Test
 		void testCaseImproperExpansion() {
 			StateMachine<String> machine = getMachine("[+\\-−]");
@@ -1045,6 +1045,33 @@ class StandardStateMachineStringTest extends StateMachineTestBase<String> {
 		assertEquals("a/b/a/b", machine.replace("abab", "/"));
 	}
 
+	@Test
+	void testLiteralAlternation() {
+		StateMachine<String> machine = getMachine("{a e i o u}x");
+		assertMatches(machine, "ax");
+		assertMatches(machine, "ux");
+		assertNotMatches(machine, "bx");
+		assertNotMatches(machine, "x");
+	}
+
+	@Test
+	void testLiteralAlternationMixedLengths() {
+		StateMachine<String> machine = getMachine("{a ab abc}b");
+		assertEquals(2, machine.match("ab", 0).end());
+		assertEquals(3, machine.match("abb", 0).end());
+		assertEquals(4, machine.match("abcb", 0).end());
+		assertNotMatches(machine, "ac");
+	}
+
+	@Test
+	void testLiteralAlternationQuantified() {
+		StateMachine<String> machine = getMachine("#{ba ca}+#");
+		assertMatches(machine, "ba");
+		assertMatches(machine, "bacaba");
+		assertNotMatches(machine, "bac");
+		assertNotMatches(machine, "");
+	}
+
 	@NonNull
 	private static MultiMap<String, String> parse(String string) {
 		String[] split = string.split("\\s*=\\s*");
@@ -0,0 +1,173 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.expressions;
+
+import org.didelphis.language.automata.Regex;
+import org.didelphis.language.automata.parsing.LanguageParser;
+import org.didelphis.language.automata.parsing.RegexParser;
+import org.didelphis.language.automata.parsing.StringParser;
+import org.didelphis.language.automata.statemachines.Matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class {@code ExpressionOptimizerTest}
+ *
+ * @since 0.4.0
+ */
+class ExpressionOptimizerTest {
+
+	private static final RegexParser REGEX = new RegexParser();
+	private static final StringParser STRING = new StringParser();
+
+	@Test
+	void testMergeLiterals() {
+		Expression expression = optimize(REGEX, "abc");
+		assertTrue(expression.isTerminal());
+		assertEquals("abc", expression.getTerminal());
+	}
+
+	@Test
+	void testMergeStopsAtQuantifier() {
+		Expression expression = optimize(REGEX, "abc*d");
+		List<Expression> children = expression.getChildren();
+		assertEquals(3, children.size());
+		assertEquals("ab", children.get(0).getTerminal());
+		assertEquals("c", children.get(1).getTerminal());
+		assertEquals("*", children.get(1).getQuantifier());
+		assertEquals("d", children.get(2).getTerminal());
+	}
+
+	@Test
+	void testNoMergeOfClassOrDot() {
+		Expression expression = optimize(REGEX, "a.[bc]");
+		assertEquals(3, expression.getChildren().size());
+	}
+
+	@Test
+	void testFlattenGroups() {
+		Expression expression = optimize(REGEX, "a(?:b(?:c))d");
+		assertTrue(expression.isTerminal());
+		assertEquals("abcd", expression.getTerminal());
+	}
+
+	@Test
+	void testFactorPrefix() {
+		Expression expression = optimize(REGEX, "abc|abd");
+		List<Expression> children = expression.getChildren();
+		assertEquals(2, children.size());
+		assertEquals("ab", children.get(0).getTerminal());
+		assertTrue(children.get(1).isParallel());
+	}
+
+	@Test
+	void testFactorPrefixWithEmptyRemainder() {
+		Expression expression = optimize(REGEX, "ab|abc");
+		List<Expression> children = expression.getChildren();
+		assertEquals(2, children.size());
+		assertEquals("ab", children.get(0).getTerminal());
+		assertEquals("c", children.get(1).getTerminal());
+		assertEquals("?", children.get(1).getQuantifier());
+	}
+
+	@Test
+	void testCapturingAlternationUnchanged() {
+		Expression original = REGEX.parseExpression("ab(c)d|abe");
+		Expression optimized = ExpressionOptimizer.optimize(original, REGEX);
+		assertEquals(original.toString(), optimized.toString());
+	}
+
+	@Test
+	void testMergeAroundCaptures() {
+		Expression expression = optimize(REGEX, "ab(?:cd)(e(?:f)g)h(?:i|j)");
+		List<Expression> children = expression.getChildren();
+		assertEquals(4, children.size());
+		assertEquals("abcd", children.get(0).getTerminal());
+		assertTrue(children.get(1).isCapturing());
+		assertEquals("efg", children.get(1).getChildren().get(0).getTerminal());
+		assertEquals("h", children.get(2).getTerminal());
+		assertTrue(children.get(3).isParallel());
+		assertEquals(2, children.get(3).getChildren().size());
+	}
+
+	@Test
+	void testQuantifiedGroupWithCapturesUnchanged() {
+		Expression expression = optimize(REGEX, "a(?:bc)*(d)");
+		List<Expression> children = expression.getChildren();
+		assertEquals(3, children.size());
+		assertEquals("*", children.get(1).getQuantifier());
+		assertEquals(2, children.get(1).getChildren().size());
+	}
+
+	@Test
+	void testMergeAroundCapturesKeepsGroups() {
+		Matcher<String> matcher = new Regex("ab(?:cd)(e+)f(g|h)").matcher("abcdeefh");
+		assertTrue(matcher.lookingAt(0));
+		assertEquals(8, matcher.end());
+		assertEquals(4, matcher.start(1));
+		assertEquals(6, matcher.end(1));
+		assertEquals(7, matcher.start(2));
+		assertEquals(8, matcher.end(2));
+	}
+
+	@Test
+	void testAmbiguousGroupsUnchanged() {
+		// Which path accepts first depends on the number of arcs along it, so
+		// the optional group must not be flattened
+		Matcher<String> matcher = new Regex("(a*|(?:.))a*(.*)").matcher("ba");
+		assertTrue(matcher.lookingAt(0));
+		assertEquals(2, matcher.end());
+		assertEquals(-1, matcher.start(1));
+		assertEquals(0, matcher.start(2));
+		assertEquals(2, matcher.end(2));
+	}
+
+	@Test
+	void testNegativeUnchanged() {
+		Expression expression = optimize(STRING, "a!(bc)");
+		List<Expression> children = expression.getChildren();
+		assertEquals(2, children.size());
+		assertTrue(children.get(1).isNegative());
+		assertEquals(2, children.get(1).getChildren().size());
+	}
+
+	@Test
+	void testStringParserBoundaries() {
+		Expression expression = optimize(STRING, "ab#");
+		List<Expression> children = expression.getChildren();
+		assertEquals(2, children.size());
+		assertEquals("ab", children.get(0).getTerminal());
+		assertEquals("]#", children.get(1).getTerminal());
+	}
+
+	private static Expression optimize(
+			LanguageParser<?> parser,
+			String pattern
+	) {
+		return ExpressionOptimizer.optimize(
+				parser.parseExpression(pattern),
+				parser
+		);
+	}
+}
@@ -23,11 +23,13 @@ import org.didelphis.language.automata.expressions.Expression;
 import org.didelphis.language.automata.matching.BasicMatch;
 import org.didelphis.language.parsing.ParseDirection;
 import org.didelphis.language.parsing.ParseException;
+import org.didelphis.structures.graph.Arc;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -308,4 +310,17 @@ class RegexParserTest {
 		Expression expression = PARSER.parseExpression("\\[([^\\]]*)\\]");
 		assertEquals(3, expression.getChildren().size());
 	}
+
+	@Test
+	void testAlternationArcs() {
+		RegexParser parser = new RegexParser(true);
+		List<Arc<String>> arcs = parser.getAlternationArcs(
+				Arrays.asList("\\.", "X", "[ab]")
+		);
+		assertEquals(2, arcs.size());
+		Arc<String> arc = arcs.get(1);
+		assertEquals(1, arc.match(".", 0));
+		assertEquals(1, arc.match("x", 0));
+		assertEquals(-1, arc.match("y", 0));
+	}
 }
@@ -0,0 +1,135 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import org.didelphis.io.ClassPathFileHandler;
+import org.didelphis.language.parsing.FormatterMode;
+import org.didelphis.language.phonetic.SequenceFactory;
+import org.didelphis.language.phonetic.features.IntegerFeature;
+import org.didelphis.language.phonetic.model.FeatureMapping;
+import org.didelphis.language.phonetic.model.FeatureModelLoader;
+import org.didelphis.language.phonetic.sequences.Sequence;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentIndexTest {
+
+	private static FeatureMapping<Integer> mapping;
+	private static SequenceFactory<Integer> factory;
+
+	@BeforeAll
+	static void loadModel() {
+		FeatureModelLoader<Integer> loader = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				ClassPathFileHandler.INSTANCE,
+				"AT_hybrid.model"
+		);
+		mapping = loader.getFeatureMapping();
+		factory = new SequenceFactory<>(mapping, FormatterMode.INTELLIGENT);
+	}
+
+	@Test
+	void testSymbols() {
+		List<Sequence<Integer>> members = new ArrayList<>();
+		for (String symbol : mapping.getSymbols()) {
+			members.add(factory.toSequence(symbol));
+		}
+		assertSameAsLinear(members);
+	}
+
+	@Test
+	void testMixed() {
+		List<Sequence<Integer>> members = new ArrayList<>();
+		for (String string : Arrays.asList("pʰ", "t", "[+con]", "k", "#",
+				"", "[-con, +son]", "a", "[-son, -voice, +vot]", "kʰa")) {
+			members.add(factory.toSequence(string));
+		}
+		assertSameAsLinear(members);
+	}
+
+	@Test
+	void testCandidates() {
+		List<Sequence<Integer>> members = new ArrayList<>();
+		for (String string : Arrays.asList("p", "t", "k", "a", "e", "i")) {
+			members.add(factory.toSequence(string));
+		}
+		SegmentIndex<Integer> index = new SegmentIndex<>(
+				mapping.getFeatureModel(),
+				members
+		);
+		int[] candidates = index.candidates(factory.toSequence("t"), 0);
+		assertTrue(candidates.length < members.size());
+		assertEquals(0, index.candidates(factory.toSequence("t"), 1).length);
+	}
+
+	@Test
+	void testEmptyModel() {
+		SequenceFactory<Integer> factory = new SequenceFactory<>(
+				IntegerFeature.INSTANCE.emptyLoader().getFeatureMapping(),
+				FormatterMode.NONE
+		);
+		List<Sequence<Integer>> members = new ArrayList<>();
+		for (String string : Arrays.asList("a", "b", "ba", "c", "")) {
+			members.add(factory.toSequence(string));
+		}
+		SegmentIndex<Integer> index = new SegmentIndex<>(
+				factory.getFeatureMapping().getFeatureModel(),
+				members
+		);
+		Sequence<Integer> input = factory.toSequence("bad");
+		assertArrayEquals(new int[]{1, 2, 4}, index.candidates(input, 0));
+		assertArrayEquals(new int[]{4}, index.candidates(input, 2));
+	}
+
+	private static void assertSameAsLinear(List<Sequence<Integer>> members) {
+		SegmentIndex<Integer> index = new SegmentIndex<>(
+				mapping.getFeatureModel(),
+				members
+		);
+		List<String> inputs = new ArrayList<>(mapping.getSymbols());
+		inputs.add("#");
+		inputs.add("[+con]");
+		for (String string : inputs) {
+			Sequence<Integer> input = factory.toSequence(string + "a");
+			int expected = -1;
+			for (int i = 0; i < members.size(); i++) {
+				if (input.regionMatches(0, members.get(i))) {
+					expected = i;
+					break;
+				}
+			}
+			int actual = -1;
+			for (int i : index.candidates(input, 0)) {
+				if (input.regionMatches(0, members.get(i))) {
+					actual = i;
+					break;
+				}
+			}
+			assertEquals(expected, actual, string);
+		}
+	}
+}
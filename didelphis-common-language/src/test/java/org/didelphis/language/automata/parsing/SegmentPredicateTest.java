@@ -0,0 +1,134 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.parsing;
+
+import org.didelphis.io.ClassPathFileHandler;
+import org.didelphis.io.NullFileHandler;
+import org.didelphis.language.parsing.FormatterMode;
+import org.didelphis.language.phonetic.SequenceFactory;
+import org.didelphis.language.phonetic.features.BinaryFeature;
+import org.didelphis.language.phonetic.features.BinaryFeatureArray;
+import org.didelphis.language.phonetic.features.IntegerFeature;
+import org.didelphis.language.phonetic.model.FeatureMapping;
+import org.didelphis.language.phonetic.model.FeatureModelLoader;
+import org.didelphis.language.phonetic.segments.Segment;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentPredicateTest {
+
+	private static FeatureMapping<Integer> mapping;
+	private static SequenceFactory<Integer> factory;
+
+	@BeforeAll
+	static void loadModel() {
+		FeatureModelLoader<Integer> loader = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				ClassPathFileHandler.INSTANCE,
+				"AT_hybrid.model"
+		);
+		mapping = loader.getFeatureMapping();
+		factory = new SequenceFactory<>(mapping, FormatterMode.INTELLIGENT);
+	}
+
+	@Test
+	void testFeatureBundles() {
+		assertSameAsMatches("[-con, +son, -hgh, +frn]");
+		assertSameAsMatches("[-con, +voice, -creaky]");
+		assertSameAsMatches("[+con]");
+		assertSameAsMatches("[-son, -voice, +vot]");
+	}
+
+	@Test
+	void testSegments() {
+		assertSameAsMatches("a");
+		assertSameAsMatches("kʰ");
+		assertSameAsMatches("x");
+	}
+
+	@Test
+	void testUndefined() {
+		SegmentPredicate<Integer> predicate = predicate("[+con]");
+		Segment<Integer> segment = factory.toSegment("#");
+		assertEquals(segment.matches(factory.toSegment("[+con]")),
+				predicate.test(segment));
+	}
+
+	@Test
+	void testBinaryFeatures() {
+		// Enough features to span more than one word of a BinaryFeatureArray
+		int size = 70;
+		Random random = new Random(11);
+		List<String> lines = new ArrayList<>();
+		lines.add("FEATURES");
+		for (int i = 0; i < size; i++) {
+			lines.add("f" + i + "\tf" + i + "\tbinary");
+		}
+		lines.add("SYMBOLS");
+		for (int s = 0; s < 20; s++) {
+			StringBuilder line = new StringBuilder("s" + (char) ('a' + s));
+			for (int i = 0; i < size; i++) {
+				line.append('\t').append(random.nextBoolean() ? '+' : '-');
+			}
+			lines.add(line.toString());
+		}
+		FeatureMapping<Boolean> binaryMapping = new FeatureModelLoader<>(
+				BinaryFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureMapping();
+		SequenceFactory<Boolean> binaryFactory = new SequenceFactory<>(
+				binaryMapping, FormatterMode.NONE);
+
+		String[] patterns = {"sa", "sk", "[+f0]", "[-f3, +f65]", "[+f63, +f64]"};
+		for (String pattern : patterns) {
+			Segment<Boolean> segment = binaryFactory.toSegment(pattern);
+			SegmentPredicate<Boolean> predicate = new SegmentPredicate<>(segment);
+			for (String symbol : binaryMapping.getSymbols()) {
+				Segment<Boolean> input = binaryFactory.toSegment(symbol);
+				assertTrue(input.getFeatures() instanceof BinaryFeatureArray);
+				assertEquals(input.matches(segment), predicate.test(input),
+						() -> pattern + " vs " + symbol);
+			}
+		}
+	}
+
+	private static void assertSameAsMatches(String pattern) {
+		Segment<Integer> segment = factory.toSegment(pattern);
+		SegmentPredicate<Integer> predicate = new SegmentPredicate<>(segment);
+		for (String symbol : mapping.getSymbols()) {
+			Segment<Integer> input = factory.toSegment(symbol);
+			assertEquals(input.matches(segment), predicate.test(input),
+					() -> pattern + " vs " + symbol);
+		}
+	}
+
+	private static SegmentPredicate<Integer> predicate(String pattern) {
+		return new SegmentPredicate<>(factory.toSegment(pattern));
+	}
+}
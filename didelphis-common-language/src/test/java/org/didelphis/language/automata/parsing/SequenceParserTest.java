@@ -286,6 +286,18 @@ class SequenceParserTest {
 			Sequence<Boolean> expected = parser.transform("axo");
 			assertEquals(expected, replaced);
 		}
+
+		@Test
+		void testNewBuilder() {
+			Sequence<Boolean> sequence = parser.transform("abcd");
+			Sequence<Boolean> built = parser.newBuilder()
+					.append(sequence, 1, 3)
+					.append(parser.transform("x"))
+					.append(sequence, 0, 0)
+					.build();
+			assertEquals(parser.transform("bcx"), built);
+			assertEquals(parser.transform("abcd"), sequence);
+		}
 	}
 
 	@Nested
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,6 +52,15 @@ class StringParserTest {
 		assertEquals("ab", parser.concatenate("a", "b"));
 	}
 
+	@Test
+	void testNewBuilder() {
+		String built = parser.newBuilder()
+				.append("abcd", 1, 3)
+				.append("x")
+				.build();
+		assertEquals("bcx", built);
+	}
+
 	@Test
 	@DisplayName ("Ensure concatenate cannot take null params")
 	@SuppressWarnings ("ConstantConditions")
@@ -332,4 +342,17 @@ class StringParserTest {
 		assertEquals("axo", replaced);
 	}
 
+	@Test
+	void testAlternationArcs() {
+		List<Arc<String>> arcs = parser.getAlternationArcs(
+				Arrays.asList("a", "b", "cd", "ef", ".")
+		);
+		// one arc for each length of literal, and one for the dot
+		assertEquals(3, arcs.size());
+		Arc<String> arc = arcs.get(2);
+		assertEquals(-1, arc.match("xcd", 0));
+		assertEquals(3, arc.match("xcd", 1));
+		assertEquals(2, arc.match("ef", 0));
+		assertEquals(-1, arc.match("ce", 0));
+	}
 }
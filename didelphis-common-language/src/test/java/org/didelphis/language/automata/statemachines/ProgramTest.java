@@ -0,0 +1,56 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.automata.statemachines;
+
+import org.didelphis.language.automata.parsing.RegexParser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramTest {
+
+	private static final RegexParser PARSER = new RegexParser();
+
+	@Test
+	void testLiteralsAroundCaptureMerged() {
+		assertEquals(stateCount("a(d)e"), stateCount("abc(d)efg"));
+	}
+
+	@Test
+	void testPlainGroupsAroundCaptureFlattened() {
+		assertEquals(
+				stateCount("a(e)g(?:h|i)"),
+				stateCount("ab(?:cd)(ef)g(?:h|i)")
+		);
+		assertEquals(stateCount("(a)(e)"), stateCount("(ab(?:c)d)(e)"));
+	}
+
+	@Test
+	void testQuantifiedGroupWithCapturesNotMerged() {
+		assertTrue(stateCount("a(?:bc)*(d)") > stateCount("a(?:b)*(d)"));
+	}
+
+	private static int stateCount(String pattern) {
+		StandardStateMachine<String> machine = (StandardStateMachine<String>)
+				StandardStateMachine.create("M", pattern, PARSER);
+		return new Program<>(machine).stateCount();
+	}
+}
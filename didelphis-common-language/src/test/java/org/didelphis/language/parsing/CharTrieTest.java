@@ -0,0 +1,84 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+package org.didelphis.language.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class {@code CharTrieTest}
+ *
+ * @since 0.4.0
+ */
+class CharTrieTest {
+
+	@Test
+	void testLongestKey() {
+		CharTrie<String> trie = CharTrie.<String>builder()
+				.put("t", "1")
+				.put("ts", "2")
+				.put("tsh", "3")
+				.build();
+		assertEquals("3", trie.find("tsha", 0));
+		assertEquals("2", trie.find("tsa", 0));
+		assertEquals("1", trie.find("ta", 0));
+		assertNull(trie.find("a", 0));
+		assertNull(trie.find("", 0));
+	}
+
+	@Test
+	void testIndex() {
+		CharTrie<String> trie = CharTrie.<String>builder()
+				.put("ab", "ab")
+				.build();
+		assertEquals("ab", trie.find("xxab", 2));
+		assertNull(trie.find("xxab", 1));
+		assertNull(trie.find("xxa", 2));
+	}
+
+	@Test
+	void testEmptyKeyIgnored() {
+		CharTrie<String> trie = CharTrie.<String>builder()
+				.put("", "empty")
+				.build();
+		assertNull(trie.find("a", 0));
+	}
+
+	@Test
+	void testIgnoredCharacters() {
+		CharTrie<String> trie = CharTrie.<String>builder(c -> c == '-')
+				.put("t-s", "t-s")
+				.put("t", "t")
+				.build();
+		assertEquals("t-s", trie.find("ts", 0));
+		assertEquals("t-s", trie.find("t--s", 0));
+		assertEquals("t", trie.find("t-a", 0));
+	}
+
+	@Test
+	void testTiesPreferFirstKey() {
+		CharTrie<String> trie = CharTrie.<String>builder(c -> c == '-')
+				.put("t-s", "first")
+				.put("ts-", "second")
+				.put("ts", "third")
+				.build();
+		assertEquals("first", trie.find("ts", 0));
+	}
+}
@@ -102,6 +102,47 @@ class FormatterModeTest {
 		assertEquals(expected, received);
 	}
 
+	@Test
+	void splitIntelligentBackReferences() {
+		List<String> expected1 = asList("r", "$[+con]12", "a", "$", "s");
+		List<String> received1 = INTELLIGENT.split("r$[+con]12a$s");
+		assertEquals(expected1, received1);
+
+		List<String> expected2 = asList("$1", "$2");
+		List<String> received2 = INTELLIGENT.split("$1$2");
+		assertEquals(expected2, received2);
+
+		// The back-reference ends at the last digit before the next dollar
+		List<String> expected3 = asList("$C1a2", "b");
+		List<String> received3 = INTELLIGENT.split("$C1a2b");
+		assertEquals(expected3, received3);
+	}
+
+	@Test
+	void splitIntelligentSpecial() {
+		List<String> special = asList("t", "ts", "tsʰ", "a");
+		List<String> expected = asList("tsʰ", "a", "ts", "t");
+		assertEquals(expected, INTELLIGENT.split("tsʰatst", special, map()));
+	}
+
+	@Test
+	void splitWithPlan() {
+		List<String> special = asList("t", "ts", "tsʰ", "ph", "$");
+		Map<String, String> delimiters = map();
+		String[] strings = {"tsʰapʰats", "ph[a]t$1", "r$C1s", "[+a]tsʰ", ""};
+		for (FormatterMode mode : FormatterMode.values()) {
+			SegmentationPlan plan = mode.compile(special);
+			assertEquals(special, plan.getSpecial());
+			for (String string : strings) {
+				assertEquals(
+						mode.split(string, special, delimiters),
+						mode.split(string, plan, delimiters),
+						mode + " " + string
+				);
+			}
+		}
+	}
+
 	@Test
 	void splitIntelligentWithParens() {
 
@@ -153,6 +194,12 @@ class FormatterModeTest {
 		assertEquals(expected8, received8);
 	}
 
+	private static Map<String, String> map() {
+		Map<String, String> map = new HashMap<>();
+		map.put("[", "]");
+		return map;
+	}
+
 	@Test
 	void valueOf() {
 		assertSame(INTELLIGENT,   FormatterMode.valueOf("INTELLIGENT"));
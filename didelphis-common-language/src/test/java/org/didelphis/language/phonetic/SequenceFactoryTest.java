@@ -181,6 +181,49 @@ class SequenceFactoryTest {
 		assertEquals(expected, received);
 	}
 
+	@Test
+	void testInterning() {
+		SequenceFactory<Integer> interning = new SequenceFactory<>(
+				loader.getFeatureMapping(),
+				new HashSet<>(),
+				INTELLIGENT,
+				true
+		);
+
+		String word = "avaːmʔat";
+		Sequence<Integer> expected = factory.toSequence(word);
+		Sequence<Integer> received = interning.toSequence(word);
+		assertEquals(expected, received);
+		assertEquals(received, expected);
+		assertEquals(expected.hashCode(), received.hashCode());
+
+		Segment<Integer> a1 = received.get(0);
+		Segment<Integer> a2 = received.get(5);
+		assertSame(a1.getFeatures(), a2.getFeatures());
+		assertSame(a1.getFeatures(), interning.toSegment("a").getFeatures());
+		assertEquals(expected.get(0), a1);
+	}
+
+	@Test
+	void testInterningAlter() {
+		SequenceFactory<Integer> interning = new SequenceFactory<>(
+				loader.getFeatureMapping(),
+				new HashSet<>(),
+				INTELLIGENT,
+				true
+		);
+
+		Sequence<Integer> sequence = interning.toSequence("ata");
+		Segment<Integer> a1 = sequence.get(0);
+		Segment<Integer> a2 = sequence.get(2);
+		Segment<Integer> t = sequence.get(1);
+
+		assertTrue(a1.alter(t));
+		assertEquals(t.getFeatures(), a1.getFeatures());
+		assertEquals(factory.toSegment("a"), a2);
+		assertEquals(factory.toSegment("a"), interning.toSegment("a"));
+	}
+
 	@Test
 	void testReservedMethod() {
 
@@ -0,0 +1,225 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import org.didelphis.io.NullFileHandler;
+import org.didelphis.language.phonetic.model.FeatureMapping;
+import org.didelphis.language.phonetic.model.FeatureModel;
+import org.didelphis.language.phonetic.model.FeatureModelLoader;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFeatureArrayTest {
+
+	// Enough features to span more than one word
+	private static final int SIZE = 70;
+	private static final Boolean NULL = null;
+
+	private static FeatureMapping<Boolean> mapping;
+	private static FeatureModel<Boolean> model;
+	private static FeatureModel<Boolean> empty;
+
+	private BinaryFeatureArray array;
+
+	@BeforeAll
+	static void initModel() {
+		List<String> lines = new ArrayList<>();
+		lines.add("FEATURES");
+		for (int i = 0; i < SIZE; i++) {
+			lines.add("f" + i + "\tf" + i + "\tbinary");
+		}
+		lines.add("CONSTRAINTS");
+		lines.add("[+f0] > [-f1]");
+		lines.add("SYMBOLS");
+		lines.add("a\t" + String.join("\t", Collections.nCopies(SIZE, "+")));
+		lines.add("b\t" + String.join("\t", Collections.nCopies(SIZE, "-")));
+		FeatureModelLoader<Boolean> loader = new FeatureModelLoader<>(
+				BinaryFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		);
+		mapping = loader.getFeatureMapping();
+		model = loader.getFeatureModel();
+		empty = BinaryFeature.INSTANCE.emptyLoader().getFeatureModel();
+	}
+
+	@BeforeEach
+	void initArray() {
+		array = new BinaryFeatureArray(NULL, model);
+	}
+
+	@Test
+	void testSelectedByMapping() {
+		FeatureArray<Boolean> features = mapping.getFeatureArray("a");
+		assertTrue(features instanceof BinaryFeatureArray);
+		assertEquals(Boolean.TRUE, features.get(0));
+		assertEquals(Boolean.TRUE, features.get(SIZE - 1));
+	}
+
+	@Test
+	void testSetAndGet() {
+		array.set(2, true);
+		array.set(65, false);
+		array.set(69, true);
+
+		assertEquals(Boolean.TRUE, array.get(2));
+		assertEquals(Boolean.FALSE, array.get(65));
+		assertEquals(Boolean.TRUE, array.get(69));
+		assertNull(array.get(64));
+
+		array.set(65, null);
+		assertNull(array.get(65));
+	}
+
+	@Test
+	void testIndexOutOfBounds() {
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(SIZE));
+		assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, true));
+	}
+
+	@Test
+	void testConstraintOnSet() {
+		array.set(1, true);
+		array.set(0, true);
+		assertEquals(Boolean.FALSE, array.get(1));
+	}
+
+	@Test
+	void testConstraintOnAlter() {
+		FeatureArray<Boolean> mask = new BinaryFeatureArray(NULL, model);
+		mask.set(0, true);
+
+		array.set(1, true);
+		assertTrue(array.alter(mask));
+		assertEquals(Boolean.TRUE, array.get(0));
+		assertEquals(Boolean.FALSE, array.get(1));
+		assertFalse(array.alter(mask));
+	}
+
+	@Test
+	void testContains() {
+		assertTrue(array.contains(null));
+		assertFalse(array.contains(true));
+		assertFalse(array.contains(false));
+
+		BinaryFeatureArray full = new BinaryFeatureArray(false, model);
+		assertFalse(full.contains(null));
+		assertFalse(full.contains(true));
+		full.set(67, true);
+		assertTrue(full.contains(true));
+	}
+
+	@Test
+	void testSizeMismatch() {
+		FeatureArray<Boolean> other = new BinaryFeatureArray(NULL, empty);
+		assertThrows(IllegalArgumentException.class, () -> array.matches(other));
+		assertThrows(IllegalArgumentException.class, () -> array.alter(other));
+		assertThrows(IllegalArgumentException.class, () -> array.compareTo(other));
+	}
+
+	@Test
+	void testEqualsAndHashCode() {
+		BinaryFeatureArray other = new BinaryFeatureArray(NULL, model);
+		array.set(66, true);
+		other.set(66, true);
+		assertEquals(array, other);
+		assertEquals(array.hashCode(), other.hashCode());
+
+		other.set(66, false);
+		assertNotEquals(array, other);
+		assertEquals(array, new BinaryFeatureArray(array));
+		assertEquals(array, new BinaryFeatureArray(new StandardFeatureArray<>(array)));
+	}
+
+	@Test
+	void testToString() {
+		BinaryFeatureArray features = new BinaryFeatureArray(true, model);
+		assertEquals(
+				new StandardFeatureArray<>(features).toString(),
+				features.toString()
+		);
+	}
+
+	@Test
+	void testAgreesWithStandardFeatureArray() {
+		Random random = new Random(13);
+		BinaryFeature type = BinaryFeature.INSTANCE;
+		for (int n = 0; n < 500; n++) {
+			FeatureArray<Boolean> s1 = randomArray(random);
+			FeatureArray<Boolean> s2 = randomArray(random);
+			BinaryFeatureArray b1 = new BinaryFeatureArray(s1);
+			BinaryFeatureArray b2 = new BinaryFeatureArray(s2);
+
+			assertEquals(s1.matches(s2), b1.matches(b2));
+			assertEquals(s1.matches(s2), b1.matches(s2));
+			assertEquals(
+					Integer.signum(s1.compareTo(s2)),
+					Integer.signum(b1.compareTo(b2))
+			);
+			assertEquals(type.difference(s1, s2), type.difference(b1, b2));
+
+			assertEquals(s1.alter(s2), b1.alter(b2));
+			assertEquals(new StandardFeatureArray<>(s1),
+					new StandardFeatureArray<>(b1));
+		}
+	}
+
+	@Test
+	void testMatchesMasks() {
+		Random random = new Random(17);
+		for (int n = 0; n < 500; n++) {
+			FeatureArray<Boolean> pattern = randomArray(random);
+			BinaryFeatureArray input = new BinaryFeatureArray(randomArray(random));
+			long[] defined = new long[2];
+			long[] values = new long[2];
+			for (int i = 0; i < SIZE; i++) {
+				Boolean value = pattern.get(i);
+				if (value != null) {
+					defined[i >>> 6] |= 1L << i;
+				}
+				if (Boolean.TRUE.equals(value)) {
+					values[i >>> 6] |= 1L << i;
+				}
+			}
+			assertEquals(input.matches(pattern), input.matches(defined, values));
+		}
+		assertThrows(IllegalArgumentException.class,
+				() -> array.matches(new long[1], new long[2]));
+	}
+
+	private static FeatureArray<Boolean> randomArray(Random random) {
+		List<Boolean> list = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			int r = random.nextInt(3);
+			list.add(r == 0 ? null : r == 1);
+		}
+		return new StandardFeatureArray<>(list, model);
+	}
+}
@@ -0,0 +1,162 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import org.didelphis.io.NullFileHandler;
+import org.didelphis.language.phonetic.model.FeatureModel;
+import org.didelphis.language.phonetic.model.FeatureModelLoader;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleFeatureArrayTest {
+
+	private static final Double NULL = null;
+	private static final double[] VALUES = {-1.0, 0.0, 0.5, 2.0};
+
+	private static FeatureModel<Double> model;
+	private static FeatureModel<Double> plain;
+
+	private DoubleFeatureArray array;
+
+	@BeforeAll
+	static void initModel() {
+		List<String> lines = new ArrayList<>();
+		lines.add("FEATURES");
+		for (int i = 0; i < 10; i++) {
+			lines.add("f" + i + "\tf" + i + "\tnumeric");
+		}
+		plain = load(lines);
+		lines.add("CONSTRAINTS");
+		lines.add("[+f0] > [-f1]");
+		model = load(lines);
+	}
+
+	@BeforeEach
+	void initArray() {
+		array = new DoubleFeatureArray(NULL, model);
+	}
+
+	@Test
+	void testSelectedByType() {
+		FeatureArray<Double> sparse = new SparseFeatureArray<>(model);
+		sparse.set(9, 1.0);
+		FeatureArray<Double> features = DoubleFeature.INSTANCE.copyArray(sparse);
+		assertTrue(features instanceof DoubleFeatureArray);
+		assertEquals(1.0, (double) features.get(9));
+	}
+
+	@Test
+	void testUndefinedValues() {
+		array.set(2, Double.POSITIVE_INFINITY);
+		array.setDouble(3, Double.NEGATIVE_INFINITY);
+		array.set(4, Double.NaN);
+
+		for (int i = 0; i < array.size(); i++) {
+			assertNull(array.get(i));
+			assertTrue(Double.isNaN(array.getDouble(i)));
+		}
+		assertTrue(array.contains(null));
+		assertTrue(array.contains(Double.NaN));
+		assertFalse(array.contains(0.0));
+	}
+
+	@Test
+	void testPrimitiveAccessors() {
+		array.setDouble(7, -0.0);
+		assertEquals(0.0, array.getDouble(7));
+		assertEquals(0.0, (double) array.get(7));
+		assertTrue(array.contains(0.0));
+	}
+
+	@Test
+	void testIndexOutOfBounds() {
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(10));
+		assertThrows(IndexOutOfBoundsException.class, () -> array.setDouble(-1, 0));
+	}
+
+	@Test
+	void testConstraints() {
+		array.setDouble(1, 1.0);
+		array.setDouble(0, 1.0);
+		assertEquals(-1.0, array.getDouble(1));
+	}
+
+	@Test
+	void testEquals() {
+		DoubleFeatureArray features = new DoubleFeatureArray(0.5, model);
+		FeatureArray<Double> standard = new StandardFeatureArray<>(features);
+
+		assertEquals(features, new DoubleFeatureArray(features));
+		assertEquals(features, standard);
+		assertEquals(standard, features);
+		assertEquals(standard.hashCode(), features.hashCode());
+		assertNotEquals(features, new SparseFeatureArray<>(features));
+		assertNotEquals(features, array);
+	}
+
+	@Test
+	void testAgreesWithStandardFeatureArray() {
+		Random random = new Random(19);
+		DoubleFeature type = DoubleFeature.INSTANCE;
+		for (int n = 0; n < 500; n++) {
+			FeatureArray<Double> s1 = randomArray(random);
+			FeatureArray<Double> s2 = randomArray(random);
+			DoubleFeatureArray d1 = new DoubleFeatureArray(s1);
+			DoubleFeatureArray d2 = new DoubleFeatureArray(s2);
+
+			assertEquals(s1.matches(s2), d1.matches(d2));
+			assertEquals(s1.matches(s2), d1.matches(s2));
+			assertEquals(
+					Integer.signum(s1.compareTo(s2)),
+					Integer.signum(d1.compareTo(d2))
+			);
+			assertEquals(type.difference(s1, s2), type.difference(d1, d2));
+
+			assertEquals(s1.alter(s2), d1.alter(d2));
+			assertEquals(s1, d1);
+		}
+	}
+
+	private static FeatureArray<Double> randomArray(Random random) {
+		List<Double> list = new ArrayList<>();
+		for (int i = 0; i < plain.getSpecification().size(); i++) {
+			int r = random.nextInt(VALUES.length + 1);
+			list.add(r == VALUES.length ? null : VALUES[r]);
+		}
+		return new StandardFeatureArray<>(list, plain);
+	}
+
+	private static FeatureModel<Double> load(List<String> lines) {
+		return new FeatureModelLoader<>(
+				DoubleFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureModel();
+	}
+}
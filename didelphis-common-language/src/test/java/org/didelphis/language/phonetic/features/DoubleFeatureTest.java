@@ -59,6 +59,16 @@ class DoubleFeatureTest {
 		assertTrue(actual.contains(Double.NaN));
 	}
 
+	@Test
+	void isDefined() {
+		assertTrue(FEATURE.isDefined(0.0));
+		assertTrue(FEATURE.isDefined(-2.5));
+		assertFalse(FEATURE.isDefined(null));
+		assertFalse(FEATURE.isDefined(Double.NaN));
+		assertFalse(FEATURE.isDefined(Double.NEGATIVE_INFINITY));
+		assertFalse(FEATURE.isDefined(Double.POSITIVE_INFINITY));
+	}
+
 	@Test
 	void compare() {
 		assertEquals(-1, FEATURE.compare(0.0, 1.0));
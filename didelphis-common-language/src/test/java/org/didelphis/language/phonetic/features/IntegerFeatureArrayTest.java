@@ -0,0 +1,177 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.features;
+
+import org.didelphis.io.NullFileHandler;
+import org.didelphis.language.phonetic.PhoneticTestBase;
+import org.didelphis.language.phonetic.model.FeatureModel;
+import org.didelphis.language.phonetic.model.FeatureModelLoader;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegerFeatureArrayTest extends PhoneticTestBase {
+
+	private static final Integer NULL = null;
+
+	private static FeatureModel<Integer> model;
+	// Has no constraints, and enough features to span more than one word
+	private static FeatureModel<Integer> wide;
+
+	private IntegerFeatureArray array;
+
+	@BeforeAll
+	static void initModel() {
+		model = loader.getFeatureModel();
+
+		List<String> lines = new ArrayList<>();
+		lines.add("FEATURES");
+		for (int i = 0; i < 70; i++) {
+			lines.add("f" + i + "\tf" + i + "\tnumeric");
+		}
+		wide = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureModel();
+	}
+
+	@BeforeEach
+	void initArray() {
+		array = new IntegerFeatureArray(NULL, model);
+	}
+
+	@Test
+	void testSelectedByMapping() {
+		FeatureArray<Integer> features = factory.toSegment("a").getFeatures();
+		assertTrue(features instanceof IntegerFeatureArray);
+	}
+
+	@Test
+	void testPrimitiveAccessors() {
+		assertFalse(array.isDefined(3));
+		assertEquals(0, array.getInt(3));
+
+		array.setInt(3, -2);
+		assertTrue(array.isDefined(3));
+		assertEquals(-2, array.getInt(3));
+		assertEquals(-2, (int) array.get(3));
+
+		array.set(3, null);
+		assertFalse(array.isDefined(3));
+		assertNull(array.get(3));
+	}
+
+	@Test
+	void testIndexOutOfBounds() {
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(20));
+		assertThrows(IndexOutOfBoundsException.class, () -> array.setInt(-1, 0));
+	}
+
+	@Test
+	void testConstraints() {
+		// [+nasal] > [-lateral]
+		array.setInt(5, 1);
+		array.setInt(6, 1);
+		assertEquals(-1, array.getInt(5));
+	}
+
+	@Test
+	void testContains() {
+		assertTrue(array.contains(null));
+		assertFalse(array.contains(0));
+
+		IntegerFeatureArray full = new IntegerFeatureArray(0, wide);
+		assertFalse(full.contains(null));
+		full.setInt(68, 4);
+		assertTrue(full.contains(4));
+	}
+
+	@Test
+	void testEquals() {
+		IntegerFeatureArray features = new IntegerFeatureArray(2, model);
+		FeatureArray<Integer> standard = new StandardFeatureArray<>(features);
+		FeatureArray<Integer> sparse = new SparseFeatureArray<>(features);
+
+		assertEquals(features, new IntegerFeatureArray(features));
+		assertEquals(features, standard);
+		assertEquals(standard, features);
+		assertEquals(standard.hashCode(), features.hashCode());
+		assertNotEquals(features, sparse);
+		assertNotEquals(sparse, features);
+		assertNotEquals(features, array);
+		assertNotEquals(features, new IntegerFeatureArray(2, wide));
+	}
+
+	@Test
+	void testHashCodeAfterChange() {
+		int hash = array.hashCode();
+		array.setInt(2, 1);
+		assertNotEquals(hash, array.hashCode());
+
+		hash = array.hashCode();
+		IntegerFeatureArray mask = new IntegerFeatureArray(NULL, model);
+		mask.setInt(2, -1);
+		array.alter(mask);
+		assertNotEquals(hash, array.hashCode());
+		assertEquals(new StandardFeatureArray<>(array).hashCode(), array.hashCode());
+	}
+
+	@Test
+	void testAgreesWithStandardFeatureArray() {
+		Random random = new Random(17);
+		IntegerFeature type = IntegerFeature.INSTANCE;
+		for (int n = 0; n < 500; n++) {
+			FeatureArray<Integer> s1 = randomArray(random);
+			FeatureArray<Integer> s2 = randomArray(random);
+			IntegerFeatureArray i1 = new IntegerFeatureArray(s1);
+			IntegerFeatureArray i2 = new IntegerFeatureArray(s2);
+
+			assertEquals(s1.matches(s2), i1.matches(i2));
+			assertEquals(s1.matches(s2), i1.matches(s2));
+			assertEquals(
+					Integer.signum(s1.compareTo(s2)),
+					Integer.signum(i1.compareTo(i2))
+			);
+			assertEquals(type.difference(s1, s2), type.difference(i1, i2));
+			assertEquals(s1.hashCode(), i1.hashCode());
+
+			assertEquals(s1.alter(s2), i1.alter(i2));
+			assertEquals(s1, i1);
+		}
+	}
+
+	private static FeatureArray<Integer> randomArray(Random random) {
+		List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < wide.getSpecification().size(); i++) {
+			int r = random.nextInt(5);
+			list.add(r == 0 ? null : r - 3);
+		}
+		return new StandardFeatureArray<>(list, wide);
+	}
+}
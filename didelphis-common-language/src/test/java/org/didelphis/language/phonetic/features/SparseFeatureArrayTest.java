@@ -192,12 +192,74 @@ class SparseFeatureArrayTest extends PhoneticTestBase {
 	@Test
 	void iterator() {
 		List<Integer> valuesReceived = new ArrayList<>(20);
-		List<Integer> valuesExpected = new ArrayList<>(20);
+		List<Integer> valuesExpected
+				= new ArrayList<>(Collections.nCopies(20, null));
 		array.iterator().forEachRemaining(valuesReceived::add);
-		Collections.fill(valuesExpected, null);
 		assertEquals(valuesExpected, valuesReceived);
 	}
 
+	@Test
+	void iteratorWithValues() {
+		array.set(19, 3);
+		array.set(2, 1);
+
+		List<Integer> valuesReceived = new ArrayList<>(20);
+		List<Integer> valuesExpected
+				= new ArrayList<>(Collections.nCopies(20, null));
+		valuesExpected.set(2, 1);
+		valuesExpected.set(19, 3);
+		array.iterator().forEachRemaining(valuesReceived::add);
+		assertEquals(valuesExpected, valuesReceived);
+	}
+
+	@Test
+	void setOutOfOrder() {
+		array.set(9, 2);
+		array.set(1, 0);
+		array.set(5, -1);
+		array.set(9, 4);
+
+		assertEquals("{1=0;5=-1;9=4}", array.toString());
+		assertEquals(4, (int) array.get(9));
+		assertNull(array.get(4));
+	}
+
+	@Test
+	void setNegativeIndex() {
+		assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, 0));
+	}
+
+	@Test
+	void alterSparse() {
+		SparseFeatureArray<Integer> other = new SparseFeatureArray<>(model);
+		other.set(0, 1);
+		other.set(4, 2);
+		other.set(7, 3);
+		array.set(4, 2);
+		array.set(6, 5);
+
+		assertTrue(array.alter(other));
+		assertEquals("{0=1;4=2;6=5;7=3}", array.toString());
+		assertFalse(array.alter(other));
+		assertFalse(array.alter(array));
+	}
+
+	@Test
+	void matchesSparse() {
+		SparseFeatureArray<Integer> other = new SparseFeatureArray<>(model);
+		other.set(1, 1);
+		other.set(8, -1);
+		array.set(8, -1);
+		array.set(12, 1);
+
+		assertTrue(array.matches(other));
+		assertTrue(other.matches(array));
+
+		other.set(12, 0);
+		assertFalse(array.matches(other));
+		assertFalse(other.matches(array));
+	}
+
 	@Test
 	void equals() {
 		FeatureArray<Integer> array1 = new SparseFeatureArray<>(array);
@@ -228,4 +290,23 @@ class SparseFeatureArrayTest extends PhoneticTestBase {
 		assertNotEquals(array.hashCode(), array1.hashCode());
 	}
 
+	@Test
+	void testHashCodeDistinguishesValues() {
+		FeatureArray<Integer> array1 = new SparseFeatureArray<>(model);
+		FeatureArray<Integer> array2 = new SparseFeatureArray<>(model);
+		array1.set(0, 1);
+		array2.set(0, 2);
+		array.set(1, 1);
+		array.set(2, 1);
+
+		assertNotEquals(array1.hashCode(), array2.hashCode());
+		assertNotEquals(array.hashCode(), array1.hashCode());
+		assertNotEquals(0, array1.hashCode());
+
+		int hash = array1.hashCode();
+		array1.alter(array2);
+		assertEquals(array2.hashCode(), array1.hashCode());
+		assertNotEquals(hash, array1.hashCode());
+	}
+
 }
@@ -20,6 +20,7 @@
 package org.didelphis.language.phonetic.features;
 
 import org.didelphis.language.phonetic.PhoneticTestBase;
+import org.didelphis.language.phonetic.model.FeatureMapping;
 import org.didelphis.language.phonetic.model.FeatureModel;
 import org.didelphis.language.phonetic.segments.Segment;
 
@@ -28,7 +29,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -173,6 +176,28 @@ class StandardFeatureArrayTest extends PhoneticTestBase {
 		assertNotEquals(array, new StandardFeatureArray<>(-1, model));
 	}
 
+	@Test
+	void hashCodeDistribution() {
+		FeatureMapping<Integer> mapping = loader.getFeatureMapping();
+		Set<FeatureArray<Integer>> arrays = new HashSet<>();
+		Set<Integer> hashes = new HashSet<>();
+		for (String key : mapping.getFeatureMap().keySet()) {
+			FeatureArray<Integer> features = mapping.getFeatureArray(key);
+			arrays.add(new StandardFeatureArray<>(features));
+			hashes.add(features.hashCode());
+		}
+		assertTrue(arrays.size() > 100);
+		assertTrue(hashes.size() >= arrays.size() * 0.95);
+	}
+
+	@Test
+	void hashCodeAfterSet() {
+		int hash = array.hashCode();
+		array.set(3, 0);
+		assertNotEquals(hash, array.hashCode());
+		assertEquals(new StandardFeatureArray<>(array).hashCode(), array.hashCode());
+	}
+
 	@Test
 	void iterator() {
 		assertTrue(array.iterator().hasNext());
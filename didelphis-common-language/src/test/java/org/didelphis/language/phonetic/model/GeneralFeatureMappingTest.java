@@ -70,6 +70,35 @@ class GeneralFeatureMappingTest extends PhoneticTestBase {
 		assertFalse(mapping.containsKey("@"));
 	}
 
+	@Test
+	void testContradictoryModifiers() {
+		// [+creaky] > [-breathy] and [+breathy] > [-creaky]: breathy, at index
+		// 16, is handled before creaky, at index 15, as it was when
+		// constraints were applied recursively, so breathy wins whichever
+		// order the modifiers are written in
+		FeatureSpecification specification = mapping.getSpecification();
+		int creaky = specification.getFeatureIndices().get("creaky");
+		int breathy = specification.getFeatureIndices().get("breathy");
+		assertEquals(15, creaky);
+		assertEquals(16, breathy);
+		for (String symbol : new String[]{"k͜x̰ʱ", "k͜xʱ̰", "a̰ʱ", "aʱ̰"}) {
+			FeatureArray<Integer> features
+					= mapping.parseSegment(symbol).getFeatures();
+			assertEquals(Integer.valueOf(-1), features.get(creaky), symbol);
+			assertEquals(Integer.valueOf(1), features.get(breathy), symbol);
+		}
+
+		// either modifier alone applies its own constraint
+		FeatureArray<Integer> creakyOnly
+				= mapping.parseSegment("a̰").getFeatures();
+		assertEquals(Integer.valueOf(1), creakyOnly.get(creaky));
+		assertEquals(Integer.valueOf(-1), creakyOnly.get(breathy));
+		FeatureArray<Integer> breathyOnly
+				= mapping.parseSegment("aʱ").getFeatures();
+		assertEquals(Integer.valueOf(-1), breathyOnly.get(creaky));
+		assertEquals(Integer.valueOf(1), breathyOnly.get(breathy));
+	}
+
 	@Test
 	void testBestSymbol01()  {
 		testBestSymbol("g");
@@ -100,6 +129,55 @@ class GeneralFeatureMappingTest extends PhoneticTestBase {
 		assertTrue(segment2 instanceof SemidefinedSegment);
 	}
 
+	@Test
+	void testParseSegmentCached() {
+		FeatureMapping<Integer> fresh = loadMapping("AT_hybrid.model");
+		SegmentCache<Integer> cache = fresh.getSegmentCache();
+		assertNotNull(cache);
+
+		Segment<Integer> segment1 = fresh.parseSegment("tʰ");
+		Segment<Integer> segment2 = fresh.parseSegment("tʰ");
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.size());
+
+		assertEquals(segment1, segment2);
+		assertNotSame(segment1, segment2);
+		assertNotSame(segment1.getFeatures(), segment2.getFeatures());
+
+		assertTrue(segment1.alter(fresh.parseSegment("a")));
+		assertEquals(segment2, fresh.parseSegment("tʰ"));
+	}
+
+	@Test
+	void testParseSegmentCachedSemidefined() {
+		FeatureMapping<Integer> fresh = loadMapping("AT_hybrid.model");
+		Segment<Integer> segment1 = fresh.parseSegment("n᷄");
+		Segment<Integer> segment2 = fresh.parseSegment("n᷄");
+		assertTrue(segment2 instanceof SemidefinedSegment);
+		assertEquals(segment1, segment2);
+		assertEquals(segment1.toString(), segment2.toString());
+	}
+
+	@Test
+	void testParseSegmentUncached() {
+		FeatureMapping<Integer> uncached = new GeneralFeatureMapping<>(
+				mapping.getFeatureModel(),
+				mapping.getFeatureMap(),
+				mapping.getModifiers(),
+				0
+		);
+		String[] strings = {"a", "tʰ", "n᷄", "[+con, -son]", "@", "t͡s"};
+		for (String string : strings) {
+			assertEquals(mapping.parseSegment(string), uncached.parseSegment(string));
+			assertEquals(mapping.parseSegment(string), mapping.parseSegment(string));
+		}
+		SegmentCache<Integer> cache = uncached.getSegmentCache();
+		assertNotNull(cache);
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHits());
+	}
+
 	private static void testBestSymbol(String string) {
 		Segment<Integer> segment = mapping.parseSegment(string);
 		FeatureArray<Integer> array = segment.getFeatures();
@@ -20,16 +20,22 @@
 package org.didelphis.language.phonetic.model;
 
 import org.didelphis.io.ClassPathFileHandler;
+import org.didelphis.io.NullFileHandler;
 import org.didelphis.language.parsing.ParseException;
 import org.didelphis.language.phonetic.PhoneticTestBase;
 import org.didelphis.language.phonetic.features.DoubleFeature;
 import org.didelphis.language.phonetic.features.FeatureArray;
 import org.didelphis.language.phonetic.features.IntegerFeature;
+import org.didelphis.language.phonetic.features.IntegerFeatureArray;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,6 +90,106 @@ class GeneralFeatureModelTest extends PhoneticTestBase {
 		assertNotEquals(model.getConstraints(), empty.getConstraints());
 	}
 
+	@Test
+	void constraintsCopied() {
+		List<Constraint<Integer>> constraints
+				= new ArrayList<>(model.getConstraints());
+		FeatureModel<Integer> copy = new GeneralFeatureModel<>(
+				model.getFeatureType(),
+				model.getSpecification(),
+				constraints,
+				Collections.emptyMap()
+		);
+		constraints.clear();
+		assertEquals(model.getConstraints(), copy.getConstraints());
+		for (int i = 0; i < model.getSpecification().size(); i++) {
+			assertEquals(model.getConstraints(i), copy.getConstraints(i));
+		}
+	}
+
+	@Test
+	void getConstraintsByIndex() {
+		int total = 0;
+		for (int i = 0; i < model.getSpecification().size(); i++) {
+			List<Constraint<Integer>> constraints = model.getConstraints(i);
+			for (Constraint<Integer> constraint : constraints) {
+				assertNotNull(constraint.getSource().get(i));
+			}
+			total += constraints.size();
+		}
+		assertTrue(total >= model.getConstraints().size());
+		// [+nasal] > [-lateral]
+		assertFalse(model.getConstraints(6).isEmpty());
+		assertTrue(empty.getConstraints().isEmpty());
+	}
+
+	@Test
+	void constraintChain() {
+		List<String> lines = Arrays.asList(
+				"FEATURES",
+				"a\ta\tbinary",
+				"b\tb\tbinary",
+				"c\tc\tbinary",
+				"d\td\tbinary",
+				"CONSTRAINTS",
+				"[+c] > [+d]",
+				"[+b] > [+c]",
+				"[+a] > [+b]",
+				"[+d] > [+a]"
+		);
+		FeatureModel<Integer> chain = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureModel();
+
+		FeatureArray<Integer> array = new IntegerFeatureArray(-1, chain);
+		array.set(0, 1);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(1, (int) array.get(i));
+		}
+	}
+
+	@Test
+	void constraintCycle() {
+		// Each constraint undoes the one before it; each is applied once
+		List<String> lines = Arrays.asList(
+				"FEATURES",
+				"a\ta\tbinary",
+				"b\tb\tbinary",
+				"CONSTRAINTS",
+				"[+a] > [+b]",
+				"[+b] > [-a]",
+				"[-a] > [-b]",
+				"[-b] > [+a]"
+		);
+		FeatureModel<Integer> cycle = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureModel();
+
+		FeatureArray<Integer> array = new IntegerFeatureArray(0, cycle);
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> array.set(0, 1));
+		assertEquals(1, (int) array.get(0));
+		assertEquals(-1, (int) array.get(1));
+	}
+
+	@Test
+	void constraintPrecedence() {
+		// Both features change together, and their constraints contradict
+		// each other; the constraint listed first takes precedence
+		FeatureArray<Integer> array = alterBoth("[+b] > [-a]", "[+a] > [-b]");
+		assertEquals(-1, (int) array.get(0));
+		assertEquals(1, (int) array.get(1));
+
+		array = alterBoth("[+a] > [-b]", "[+b] > [-a]");
+		assertEquals(1, (int) array.get(0));
+		assertEquals(-1, (int) array.get(1));
+	}
+
 	@Test
 	void parseFeatureString() {
 		FeatureArray<Integer> arr = model.parseFeatureString("[+consonantal]");
@@ -158,4 +264,23 @@ class GeneralFeatureModelTest extends PhoneticTestBase {
 		);
 	}
 
+	private static FeatureArray<Integer> alterBoth(String... constraints) {
+		List<String> lines = new ArrayList<>(Arrays.asList(
+				"FEATURES",
+				"a\ta\tbinary",
+				"b\tb\tbinary",
+				"CONSTRAINTS"
+		));
+		lines.addAll(Arrays.asList(constraints));
+		FeatureModel<Integer> pair = new FeatureModelLoader<>(
+				IntegerFeature.INSTANCE,
+				NullFileHandler.INSTANCE,
+				lines,
+				""
+		).getFeatureModel();
+
+		FeatureArray<Integer> array = new IntegerFeatureArray(-1, pair);
+		array.alter(pair.parseFeatureString("[+a, +b]"));
+		return array;
+	}
 }
@@ -0,0 +1,104 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.model;
+
+import org.didelphis.language.phonetic.PhoneticTestBase;
+import org.didelphis.language.phonetic.segments.Segment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class {@code SegmentCacheTest}
+ *
+ * @since 0.4.0
+ */
+class SegmentCacheTest extends PhoneticTestBase {
+
+	private final Segment<Integer> segment = factory.toSegment("a");
+
+	@Test
+	void testNegativeCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new SegmentCache<>(-1));
+	}
+
+	@Test
+	void testStatistics() {
+		SegmentCache<Integer> cache = new SegmentCache<>(4);
+		assertEquals(0.0, cache.getHitRate());
+		assertNull(cache.get("a"));
+		assertSame(segment, cache.put("a", segment));
+		assertSame(segment, cache.get("a"));
+		assertSame(segment, cache.get("a"));
+
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(2.0 / 3.0, cache.getHitRate());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	@Test
+	void testPutExisting() {
+		SegmentCache<Integer> cache = new SegmentCache<>(4);
+		Segment<Integer> other = factory.toSegment("a");
+		cache.put("a", segment);
+		assertSame(segment, cache.put("a", other));
+	}
+
+	@Test
+	void testBounded() {
+		SegmentCache<Integer> cache = new SegmentCache<>(3);
+		for (int i = 0; i < 10; i++) {
+			cache.put(String.valueOf(i), segment);
+			assertTrue(cache.size() <= 3);
+		}
+		assertEquals(3, cache.size());
+		assertEquals(7, cache.getEvictions());
+		assertNotNull(cache.get("9"));
+	}
+
+	@Test
+	void testReferencedTemplatesKept() {
+		SegmentCache<Integer> cache = new SegmentCache<>(3);
+		cache.put("a", segment);
+		cache.put("b", segment);
+		cache.put("c", segment);
+		assertNotNull(cache.get("a"));
+
+		cache.put("d", segment);
+		assertEquals(1, cache.getEvictions());
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("d"));
+	}
+
+	@Test
+	void testZeroCapacity() {
+		SegmentCache<Integer> cache = new SegmentCache<>(0);
+		assertSame(segment, cache.put("a", segment));
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+}
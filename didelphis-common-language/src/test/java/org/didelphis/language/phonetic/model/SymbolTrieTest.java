@@ -0,0 +1,99 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.model;
+
+import org.didelphis.language.phonetic.PhoneticTestBase;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.didelphis.language.phonetic.model.ModelConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class {@code SymbolTrieTest}
+ *
+ * @since 0.4.0
+ */
+class SymbolTrieTest extends PhoneticTestBase {
+
+	@Test
+	void testLongestPrefix() {
+		SymbolTrie trie = new SymbolTrie(Arrays.asList("t", "ts", "tsʰ", "a"));
+		assertEquals("tsʰ", trie.findLongestPrefix("tsʰa"));
+		assertEquals("ts", trie.findLongestPrefix("tsa"));
+		assertEquals("t", trie.findLongestPrefix("ta"));
+		assertEquals("", trie.findLongestPrefix("b"));
+		assertEquals("", trie.findLongestPrefix(""));
+	}
+
+	@Test
+	void testIgnoresTieBars() {
+		SymbolTrie trie = new SymbolTrie(Arrays.asList("t͡s", "t"));
+		assertEquals("t͡s", trie.findLongestPrefix("ts"));
+		assertEquals("t͡s", trie.findLongestPrefix("t͜s"));
+		assertEquals("t͡s", trie.findLongestPrefix("t͡s"));
+	}
+
+	@Test
+	void testTiesPreferEarlierSymbol() {
+		SymbolTrie trie = new SymbolTrie(Arrays.asList("t͡s", "t͜s", "ts"));
+		assertEquals("t͡s", trie.findLongestPrefix("ts"));
+		trie = new SymbolTrie(Arrays.asList("t͜s", "t͡s"));
+		assertEquals("t͜s", trie.findLongestPrefix("ts"));
+	}
+
+	@Test
+	void testMatchesLinearSearch() {
+		List<String> symbols = new ArrayList<>(
+				loader.getFeatureMapping().getFeatureMap().keySet());
+		symbols.sort((s1, s2) -> Integer.compare(s2.length(), s1.length()));
+		SymbolTrie trie = new SymbolTrie(symbols);
+
+		for (String symbol : symbols) {
+			for (String suffix : Arrays.asList("", "a", "ʰ", "͡", "tʰ")) {
+				String string = symbol + suffix;
+				for (int i = 0; i <= string.length(); i++) {
+					String prefix = string.substring(0, i);
+					assertEquals(
+							linearSearch(symbols, prefix),
+							trie.findLongestPrefix(prefix),
+							prefix
+					);
+				}
+			}
+		}
+	}
+
+	private static String linearSearch(List<String> symbols, String string) {
+		String best = "";
+		String s1 = DASH.replace(string, "");
+		for (String key : symbols) {
+			String s2 = DASH.replace(key, "");
+			if (s1.startsWith(s2) && key.length() > best.length()) {
+				best = key;
+			}
+		}
+		return best;
+	}
+}
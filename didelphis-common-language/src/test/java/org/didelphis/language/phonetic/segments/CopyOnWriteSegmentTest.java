@@ -0,0 +1,111 @@
+/******************************************************************************
+ * General components for language modeling and analysis                      *
+ *                                                                            *
+ * Copyright (C) 2014-2019 Samantha F McCabe                                  *
+ *                                                                            *
+ * This program is free software: you can redistribute it and/or modify       *
+ * it under the terms of the GNU General Public License as published by       *
+ * the Free Software Foundation, either version 3 of the License, or          *
+ * (at your option) any later version.                                        *
+ *                                                                            *
+ * This program is distributed in the hope that it will be useful,            *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of             *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the              *
+ * GNU General Public License for more details.                               *
+ *                                                                            *
+ * You should have received a copy of the GNU General Public License          *
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.     *
+ ******************************************************************************/
+
+package org.didelphis.language.phonetic.segments;
+
+import org.didelphis.language.phonetic.PhoneticTestBase;
+import org.didelphis.language.phonetic.features.FeatureArray;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class {@code CopyOnWriteSegmentTest}
+ *
+ * @since 0.4.0
+ */
+class CopyOnWriteSegmentTest extends PhoneticTestBase {
+
+	@Test
+	void testShared() {
+		ImmutableSegment<Integer> template = new ImmutableSegment<>(
+				factory.toSegment("a"));
+		CopyOnWriteSegment<Integer> segment1 = new CopyOnWriteSegment<>(template);
+		CopyOnWriteSegment<Integer> segment2 = new CopyOnWriteSegment<>(template);
+
+		assertTrue(segment1.isShared());
+		assertSame(template.getFeatures(), segment1.getFeatures());
+		assertEquals("a", segment1.getSymbol());
+		assertEquals(segment1, segment2);
+		assertEquals(segment1.hashCode(), segment2.hashCode());
+	}
+
+	@Test
+	void testEqualsStandardSegment() {
+		Segment<Integer> standard = factory.toSegment("a");
+		CopyOnWriteSegment<Integer> segment = new CopyOnWriteSegment<>(
+				new ImmutableSegment<>(standard));
+
+		assertEquals(standard, segment);
+		assertEquals(segment, standard);
+		assertEquals(standard.hashCode(), segment.hashCode());
+		assertEquals(0, segment.compareTo(standard));
+	}
+
+	@Test
+	void testAlter() {
+		Segment<Integer> a = factory.toSegment("a");
+		Segment<Integer> t = factory.toSegment("t");
+		ImmutableSegment<Integer> template = new ImmutableSegment<>(a);
+		CopyOnWriteSegment<Integer> segment1 = new CopyOnWriteSegment<>(template);
+		CopyOnWriteSegment<Integer> segment2 = new CopyOnWriteSegment<>(template);
+
+		assertTrue(segment1.alter(t));
+		assertFalse(segment1.isShared());
+		assertEquals(t.getFeatures(), segment1.getFeatures());
+		assertNotEquals(segment1, segment2);
+
+		assertTrue(segment2.isShared());
+		assertEquals(a.getFeatures(), template.getFeatures());
+		assertEquals(a, segment2);
+	}
+
+	@Test
+	void testSharedFeaturesReadOnly() {
+		Segment<Integer> a = factory.toSegment("a");
+		Segment<Integer> t = factory.toSegment("t");
+		ImmutableSegment<Integer> template = new ImmutableSegment<>(a);
+		CopyOnWriteSegment<Integer> segment1 = new CopyOnWriteSegment<>(template);
+		CopyOnWriteSegment<Integer> segment2 = new CopyOnWriteSegment<>(template);
+
+		FeatureArray<Integer> shared = segment1.getFeatures();
+		assertThrows(UnsupportedOperationException.class,
+				() -> shared.set(0, 1));
+		assertThrows(UnsupportedOperationException.class,
+				() -> shared.alter(t.getFeatures()));
+		assertEquals(a, segment2);
+
+		// once altered, the segment's own copy can be changed
+		assertTrue(segment1.alter(t));
+		segment1.getFeatures().set(0, 1);
+		assertEquals(Integer.valueOf(1), segment1.getFeatures().get(0));
+		assertEquals(a, segment2);
+	}
+
+	@Test
+	void testAlterWithoutChange() {
+		Segment<Integer> a = factory.toSegment("a");
+		CopyOnWriteSegment<Integer> segment = new CopyOnWriteSegment<>(
+				new ImmutableSegment<>(a));
+
+		assertFalse(segment.alter(a));
+		assertTrue(segment.isShared());
+	}
+}
@@ -23,6 +23,7 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 
 import org.didelphis.language.phonetic.PhoneticTestBase;
+import org.didelphis.language.phonetic.features.FeatureArray;
 
 import org.junit.jupiter.api.Test;
 
@@ -67,6 +68,20 @@ class ImmutableSegmentTest extends PhoneticTestBase {
 		assertEquals(segment1.getSymbol(), segment.getSymbol());
 	}
 
+	@Test
+	void testFeaturesReadOnly() {
+		FeatureArray<Integer> features = immutable1.getFeatures();
+		assertThrows(UnsupportedOperationException.class,
+				() -> features.set(0, 1));
+		assertThrows(UnsupportedOperationException.class,
+				() -> features.alter(segment2.getFeatures()));
+
+		// the segment's features are a copy, so the source can still change
+		assertNotSame(segment1.getFeatures(), features);
+		segment1.getFeatures().set(0, 1);
+		assertEquals(Integer.valueOf(1), segment1.getFeatures().get(0));
+	}
+
 	@Test
 	void alter() {
 		assertFalse(immutable1.alter(segment1));
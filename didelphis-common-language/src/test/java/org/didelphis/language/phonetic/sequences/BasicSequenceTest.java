@@ -238,6 +238,38 @@ class BasicSequenceTest extends PhoneticTestBase {
 		assertFalse(sequence1.startsWith(sequence3));
 	}
 
+	@Test
+	void testRegionMatches() {
+
+		Sequence<Integer> sequence1 = factory.toSequence("Sequence");
+		Sequence<Integer> sequence2 = factory.toSequence("que");
+		Sequence<Integer> sequence3 = factory.toSequence("ce");
+
+		assertTrue(sequence1.regionMatches(2, sequence2));
+		assertFalse(sequence1.regionMatches(1, sequence2));
+		assertTrue(sequence1.regionMatches(6, sequence3));
+		assertFalse(sequence1.regionMatches(7, sequence3));
+		assertFalse(sequence1.regionMatches(-1, sequence3));
+		assertTrue(sequence1.regionMatches(8, factory.toSequence("")));
+		assertFalse(sequence1.regionMatches(9, factory.toSequence("")));
+	}
+
+	@Test
+	void testRegionMatchesAgreesWithDefault() {
+		// The in-place override must agree with the default in Sequence
+		Sequence<Integer> sequence = factory.toSequence("Sequence");
+		for (String string : new String[]{"", "e", "que", "ence", "x"}) {
+			Sequence<Integer> other = factory.toSequence(string);
+			for (int i = 0; i <= sequence.size(); i++) {
+				assertEquals(
+						sequence.subsequence(i).startsWith(other),
+						sequence.regionMatches(i, other),
+						string + " at " + i
+				);
+			}
+		}
+	}
+
 	@Test
 	void testStartsWithSegment() {
 